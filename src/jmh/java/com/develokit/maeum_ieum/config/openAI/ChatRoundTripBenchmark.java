@@ -0,0 +1,89 @@
+package com.develokit.maeum_ieum.config.openAI;
+
+import com.develokit.maeum_ieum.config.openAI.simulator.OpenAiSimulator;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamEventDecoder;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamRunMetrics;
+import com.develokit.maeum_ieum.dto.openAi.message.ReqDto.CreateMessageReqDto;
+import com.develokit.maeum_ieum.dto.openAi.run.ReqDto.CreateRunReqDto;
+import com.develokit.maeum_ieum.service.chat.MessageJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 첫 토큰까지 걸리는 시간(TTFT) 비교: 메시지 생성 + 런 생성 두 번 호출 vs additional_messages 단일 왕복.
+ * OpenAiSimulator 가 요청마다 rttMillis 만큼 지연 후 응답하고, 런은 녹화된 SSE 트랜스크립트를 흘려보낸다.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatRoundTripBenchmark {
+
+    @Param({"20", "80"})
+    private long rttMillis;
+
+    @Param({"false", "true"})
+    private boolean singleRoundTrip;
+
+    private OpenAiSimulator simulator;
+    private ThreadWebClient threadWebClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        String transcript = load("/sse/short-greeting.sse");
+
+        //요청마다 rttMillis 지연, 토큰 간격 없이 녹화된 트랜스크립트 그대로 재생
+        simulator = OpenAiSimulator.start(OpenAiSimulator.Settings.builder()
+                .latencyMs(rttMillis)
+                .ttftMs(0)
+                .tokensPerSecond(0)
+                .runTranscript(transcript)
+                .build());
+
+        WebClient webClient = WebClient.builder()
+                .baseUrl(simulator.baseUrl())
+                .build();
+        //저장은 측정 대상이 아니므로 flush 하지 않는 저널 (큐에만 적재), 음성 캐시는 사용하지 않음
+        MessageJournal journal = new MessageJournal(null, null, 1_000_000, Integer.MAX_VALUE, 60_000, System.getProperty("java.io.tmpdir"));
+        threadWebClient = new ThreadWebClient(webClient, new StreamEventDecoder(), new StreamRunMetrics(new SimpleMeterRegistry()), journal, null);
+
+        Field field = ReflectionUtils.findField(ThreadWebClient.class, "singleRoundTrip");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, threadWebClient, singleRoundTrip);
+    }
+
+    @TearDown
+    public void tearDown() {
+        simulator.close();
+    }
+
+    //첫 델타 프레임 수신까지
+    @Benchmark
+    public Object timeToFirstToken() {
+        return threadWebClient.createMessageAndStreamRun(
+                        "thread_stub",
+                        new CreateMessageReqDto("user", "안녕하세요"),
+                        new CreateRunReqDto("asst_stub", true),
+                        1L)
+                .next()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static String load(String path) throws IOException {
+        try (InputStream in = ChatRoundTripBenchmark.class.getResourceAsStream(path)) {
+            if (in == null) throw new IllegalStateException("트랜스크립트를 찾을 수 없습니다: " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
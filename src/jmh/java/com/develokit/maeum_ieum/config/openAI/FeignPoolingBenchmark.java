@@ -0,0 +1,89 @@
+package com.develokit.maeum_ieum.config.openAI;
+
+import feign.Client;
+import feign.Feign;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Feign 호출 1회 지연 시간 비교: 기본 Client(HttpURLConnection) vs Apache HttpClient 5 커넥션 풀 (FeignHttpClientConfig).
+ * 로컬 reactor-netty 스텁이 스레드 생성 응답을 serverMillis 만큼 지연 후 반환한다.
+ * 스레드 8개로 동시에 호출하므로 HttpURLConnection 의 keep-alive 캐시(http.maxConnections, 기본 5)를 넘는 연결은 매번 새로 맺는다.
+ * 스텁은 평문 HTTP 라 TCP 연결 비용만 드러나며, 실제 api.openai.com 에서는 TLS 핸드셰이크만큼 차이가 더 벌어진다.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class FeignPoolingBenchmark {
+
+    interface StubThreadClient {
+        @RequestLine("POST /threads")
+        String createThread();
+    }
+
+    @Param({"0", "20"})
+    private long serverMillis;
+
+    @Param({"default", "hc5-pool"})
+    private String client;
+
+    private DisposableServer stub;
+    private CloseableHttpClient httpClient;
+    private StubThreadClient threadClient;
+
+    @Setup
+    public void setUp() {
+        Duration delay = Duration.ofMillis(serverMillis);
+        stub = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .post("/threads", (req, res) -> res
+                                .header("Content-Type", "application/json")
+                                .sendString(req.receive().then(Mono.delay(delay))
+                                        .thenReturn("{\"id\":\"thread_stub\",\"object\":\"thread\"}"))))
+                .bindNow();
+
+        Client feignClient;
+        if ("hc5-pool".equals(client)) {
+            httpClient = HttpClients.custom()
+                    .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                            .setMaxConnTotal(100)
+                            .setMaxConnPerRoute(50)
+                            .build())
+                    .build();
+            feignClient = new ApacheHttp5Client(httpClient);
+        } else {
+            feignClient = new Client.Default(null, null);
+        }
+
+        threadClient = Feign.builder()
+                .client(feignClient)
+                .target(StubThreadClient.class, "http://localhost:" + stub.port());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (httpClient != null) httpClient.close();
+        stub.disposeNow();
+    }
+
+    @Benchmark
+    public String createThread() {
+        return threadClient.createThread();
+    }
+}
@@ -0,0 +1,92 @@
+package com.develokit.maeum_ieum.config.openAI.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 녹화된 SSE 트랜스크립트(src/jmh/resources/sse)를 재생하면서 델타 추출 비용을 비교한다.
+ * - treePerEvent: 기존 방식 (이벤트마다 new ObjectMapper() + readTree)
+ * - streamingDecoder: StreamEventDecoder (공유 JsonFactory + 스트리밍 파서)
+ * 할당량 비교는 -prof gc 로 확인 (./gradlew jmh, build.gradle의 jmh 블록 참고)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamEventDecoderBenchmark {
+
+    @Param({"short-greeting.sse", "long-answer.sse"})
+    private String transcript;
+
+    private List<String[]> events; //[event, data]
+    private StreamEventDecoder decoder;
+
+    @Setup
+    public void setUp() throws IOException {
+        decoder = new StreamEventDecoder();
+        events = parse(load("/sse/" + transcript));
+    }
+
+    @Benchmark
+    public void treePerEvent(Blackhole bh) throws IOException {
+        for (String[] event : events) {
+            if ("thread.message.delta".equals(event[0])) {
+                ObjectMapper om = new ObjectMapper();
+                JsonNode contentArray = om.readTree(event[1]).path("delta").path("content");
+                if (!contentArray.isEmpty()) {
+                    bh.consume(contentArray.get(0).path("text").path("value").asText());
+                }
+            } else if ("thread.message.completed".equals(event[0])) {
+                ObjectMapper om = new ObjectMapper();
+                JsonNode contentArray = om.readTree(event[1]).path("content");
+                if (!contentArray.isEmpty()) {
+                    bh.consume(contentArray.get(0).path("text").path("value").asText());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void streamingDecoder(Blackhole bh) throws IOException {
+        for (String[] event : events) {
+            if ("thread.message.delta".equals(event[0])) {
+                bh.consume(decoder.extractDeltaText(event[1]));
+            } else if ("thread.message.completed".equals(event[0])) {
+                bh.consume(decoder.extractCompletedText(event[1]));
+            }
+        }
+    }
+
+    private static String load(String path) throws IOException {
+        try (InputStream in = StreamEventDecoderBenchmark.class.getResourceAsStream(path)) {
+            if (in == null) throw new IllegalStateException("트랜스크립트를 찾을 수 없습니다: " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    //"event: ...\ndata: ...\n\n" 형식의 트랜스크립트를 [event, data] 목록으로 변환
+    static List<String[]> parse(String raw) {
+        List<String[]> result = new ArrayList<>();
+        for (String block : raw.split("\n\n")) {
+            String event = null;
+            StringBuilder data = new StringBuilder();
+            for (String line : block.split("\n")) {
+                if (line.startsWith("event: ")) event = line.substring(7);
+                else if (line.startsWith("data: ")) data.append(line.substring(6));
+            }
+            if (event != null) result.add(new String[]{event, data.toString()});
+        }
+        return result;
+    }
+}
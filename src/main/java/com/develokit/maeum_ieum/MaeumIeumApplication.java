@@ -3,11 +3,16 @@ package com.develokit.maeum_ieum;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.web.reactive.config.EnableWebFlux;
 
-@SpringBootApplication
+@SpringBootApplication(exclude = {
+		R2dbcAutoConfiguration.class, //채팅 경로 R2DBC 는 ChatR2dbcConfig 에서 직접 구성
+		R2dbcTransactionManagerAutoConfiguration.class
+})
 //@EnableJpaAuditing
 @EnableFeignClients
 //@EnableBatchProcessing
@@ -4,6 +4,7 @@ import com.develokit.maeum_ieum.domain.report.Report;
 import com.develokit.maeum_ieum.domain.report.ReportStatus;
 import com.develokit.maeum_ieum.domain.report.ReportType;
 import com.develokit.maeum_ieum.service.report.ProcessedReport;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -15,15 +16,16 @@ import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.DayOfWeek;
@@ -31,6 +33,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 import static com.develokit.maeum_ieum.service.report.ReportProcessor.*;
 
@@ -42,6 +45,12 @@ public class ReportJobConfig {
     private final EntityManagerFactory entityManagerFactory;
     private final Logger log = LoggerFactory.getLogger(ReportJobConfig.class);
 
+    @Value("${report.batch.concurrency:8}")
+    private int reportConcurrency; //동시에 분석하는 보고서 수 (보고서 하나 = OpenAI 런 하나)
+
+    //Executor 빈으로 등록하면 스프링 기본 applicationTaskExecutor 가 빠지므로 빈으로 등록하지 않고 여기서만 관리
+    private ThreadPoolTaskExecutor reportAnalysisExecutor;
+
 
     //주간/월간 보고서 통합 관리 Job
     @Bean
@@ -54,12 +63,12 @@ public class ReportJobConfig {
                 .build();
     }
 
-    //[월간 보고서] : 보고서 페이징 크기 100 TODO 확인 필요
+    //[월간 보고서] : 보고서 키셋 페이지 크기 100 (id 순서, 마지막으로 읽은 id 다음부터)
     //TODO MYSQL에서는 formatdatetime 함수 변경해야 함
     @Bean
     @StepScope
     @Qualifier("monthlyReportReader")
-    public JpaPagingItemReader<Report> monthlyReportReader(@Value("#{jobParameters['date']}") String dateString) {
+    public ReportKeysetItemReader monthlyReportReader(@Value("#{jobParameters['date']}") String dateString) {
 
         LocalDate targetDate = LocalDate.parse(dateString);
         LocalDate oneMonthAgo = targetDate.minusMonths(1);
@@ -67,24 +76,24 @@ public class ReportJobConfig {
 
         log.info("Querying monthly reports created on: {}", oneMonthAgo);
 
-        return new JpaPagingItemReaderBuilder<Report>()
-                .name("monthlyReportReader")
-                .entityManagerFactory(entityManagerFactory)
-                .queryString("SELECT r FROM Report r WHERE r.reportType = :reportType AND r.reportStatus = :reportStatus AND r.startDate = :targetDate")
-                .parameterValues(Map.of(
+        return new ReportKeysetItemReader(
+                "monthlyReportReader",
+                entityManagerFactory,
+                "SELECT r FROM Report r WHERE r.reportType = :reportType AND r.reportStatus = :reportStatus AND r.startDate = :targetDate " +
+                        "AND r.id > :lastSeenId ORDER BY r.id",
+                Map.of(
                         "reportType", ReportType.MONTHLY,
                         "reportStatus", ReportStatus.PENDING,
                         "targetDate", oneMonthAgo
-                ))
-                .pageSize(100)
-                .build();
+                ),
+                100);
     }
 
-    //[주간 보고서] : 보고서 페이징 크기:100
+    //[주간 보고서] : 보고서 키셋 페이지 크기:100
     @Bean
     @StepScope
     @Qualifier("weeklyReportReader")
-    public JpaPagingItemReader<Report> weeklyReportReader(@Value("#{jobParameters['date']}") String dateString) {
+    public ReportKeysetItemReader weeklyReportReader(@Value("#{jobParameters['date']}") String dateString) {
         log.info("weeklyReportReader called with dateString: {}", dateString);
 
         LocalDate targetDate = LocalDate.parse(dateString);
@@ -92,30 +101,61 @@ public class ReportJobConfig {
 
         log.info("Querying weekly reports for day: {}", reportDay);
 
-        return new JpaPagingItemReaderBuilder<Report>()
-                .name("weeklyReportReader")
-                .entityManagerFactory(entityManagerFactory)
-                .queryString("SELECT r FROM Report r WHERE r.reportType = :reportType AND r.reportStatus = :reportStatus AND r.reportDay = :reportDay")
-                .parameterValues(Map.of(
+        return new ReportKeysetItemReader(
+                "weeklyReportReader",
+                entityManagerFactory,
+                "SELECT r FROM Report r WHERE r.reportType = :reportType AND r.reportStatus = :reportStatus AND r.reportDay = :reportDay " +
+                        "AND r.id > :lastSeenId ORDER BY r.id",
+                Map.of(
                         "reportType", ReportType.WEEKLY,
                         "reportStatus", ReportStatus.PENDING,
                         "reportDay", reportDay
-                ))
-                .pageSize(100)
-                .build();
+                ),
+                100);
+    }
+    //보고서 분석은 reportConcurrency 개까지 동시에 실행하고, 결과는 청크(100) 단위로 모아서 한 트랜잭션에 저장
+    @Bean
+    public AsyncItemProcessor<Report, ProcessedReport> asyncReportProcessor(ItemProcessor<Report, ProcessedReport> reportProcessor) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(reportConcurrency);
+        executor.setMaxPoolSize(reportConcurrency);
+        executor.setThreadNamePrefix("report-analysis-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        this.reportAnalysisExecutor = executor;
+
+        AsyncItemProcessor<Report, ProcessedReport> asyncReportProcessor = new AsyncItemProcessor<>();
+        asyncReportProcessor.setDelegate(reportProcessor);
+        asyncReportProcessor.setTaskExecutor(executor);
+        return asyncReportProcessor;
     }
+
+    //분석 결과(Future)를 기다렸다가 ReportWriter 에 청크로 넘김. 분석 중 예외는 여기서 다시 던져져 청크가 롤백됨
+    @Bean
+    public AsyncItemWriter<ProcessedReport> asyncReportWriter(ItemWriter<ProcessedReport> reportWriter) {
+        AsyncItemWriter<ProcessedReport> asyncReportWriter = new AsyncItemWriter<>();
+        asyncReportWriter.setDelegate(reportWriter);
+        return asyncReportWriter;
+    }
+
+    @PreDestroy
+    public void shutdownReportAnalysisExecutor() {
+        if (reportAnalysisExecutor != null) reportAnalysisExecutor.shutdown();
+    }
+
     // 월간 보고서 생성 Step
 
     @Bean
     @Qualifier("monthlyReportGenerationStep")
     public Step monthlyReportGenerationStep(@Qualifier("monthlyReportReader") ItemReader<Report> monthlyReportReader,
-                                            ItemProcessor<Report, ProcessedReport> reportProcessor,
-                                            ItemWriter<ProcessedReport> reportWriter) {
+                                            AsyncItemProcessor<Report, ProcessedReport> asyncReportProcessor,
+                                            AsyncItemWriter<ProcessedReport> asyncReportWriter) {
         return new StepBuilder("monthlyReportGenerationStep", jobRepository)
-                .<Report, ProcessedReport>chunk(100, transactionManager)
+                .<Report, Future<ProcessedReport>>chunk(100, transactionManager)
                 .reader(monthlyReportReader)
-                .processor(reportProcessor)
-                .writer(reportWriter)
+                .processor(asyncReportProcessor)
+                .writer(asyncReportWriter)
                 .build();
     }
 
@@ -123,13 +163,13 @@ public class ReportJobConfig {
     @Bean
     @Qualifier("weeklyReportGenerationStep")
     public Step weeklyReportGenerationStep(@Qualifier("weeklyReportReader") ItemReader<Report> weeklyReportReader,
-                                           ItemProcessor<Report, ProcessedReport> reportProcessor,
-                                           ItemWriter<ProcessedReport> reportWriter) {
+                                           AsyncItemProcessor<Report, ProcessedReport> asyncReportProcessor,
+                                           AsyncItemWriter<ProcessedReport> asyncReportWriter) {
         return new StepBuilder("weeklyReportGenerationStep", jobRepository)
-                .<Report, ProcessedReport>chunk(100, transactionManager)
+                .<Report, Future<ProcessedReport>>chunk(100, transactionManager)
                 .reader(weeklyReportReader)
-                .processor(reportProcessor)
-                .writer(reportWriter)
+                .processor(asyncReportProcessor)
+                .writer(asyncReportWriter)
                 .build();
     }
 
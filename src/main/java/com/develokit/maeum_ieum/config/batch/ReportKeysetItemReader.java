@@ -0,0 +1,88 @@
+package com.develokit.maeum_ieum.config.batch;
+
+import com.develokit.maeum_ieum.domain.report.Report;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 보고서 키셋 리더. 마지막으로 읽은 보고서 아이디(lastSeenId) 다음부터 id 순서로 pageSize 개씩 읽는다.
+ * 오프셋 페이징(JpaPagingItemReader)은 프로세서가 reportStatus 를 바꾸면 다음 페이지가 밀려 보고서를 건너뛰고, 뒤 페이지로 갈수록 느려진다.
+ * 키셋은 상태가 바뀌어도 위치가 그대로라 조건에 맞는 보고서를 한 번씩만 읽고, 메모리에는 한 페이지만 둔다.
+ * lastSeenId 는 청크 커밋마다 ExecutionContext 에 저장되므로 재시작하면 마지막으로 커밋된 청크 다음부터 읽는다.
+ * queryString 은 ":lastSeenId" 조건과 "ORDER BY r.id" 를 포함해야 한다.
+ */
+public class ReportKeysetItemReader extends ItemStreamSupport implements ItemStreamReader<Report> {
+
+    private static final String LAST_SEEN_ID = "lastSeenId";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final String queryString;
+    private final Map<String, Object> parameterValues;
+    private final int pageSize;
+
+    private EntityManager entityManager;
+    private final Deque<Report> page = new ArrayDeque<>();
+    private long lastSeenId;
+    private boolean lastPage;
+
+    public ReportKeysetItemReader(String name, EntityManagerFactory entityManagerFactory, String queryString,
+                                  Map<String, Object> parameterValues, int pageSize) {
+        setName(name);
+        this.entityManagerFactory = entityManagerFactory;
+        this.queryString = queryString;
+        this.parameterValues = parameterValues;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        entityManager = entityManagerFactory.createEntityManager();
+        lastSeenId = executionContext.getLong(getExecutionContextKey(LAST_SEEN_ID), 0L);
+        lastPage = false;
+        page.clear();
+    }
+
+    @Override
+    public Report read() {
+        if (page.isEmpty() && !lastPage) readPage();
+        Report report = page.poll();
+        if (report != null) lastSeenId = report.getId();
+        return report;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(getExecutionContextKey(LAST_SEEN_ID), lastSeenId);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (entityManager != null) entityManager.close();
+        entityManager = null;
+        page.clear();
+    }
+
+    //읽은 보고서는 바로 준영속으로 돌림 (변경 내용은 ReportWriter 가 저장, 영속성 컨텍스트가 페이지마다 쌓이지 않게)
+    private void readPage() {
+        TypedQuery<Report> query = entityManager.createQuery(queryString, Report.class);
+        parameterValues.forEach(query::setParameter);
+        List<Report> reports = query
+                .setParameter(LAST_SEEN_ID, lastSeenId)
+                .setMaxResults(pageSize)
+                .getResultList();
+        entityManager.clear();
+
+        page.addAll(reports);
+        lastPage = reports.size() < pageSize;
+    }
+}
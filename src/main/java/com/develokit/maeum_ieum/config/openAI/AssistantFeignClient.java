@@ -2,6 +2,7 @@ package com.develokit.maeum_ieum.config.openAI;
 
 
 import com.develokit.maeum_ieum.config.openAI.header.FeignHeaderConfig;
+import com.develokit.maeum_ieum.config.openAI.header.FeignClientOptions;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,8 +13,8 @@ import static com.develokit.maeum_ieum.dto.openAi.assistant.RespDto.*;
 
 @FeignClient(
         name = "AssistantFeignClient",
-        url = "https://api.openai.com/v1/assistants",
-        configuration = FeignHeaderConfig.class
+        url = "${openai.base-url:https://api.openai.com/v1}/assistants",
+        configuration = {FeignHeaderConfig.class, FeignClientOptions.AssistantOptions.class}
 )
 public interface AssistantFeignClient {
 
@@ -1,6 +1,7 @@
 package com.develokit.maeum_ieum.config.openAI;
 
 import com.develokit.maeum_ieum.config.openAI.header.FeignHeaderConfig;
+import com.develokit.maeum_ieum.config.openAI.header.FeignClientOptions;
 import com.develokit.maeum_ieum.dto.openAi.gpt.ReqDto;
 import com.develokit.maeum_ieum.dto.openAi.gpt.RespDto;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -9,7 +10,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import static com.develokit.maeum_ieum.dto.openAi.gpt.ReqDto.*;
 import static com.develokit.maeum_ieum.dto.openAi.gpt.RespDto.*;
 
-@FeignClient(name = "GptFeignClient", url = "https://api.openai.com/v1", configuration = FeignHeaderConfig.class)
+@FeignClient(name = "GptFeignClient", url = "${openai.base-url:https://api.openai.com/v1}", configuration = {FeignHeaderConfig.class, FeignClientOptions.GptOptions.class})
 public interface GptFeignClient {
 
     @PostMapping("/chat/completions")
@@ -1,19 +1,25 @@
 package com.develokit.maeum_ieum.config.openAI;
 
+import com.develokit.maeum_ieum.config.openAI.stream.StreamEventDecoder;
 import com.develokit.maeum_ieum.dto.openAi.gpt.ReqDto;
 import com.develokit.maeum_ieum.dto.openAi.gpt.RespDto;
 import com.develokit.maeum_ieum.ex.CustomApiException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+
 import static com.develokit.maeum_ieum.dto.openAi.gpt.ReqDto.*;
 import static com.develokit.maeum_ieum.dto.openAi.gpt.RespDto.*;
 
@@ -22,6 +28,7 @@ import static com.develokit.maeum_ieum.dto.openAi.gpt.RespDto.*;
 public class GptWebClient {
 
     private final WebClient webClient;
+    private final StreamEventDecoder streamEventDecoder;
     private static final Logger log = LoggerFactory.getLogger(GptWebClient.class);
 
     public Mono<CreateGptMessageRespDto> createGptMessage(CreateGptMessageReqDto createGptMessageReqDto){
@@ -37,4 +44,30 @@ public class GptWebClient {
                     throw new CustomApiException("GPT 메시지 생성 과정에서 에러 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
                 });
     }
+
+    //stream=true 로 요청하고 도착하는 토큰(choices[0].delta.content)을 바로 흘려보냄, data: [DONE] 에서 종료
+    public Flux<String> streamGptMessage(CreateGptMessageReqDto createGptMessageReqDto){
+        return webClient.post()
+                .uri("/chat/completions")
+                .bodyValue(createGptMessageReqDto.streaming())
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .doOnSubscribe(subscription -> log.info("GPT API에 스트림 요청 전송"))
+                .doOnError(WebClientResponseException.class, e -> {
+                    log.error("GPT 스트림 메시지 생성 과정에서 에러 발생: " + e.getMessage());
+                    throw new CustomApiException("GPT 메시지 생성 과정에서 에러 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
+                })
+                .map(event -> event.data() == null ? "" : event.data())
+                .takeUntil("[DONE]"::equals)
+                .<String>handle((data, sink) -> {
+                    if ("[DONE]".equals(data) || data.isEmpty()) return;
+                    try {
+                        String delta = streamEventDecoder.extractChatDelta(data);
+                        if (delta != null && !delta.isEmpty()) sink.next(delta);
+                    } catch (IOException e) {
+                        log.error(e.getMessage());
+                        sink.error(new CustomApiException("GPT 응답 직렬화 과정에서 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
+                    }
+                });
+    }
 }
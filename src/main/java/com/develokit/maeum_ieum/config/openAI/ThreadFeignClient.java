@@ -1,6 +1,7 @@
 package com.develokit.maeum_ieum.config.openAI;
 
 import com.develokit.maeum_ieum.config.openAI.header.FeignHeaderConfig;
+import com.develokit.maeum_ieum.config.openAI.header.FeignClientOptions;
 import com.develokit.maeum_ieum.dto.openAi.audio.ReqDto.AudioRequestDto;
 import com.develokit.maeum_ieum.dto.openAi.message.RespDto.ListMessageRespDto;
 import com.develokit.maeum_ieum.dto.openAi.message.RespDto.MessageRespDto;
@@ -18,8 +19,8 @@ import static com.develokit.maeum_ieum.dto.openAi.thread.RespDto.*;
 
 @FeignClient(
         name = "ThreadFeignClient",
-        url = "https://api.openai.com/v1/threads",
-        configuration = FeignHeaderConfig.class
+        url = "${openai.base-url:https://api.openai.com/v1}/threads",
+        configuration = {FeignHeaderConfig.class, FeignClientOptions.ThreadOptions.class}
 )
 public interface ThreadFeignClient {
     @PostMapping //스레드 생성
@@ -1,37 +1,38 @@
 package com.develokit.maeum_ieum.config.openAI;
 
-import com.develokit.maeum_ieum.domain.message.Message;
-import com.develokit.maeum_ieum.domain.message.MessageRepository;
-import com.develokit.maeum_ieum.domain.message.MessageType;
-import com.develokit.maeum_ieum.domain.user.elderly.Elderly;
+import com.develokit.maeum_ieum.config.openAI.stream.RunEvent;
+import com.develokit.maeum_ieum.config.openAI.stream.RunStateMachine;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamEventDecoder;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamRunMetrics;
 import com.develokit.maeum_ieum.dto.message.RespDto;
 import com.develokit.maeum_ieum.dto.message.RespDto.CreateStreamMessageRespDto;
 import com.develokit.maeum_ieum.dto.openAi.audio.RespDto.CreateAudioRespDto;
+import com.develokit.maeum_ieum.dto.openAi.audio.RespDto.StreamAudioRespDto;
 import com.develokit.maeum_ieum.dto.openAi.message.ReqDto.CreateMessageReqDto;
 import com.develokit.maeum_ieum.dto.openAi.message.RespDto.MessageRespDto;
 import com.develokit.maeum_ieum.ex.CustomApiException;
+import com.develokit.maeum_ieum.service.chat.MessageJournal;
+import com.develokit.maeum_ieum.service.chat.SpeechCache;
 import com.develokit.maeum_ieum.util.CustomUtil;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
-
 
+import java.io.ByteArrayOutputStream;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
@@ -42,13 +43,21 @@ import static com.develokit.maeum_ieum.dto.openAi.run.ReqDto.*;
 
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class ThreadWebClient {
 
     private final WebClient webClient;
+    private final StreamEventDecoder streamEventDecoder;
+    private final StreamRunMetrics streamRunMetrics;
 
-    private final MessageRepository messageRepository;
+    private final MessageJournal messageJournal; //메시지 저장은 write-behind 저널에 위임
+    private final SpeechCache speechCache; //합성 음성 디스크 캐시
     private static final Logger log = LoggerFactory.getLogger(ThreadWebClient.class);
+    private static final String RUN_CALL_CHAT = "chat"; //openai.run.usage 의 call 태그
+    private static final int SPEECH_CACHE_COPY_LIMIT = 1024 * 1024; //스트리밍 음성 중 캐시용으로 모으는 최대 크기
+
+    //true: 유저 메시지를 런 생성 요청(additional_messages)에 실어 한 번에 보냄, false: 메시지 생성 -> 런 생성 두 번 호출
+    @Value("${chat.single-round-trip.enabled:true}")
+    private boolean singleRoundTrip;
 
     //메시지 생성
     public Flux<MessageRespDto> createMessage(String threadId, CreateMessageReqDto createMessageReqDto){
@@ -76,103 +85,103 @@ public class ThreadWebClient {
                     throw new CustomApiException("메시지 생성 과정에서 에러 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
                 });
     }
-    @Transactional
-    public Flux<CreateStreamMessageRespDto> createStreamRun(String threadId, CreateRunReqDto createRunReqDto, Elderly elderly, CreateMessageReqDto createMessageReqDto) {
-        return webClient.post()
-                .uri("/threads/{threadId}/runs", threadId)
-                .bodyValue(createRunReqDto)
-                .retrieve()
-                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
-                })
-                .doOnSubscribe(subscription -> log.info("OPENAI에 스트림 런 생성 요청 전송"))
-                .doOnError(WebClientResponseException.class, e -> {
-                    log.error(e.getMessage());
-                    throw new CustomApiException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
-                })
-                .filter(event -> "thread.message.delta".equals(event.event()) ||  "thread.message.completed".equals(event.event()))
-                .publishOn(Schedulers.boundedElastic())
-                .handle((event, sink) -> {
-                            String data = event.data();
-                            try {
-                                ObjectMapper om = new ObjectMapper();
-                                JsonNode rootNode = om.readTree(data);
-
-                                if ("thread.message.delta".equals(event.event())) {
-                                    JsonNode deltaNode = rootNode.path("delta");
-                                    JsonNode contentArray = deltaNode.path("content");
-                                    if (!contentArray.isEmpty()) {
-                                        JsonNode textNode = contentArray.get(0).path("text");
-                                        String answer = textNode.path("value").asText();
-                                        sink.next(new CreateStreamMessageRespDto(answer, false, null));
-                                        return;
+    public Flux<CreateStreamMessageRespDto> createStreamRun(String threadId, CreateRunReqDto createRunReqDto, Long elderlyId, CreateMessageReqDto createMessageReqDto, LocalDateTime askedAt) {
+        return Flux.defer(() -> {
+            RunStateMachine run = new RunStateMachine(); //런 아이디(취소 시 사용), 델타 수, 토큰 사용량
+
+            return webClient.post()
+                    .uri("/threads/{threadId}/runs", threadId)
+                    .bodyValue(createRunReqDto)
+                    .retrieve()
+                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                    })
+                    .doOnSubscribe(subscription -> log.info("OPENAI에 스트림 런 생성 요청 전송"))
+                    .doOnError(WebClientResponseException.class, e -> {
+                        log.error(e.getMessage());
+                        throw new CustomApiException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
+                    })
+                    .transform(streamEventDecoder::decodeRunEvents)
+                    .<CreateStreamMessageRespDto>handle((event, sink) -> {
+                                RunStateMachine.State state = run.apply(event);
+                                if (state == RunStateMachine.State.FAILED) {
+                                    //런 실패는 남은 이벤트를 기다리지 않고 바로 종료
+                                    log.error("스트림 런 실패: threadId = {}, runId = {}, {}", threadId, run.runId(), run.failure());
+                                    sink.error(run.failure().toException());
+                                } else if (event instanceof RunEvent.Delta delta) {
+                                    if (delta.text() != null) {
+                                        sink.next(new CreateStreamMessageRespDto(delta.text(), false, null));
                                     }
-                                } else if ("thread.message.completed".equals(event.event())) {
-                                    JsonNode contentArray = rootNode.path("content");
-                                    if (!contentArray.isEmpty()) {
-                                        JsonNode textNode = contentArray.get(0).path("text");
-                                        String answer = textNode.path("value").asText();
-                                        //유저 질문 저장
-                                        Message userMessage = messageRepository.save(Message.builder()
-                                                .elderly(elderly)
-                                                .content(createMessageReqDto.getContent())
-                                                .messageType(MessageType.USER)
-                                                .build());
-                                        //최근 대화 날짜 갱신
-                                        elderly.updateLastChatDate(userMessage.getCreatedDate());
-                                        //어시스턴트 답변 저장
-                                        Message aiMessage = messageRepository.save(Message.builder()
-                                                .messageType(MessageType.AI)
-                                                .elderly(elderly)
-                                                .content(answer)
-                                                .build());
-                                        sink.next(new CreateStreamMessageRespDto(null, true, CustomUtil.LocalDateTimeFormatForChatResponse(aiMessage.getCreatedDate())));
-                                        sink.complete();
+                                } else if (event instanceof RunEvent.Completed completed) {
+                                    if (completed.text() == null) {
+                                        sink.error(new CustomApiException("답변 생성 과정에서 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
                                         return;
                                     }
-                                    sink.error(new CustomApiException("답변 생성 과정에서 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
+                                    streamRunMetrics.recordCompleted(run.deltas());
+                                    //유저 질문 & 어시스턴트 답변 & 최근 대화 날짜 갱신은 저널에 넣고 바로 마지막 프레임 전송
+                                    LocalDateTime answeredAt = messageJournal.append(elderlyId, createMessageReqDto.getContent(), askedAt, completed.text());
+                                    sink.next(new CreateStreamMessageRespDto(null, true, CustomUtil.LocalDateTimeFormatForChatResponse(answeredAt)));
+                                } else if (state == RunStateMachine.State.COMPLETED) {
+                                    //런 완료(사용량)까지 받은 뒤 종료해야 같은 스레드의 다음 런이 진행 중인 런과 겹치지 않음
+                                    streamRunMetrics.recordUsage(RUN_CALL_CHAT, run.usage());
+                                    sink.complete();
                                 }
-                            } catch (JsonProcessingException e) {
-                                log.error(e.getMessage());
-                                sink.error(new CustomApiException("답변 직렬화 과정에서 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
-                            }
-                        });
+                            })
+                    //클라이언트 연결이 끊기면 업스트림 SSE 구독도 취소되어 커넥션이 바로 정리되고, 답변 전이면 OpenAI 런도 취소 요청
+                    .doOnCancel(() -> {
+                        if (run.state() != RunStateMachine.State.ANSWERED) {
+                            cancelRunOnDisconnect(threadId, run.runId(), run.deltas());
+                        }
+                    });
+        });
+    }
+
+    private void cancelRunOnDisconnect(String threadId, String runId, int deltasSoFar) {
+        if (runId == null) {
+            log.warn("런 아이디를 받기 전에 연결이 종료되어 런을 취소하지 못했습니다: threadId = {}", threadId);
+            return;
+        }
+        streamRunMetrics.recordCancelled(deltasSoFar);
+        cancelRun(threadId, runId)
+                .subscribe(
+                        null,
+                        e -> {
+                            streamRunMetrics.recordCancelFailure();
+                            log.warn("런 취소 요청 실패: threadId = {}, runId = {}, {}", threadId, runId, e.getMessage());
+                        },
+                        () -> log.info("클라이언트 연결 종료로 런 취소: threadId = {}, runId = {}, 수신 델타 = {}", threadId, runId, deltasSoFar));
     }
 
+    //진행 중인 런 취소 (ThreadFeignClient.cancelRun 의 논블로킹 버전)
+    public Mono<Void> cancelRun(String threadId, String runId){
+        return webClient.post()
+                .uri("/threads/{threadId}/runs/{runId}/cancel", threadId, runId)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofSeconds(10))
+                .then();
+    }
 
-    //유저 메시지 저장 -> 메시지 생성 -> 스트림 런 작업 처리
-    public Flux<CreateStreamMessageRespDto> createMessageAndStreamRun(String threadId, CreateMessageReqDto createMessageReqDto, CreateRunReqDto createRunReqDto, Elderly elderly){
-        return createMessage(threadId, createMessageReqDto)
-                .thenMany(createStreamRun(threadId, createRunReqDto, elderly, createMessageReqDto));
+
+    //메시지 생성 -> 스트림 런 작업 처리 -> 유저 질문 & ai 응답 저장 (단일 왕복 모드면 메시지는 런 요청에 포함)
+    public Flux<CreateStreamMessageRespDto> createMessageAndStreamRun(String threadId, CreateMessageReqDto createMessageReqDto, CreateRunReqDto createRunReqDto, Long elderlyId){
+        return Flux.defer(() -> {
+            LocalDateTime askedAt = LocalDateTime.now(); //유저 질문 시각
+            return createMessageBeforeRun(threadId, createMessageReqDto)
+                    .thenMany(createStreamRun(threadId, runRequestFor(createRunReqDto, createMessageReqDto), elderlyId, createMessageReqDto, askedAt));
+        });
 
     }
 
 
     //유저 메시지 저장 -> 메시지 생성 -> 비스트림 런 작업 처리 (전체 답변 반환)
-    @Transactional
-    public Mono<CreateMessageRespDto> createMessageAndRun(String threadId, CreateMessageReqDto createMessageReqDto, CreateRunReqDto createRunReqDto, Elderly elderly){
-        return createSingleMessage(threadId, createMessageReqDto)
-                .doOnNext(messageResp -> log.info("Mono 메시지 생성 완료: {}", messageResp))
-                .then(createRun(threadId, createRunReqDto))
-                .flatMap(answer -> Mono.fromCallable(() -> {
-                    Message userMessage = Message.builder()
-                            .messageType(MessageType.USER)
-                            .content(createMessageReqDto.getContent())
-                            .elderly(elderly)
-                            .build();
-
-                    Message aiMessage = Message.builder()
-                            .messageType(MessageType.AI)
-                            .content(answer)
-                            .elderly(elderly)
-                            .build();
-
-                    elderly.updateLastChatDate(userMessage.getCreatedDate());
-
-                    messageRepository.save(userMessage);
-                    messageRepository.save(aiMessage);
-
-                    return new CreateMessageRespDto(answer);
-                }).subscribeOn(Schedulers.boundedElastic()))
+    public Mono<CreateMessageRespDto> createMessageAndRun(String threadId, CreateMessageReqDto createMessageReqDto, CreateRunReqDto createRunReqDto, Long elderlyId){
+        return Mono.fromSupplier(LocalDateTime::now) //유저 질문 시각
+                .flatMap(askedAt -> createMessageBeforeRun(threadId, createMessageReqDto)
+                        .then(createRun(threadId, runRequestFor(createRunReqDto, createMessageReqDto)))
+                        .map(answer -> {
+                            messageJournal.append(elderlyId, createMessageReqDto.getContent(), askedAt, answer);
+                            return new CreateMessageRespDto(answer);
+                        }))
                 .doOnNext(result -> log.info("생성된 메시지: {}", result.getAnswer()))
                 .doOnError(e -> log.error("비스트림런 유저 답변 생성 과정에서 오류 발생: ", e))
                 .onErrorResume(e -> {
@@ -182,6 +191,20 @@ public class ThreadWebClient {
     }
 
 
+    //두 번 호출 모드에서만 런 생성 전에 메시지를 따로 생성
+    private Mono<Void> createMessageBeforeRun(String threadId, CreateMessageReqDto createMessageReqDto){
+        if(singleRoundTrip) return Mono.empty();
+        return createSingleMessage(threadId, createMessageReqDto)
+                .doOnNext(messageResp -> log.info("Mono 메시지 생성 완료: {}", messageResp))
+                .then();
+    }
+
+    //단일 왕복 모드면 유저 메시지를 additional_messages 로 런 요청에 포함
+    private CreateRunReqDto runRequestFor(CreateRunReqDto createRunReqDto, CreateMessageReqDto createMessageReqDto){
+        if(!singleRoundTrip) return createRunReqDto;
+        return createRunReqDto.withAdditionalMessage(createMessageReqDto.getRole(), createMessageReqDto.getContent());
+    }
+
     //비스트림 런 생성 (생성된 전체 답변)
     Mono<String> createRun(String threadId, CreateRunReqDto createRunReqDto){
         return webClient.post()
@@ -194,25 +217,15 @@ public class ThreadWebClient {
                     log.error(e.getMessage());
                     throw new CustomApiException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
                 })
-                .filter(event -> "thread.message.completed".equals(event.event()))
-                .next()
-                .doOnNext(event -> log.info("전체 답변 생성 완료: {}", event.data()))
-                .flatMap(event -> {
-                    String data = event.data();
-                    try {
-                        ObjectMapper om = new ObjectMapper();
-                        JsonNode rootNode = om.readTree(data);
-                        JsonNode contentArray = rootNode.path("content");
-                        if (!contentArray.isEmpty()) {
-                            JsonNode textNode = contentArray.get(0).path("text");
-                            return Mono.just(textNode.path("value").asText());
-                        }
-                        log.warn("반환된 응답이 없습니다");
-                        return Mono.just("");
-                    } catch (JsonProcessingException e) {
-                        log.error(e.getMessage());
-                        return Mono.error(new CustomApiException("답변 생성 과정에서 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
+                .transform(streamEventDecoder::decodeRunEvents)
+                .as(RunStateMachine::await)
+                .map(result -> {
+                    streamRunMetrics.recordUsage(RUN_CALL_CHAT, result.usage());
+                    if (result.answer() != null) {
+                        return result.answer();
                     }
+                    log.warn("반환된 응답이 없습니다");
+                    return "";
                 })
                 .timeout(Duration.ofSeconds(30)) //응답은 30초 내로 와야 함
                 .doOnNext(answer -> log.debug("답변 생성 완료: "+answer));
@@ -220,48 +233,100 @@ public class ThreadWebClient {
 
     //오디오 생성
     public Mono<CreateAudioRespDto> createAudio(AudioRequestDto audioRequestDto, LocalDateTime aiMessageCreateTime){
+        return createSpeech(audioRequestDto)
+                .map(audio -> new CreateAudioRespDto(audio, audioRequestDto.getInput(), CustomUtil.LocalDateTimeFormatForChatResponse(aiMessageCreateTime)));
+    }
+
+    //음성 합성: (모델, 목소리, 문장)이 같으면 캐시에서 바로 반환
+    public Mono<byte[]> createSpeech(AudioRequestDto audioRequestDto){
+        return Mono.defer(() -> {
+            String key = SpeechCache.key(audioRequestDto.getModel(), audioRequestDto.getVoice(), audioRequestDto.getInput());
+            byte[] cached = speechCache.get(key);
+            if (cached != null) return Mono.just(cached);
+            return requestSpeech(audioRequestDto)
+                    .doOnNext(audio -> speechCache.put(key, audio));
+        });
+    }
+
+    //음성 합성 본문을 버퍼링 없이 DataBuffer 로 흘려보냄 (캐시 적중 시 캐시된 mp3 반환)
+    public Flux<DataBuffer> streamSpeech(AudioRequestDto audioRequestDto){
+        return Flux.defer(() -> {
+            String key = SpeechCache.key(audioRequestDto.getModel(), audioRequestDto.getVoice(), audioRequestDto.getInput());
+            byte[] cached = speechCache.get(key);
+            if (cached != null) return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(cached));
+
+            //캐시 저장용 사본은 SPEECH_CACHE_COPY_LIMIT 까지만 모음 (넘으면 캐시하지 않음)
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            boolean[] overLimit = {false};
+            return webClient.post()
+                    .uri("/audio/speech")
+                    .bodyValue(audioRequestDto)
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class)
+                    .doOnSubscribe(subscription -> log.info("OPENAI에 오디오 스트림 생성 요청 전송"))
+                    .doOnNext(buffer -> {
+                        if (!overLimit[0]) overLimit[0] = !copyForCache(buffer, copy);
+                    })
+                    .doOnComplete(() -> {
+                        if (!overLimit[0] && copy.size() > 0) speechCache.put(key, copy.toByteArray());
+                    })
+                    .doOnError(WebClientResponseException.class, e -> {
+                        log.error(e.getMessage());
+                        throw new CustomApiException("오디오 생성 과정에서 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
+                    });
+        });
+    }
+
+    //읽기 위치는 그대로 두고 사본만 뜸 (한도를 넘으면 사본을 버리고 false)
+    private static boolean copyForCache(DataBuffer buffer, ByteArrayOutputStream copy){
+        int readable = buffer.readableByteCount();
+        if (copy.size() + readable > SPEECH_CACHE_COPY_LIMIT) {
+            copy.reset();
+            return false;
+        }
+        int readPosition = buffer.readPosition();
+        byte[] chunk = new byte[readable];
+        buffer.read(chunk);
+        buffer.readPosition(readPosition);
+        copy.writeBytes(chunk);
+        return true;
+    }
+
+    private Mono<byte[]> requestSpeech(AudioRequestDto audioRequestDto){
         return webClient.post()
                 .uri("/audio/speech")
                 .bodyValue(audioRequestDto)
                 .retrieve()
                 .bodyToMono(byte[].class)
                 .doOnSubscribe(subscription -> log.info("OPENAI에 오디오 생성 요청 전송"))
-                .map(audio -> new CreateAudioRespDto(audio, audioRequestDto.getInput(), CustomUtil.LocalDateTimeFormatForChatResponse(aiMessageCreateTime)))
                 .doOnError(WebClientResponseException.class, e -> {
                     log.error(e.getMessage());
                     throw new CustomApiException("오디오 생성 과정에서 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
                 });
     }
 
+    // 메시지 생성 -> 답변 생성 -> 유저 질문 & ai 응답 저장 -> 오디오는 버퍼링 없이 스트림으로 반환
+    public Mono<StreamAudioRespDto> createMessageAndRunForAudioStream(String threadId, CreateMessageReqDto createMessageReqDto, CreateRunReqDto createRunReqDto, AudioRequestDto audioRequestDto, Long elderlyId){
+        return Mono.fromSupplier(LocalDateTime::now) //유저 질문 시각
+                .flatMap(askedAt -> createMessageBeforeRun(threadId, createMessageReqDto)
+                        .then(createRun(threadId, runRequestFor(createRunReqDto, createMessageReqDto)))
+                        .map(text -> {
+                            audioRequestDto.setInput(text);
+                            LocalDateTime answeredAt = messageJournal.append(elderlyId, createMessageReqDto.getContent(), askedAt, text);
+                            return new StreamAudioRespDto(text, CustomUtil.LocalDateTimeFormatForChatResponse(answeredAt), streamSpeech(audioRequestDto));
+                        }));
+    }
+
     // 메시지 생성 -> 답변 생성 -> 유저 질문 & ai 응답 저장 -> 답변을 오디오로 변환
-    @Transactional
-    public Mono<CreateAudioRespDto> createMessageAndRunForAudio(String threadId, CreateMessageReqDto createMessageReqDto, CreateRunReqDto createRunReqDto, AudioRequestDto audioRequestDto, Elderly elderly){
-        return createSingleMessage(threadId, createMessageReqDto)
-                .doOnNext(messageResp -> log.info("Mono 메시지 생성 완료: {}", messageResp))
-                .then(createRun(threadId, createRunReqDto))
-                .flatMap(text ->
-                    Mono.fromCallable(() ->
-                    {
-                        audioRequestDto.setInput(text);
-
-                        Message userMessage = messageRepository.save(Message.builder()
-                                .messageType(MessageType.USER)
-                                .content(createMessageReqDto.getContent())
-                                .elderly(elderly)
-                                .build());
-
-                        elderly.updateLastChatDate(userMessage.getCreatedDate());
-
-
-                        return messageRepository.save(Message.builder()
-                                .messageType(MessageType.AI)
-                                .content(text)
-                                .elderly(elderly)
-                                .build());
-                    })
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .flatMap(aiMessage -> createAudio(audioRequestDto, aiMessage.getCreatedDate()))
-                );
+    public Mono<CreateAudioRespDto> createMessageAndRunForAudio(String threadId, CreateMessageReqDto createMessageReqDto, CreateRunReqDto createRunReqDto, AudioRequestDto audioRequestDto, Long elderlyId){
+        return Mono.fromSupplier(LocalDateTime::now) //유저 질문 시각
+                .flatMap(askedAt -> createMessageBeforeRun(threadId, createMessageReqDto)
+                        .then(createRun(threadId, runRequestFor(createRunReqDto, createMessageReqDto)))
+                        .flatMap(text -> {
+                            audioRequestDto.setInput(text);
+                            LocalDateTime answeredAt = messageJournal.append(elderlyId, createMessageReqDto.getContent(), askedAt, text);
+                            return createAudio(audioRequestDto, answeredAt);
+                        }));
     }
 
 
@@ -0,0 +1,45 @@
+package com.develokit.maeum_ieum.config.openAI.header;
+
+import feign.Request;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FeignClient 별 타임아웃 (각 FeignClient 의 configuration 에 지정).
+ * 클라이언트 전용 컨텍스트에만 등록되어야 하므로 @Configuration 을 붙이지 않고, @Configuration 클래스의 중첩 클래스로도 두지 않는다.
+ */
+public class FeignClientOptions {
+
+    private static Request.Options options(long connectTimeoutMs, long readTimeoutMs){
+        return new Request.Options(connectTimeoutMs, TimeUnit.MILLISECONDS, readTimeoutMs, TimeUnit.MILLISECONDS, true);
+    }
+
+    //AssistantFeignClient: 어시스턴트 생성/수정/조회
+    public static class AssistantOptions {
+        @Bean
+        public Request.Options assistantRequestOptions(@Value("${openai.feign.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                                       @Value("${openai.feign.assistant.read-timeout-ms:20000}") long readTimeoutMs){
+            return options(connectTimeoutMs, readTimeoutMs);
+        }
+    }
+
+    //ThreadFeignClient: 스레드/메시지/런 + 음성 합성(응답이 가장 김)
+    public static class ThreadOptions {
+        @Bean
+        public Request.Options threadRequestOptions(@Value("${openai.feign.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                                    @Value("${openai.feign.thread.read-timeout-ms:30000}") long readTimeoutMs){
+            return options(connectTimeoutMs, readTimeoutMs);
+        }
+    }
+
+    //GptFeignClient: chat completions (보고서 분석 등 긴 답변)
+    public static class GptOptions {
+        @Bean
+        public Request.Options gptRequestOptions(@Value("${openai.feign.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                                 @Value("${openai.feign.gpt.read-timeout-ms:60000}") long readTimeoutMs){
+            return options(connectTimeoutMs, readTimeoutMs);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.develokit.maeum_ieum.config.openAI.header;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Feign OpenAI 클라이언트(어시스턴트/스레드/GPT)용 커넥션 풀.
+ * 기본 HttpURLConnection 대신 keep-alive 풀(Apache HttpClient 5)을 써서 연속 호출 시 TCP/TLS 연결을 재사용한다.
+ * 클라이언트별 타임아웃은 각 FeignClient 의 configuration 으로 지정한 FeignClientOptions 에서 정한다.
+ */
+@Configuration
+public class FeignHttpClientConfig {
+
+    @Value("${openai.feign.pool.max-connections:100}")
+    private int maxConnections;
+    @Value("${openai.feign.pool.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute; //호스트가 api.openai.com 하나라 사실상 전체 상한
+    @Value("${openai.feign.pool.time-to-live-ms:300000}")
+    private long timeToLiveMs;
+    @Value("${openai.feign.pool.idle-evict-ms:30000}")
+    private long idleEvictMs; //OpenAI 쪽에서 먼저 끊기 전에 유휴 연결 정리
+    @Value("${openai.feign.pool.validate-after-inactivity-ms:2000}")
+    private long validateAfterInactivityMs;
+    @Value("${openai.feign.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient feignHttpClient(){
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .disableCookieManagement()
+                .disableAutomaticRetries() //재시도는 호출하는 쪽에서 판단 (POST 중복 생성 방지)
+                .build();
+    }
+
+    //모든 FeignClient 가 공유하는 Client (spring-cloud-openfeign 이 컨텍스트의 Client 빈을 사용)
+    @Bean
+    public Client feignClient(CloseableHttpClient feignHttpClient){
+        return new ApacheHttp5Client(feignHttpClient);
+    }
+}
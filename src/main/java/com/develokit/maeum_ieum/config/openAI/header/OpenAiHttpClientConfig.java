@@ -0,0 +1,104 @@
+package com.develokit.maeum_ieum.config.openAI.header;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenAI 호출 전용 Reactor Netty 커넥션 풀 / HttpClient.
+ * 채팅 스트림, 음성 합성, 보고서 분석이 기본 공유 풀 대신 이 풀("openai")을 쓰며, 풀 크기와 타임아웃은 openai.http.* 로 조정한다.
+ * 풀 상태는 openai.http.pool.* 게이지(active, idle, pending, max)로 노출된다.
+ */
+@Configuration
+public class OpenAiHttpClientConfig {
+
+    public static final String POOL_NAME = "openai";
+    private static final String WRITE_TIMEOUT_HANDLER = "openai.writeTimeout";
+
+    @Value("${openai.http.pool.max-connections:100}")
+    private int maxConnections;
+    @Value("${openai.http.pool.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount; //커넥션 대기 큐 길이 (넘으면 즉시 실패)
+    @Value("${openai.http.pool.pending-acquire-timeout-ms:5000}")
+    private long pendingAcquireTimeoutMs;
+    @Value("${openai.http.pool.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs; //OpenAI 쪽 keep-alive 종료 전에 먼저 닫음
+    @Value("${openai.http.pool.max-life-time-ms:300000}")
+    private long maxLifeTimeMs;
+    @Value("${openai.http.pool.evict-interval-ms:30000}")
+    private long evictIntervalMs;
+    @Value("${openai.http.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+    @Value("${openai.http.response-timeout-ms:120000}")
+    private long responseTimeoutMs; //요청 전송 후 응답 데이터 사이 최대 대기 시간 (보고서 분석 같은 긴 비스트림 호출 기준, 스트림 중 끊김도 이걸로 감지)
+    @Value("${openai.http.write-timeout-ms:10000}")
+    private long writeTimeoutMs; //요청 본문 전송 (요청 중에만 걸고 응답이 오면 뗌)
+    @Value("${openai.http.http2:false}")
+    private boolean http2;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openAiConnectionProvider(MeterRegistry meterRegistry){
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(evictIntervalMs))
+                .metrics(true, () -> new PoolGaugeRegistrar(meterRegistry))
+                .build();
+    }
+
+    @Bean
+    public HttpClient openAiHttpClient(ConnectionProvider openAiConnectionProvider){
+        HttpClient httpClient = HttpClient.create(openAiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                //풀에서 쉬는 커넥션에 타임아웃 핸들러가 남지 않도록 요청마다 붙였다가 응답이 오면 뗌
+                .doOnRequest((request, connection) -> connection
+                        .addHandlerLast(WRITE_TIMEOUT_HANDLER, new WriteTimeoutHandler(writeTimeoutMs, TimeUnit.MILLISECONDS)))
+                .doOnResponse((response, connection) -> connection.removeHandler(WRITE_TIMEOUT_HANDLER));
+
+        //HTTP/2 는 TLS(ALPN) 협상으로만 올라가고, 협상에 실패하면 HTTP/1.1 로 동작
+        if (http2) httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        return httpClient;
+    }
+
+    //원격 주소별 커넥션 풀 상태를 MeterRegistry 게이지로 등록
+    static class PoolGaugeRegistrar implements ConnectionProvider.MeterRegistrar {
+
+        private final MeterRegistry meterRegistry;
+
+        PoolGaugeRegistrar(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+            Tags tags = Tags.of("pool", poolName, "id", id, "remote", String.valueOf(remoteAddress));
+            Gauge.builder("openai.http.pool.active", metrics, ConnectionPoolMetrics::acquiredSize)
+                    .description("사용 중인 커넥션 수").tags(tags).register(meterRegistry);
+            Gauge.builder("openai.http.pool.idle", metrics, ConnectionPoolMetrics::idleSize)
+                    .description("대기 중인 유휴 커넥션 수").tags(tags).register(meterRegistry);
+            Gauge.builder("openai.http.pool.pending", metrics, ConnectionPoolMetrics::pendingAcquireSize)
+                    .description("커넥션을 기다리는 요청 수").tags(tags).register(meterRegistry);
+            Gauge.builder("openai.http.pool.total", metrics, ConnectionPoolMetrics::allocatedSize)
+                    .description("할당된 전체 커넥션 수").tags(tags).register(meterRegistry);
+            Gauge.builder("openai.http.pool.max", metrics, ConnectionPoolMetrics::maxAllocatedSize)
+                    .description("최대 커넥션 수").tags(tags).register(meterRegistry);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.develokit.maeum_ieum.config.openAI.header;
 
+import com.develokit.maeum_ieum.config.openAI.resilience.OpenAiResilienceFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
 
 @Configuration
 public class WebClientHeaderConfig {
@@ -13,12 +16,17 @@ public class WebClientHeaderConfig {
 
     @Value("${openai.key}")
     private String OPENAI_API_KEY;
+    @Value("${openai.base-url:https://api.openai.com/v1}")
+    private String OPENAI_BASE_URL; //부하 테스트 시 OpenAiSimulator 주소
     @Bean
-    public WebClient webClient(){
+    public WebClient webClient(HttpClient openAiHttpClient, OpenAiResilienceFilter openAiResilienceFilter){
         return WebClient.builder()
-                .baseUrl("https://api.openai.com/v1")
+                .clientConnector(new ReactorClientHttpConnector(openAiHttpClient)) //전용 커넥션 풀 (OpenAiHttpClientConfig)
+                .filter(openAiResilienceFilter) //429/5xx 재시도 + 서킷 브레이커
+                .baseUrl(OPENAI_BASE_URL)
                 .defaultHeader(AUTHORIZATION_HEADER,"Bearer "+OPENAI_API_KEY)
                 .defaultHeader("OpenAI-Beta", "assistants=v2")
+                //bodyToMono(byte[]) 로 mp3 전체를 받는 기존 JSON 음성 API 용 (스트리밍 음성 API 는 DataBuffer 로 흘려보내므로 해당 없음)
                 .exchangeStrategies(ExchangeStrategies.builder().codecs(clientCodecConfigurer -> clientCodecConfigurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
                         .build())
                 .build();
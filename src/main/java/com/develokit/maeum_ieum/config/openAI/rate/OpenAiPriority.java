@@ -0,0 +1,9 @@
+package com.develokit.maeum_ieum.config.openAI.rate;
+
+//OpenAI 호출 우선순위 (선언 순서가 높은 순서)
+public enum OpenAiPriority {
+    LIVE_CHAT, //채팅 답변
+    VOICE, //음성 답변, 음성 합성
+    AUTOCOMPLETE, //필수 규칙 자동 생성
+    BATCH //주간/월간 보고서 분석
+}
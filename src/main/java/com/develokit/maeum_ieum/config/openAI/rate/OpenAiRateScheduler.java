@@ -0,0 +1,254 @@
+package com.develokit.maeum_ieum.config.openAI.rate;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * OpenAI 계정 한도(모델별 분당 요청 수, 분당 토큰 수)를 나눠 쓰는 토큰 버킷 스케줄러.
+ * 채팅, 음성, 자동 생성, 보고서 분석이 같은 버킷을 쓰고, 버킷이 비면 우선순위(LIVE_CHAT > VOICE > AUTOCOMPLETE > BATCH) 순서로 대기열에서 꺼낸다.
+ * AUTOCOMPLETE, BATCH 는 버킷을 reserve-ratio 아래로 비우지 못하므로 보고서 분석이 몰려도 채팅 몫이 남는다.
+ * 대기는 스레드를 막지 않고 허가 신호(Mono)를 구독하는 방식이며, 대기열이 가득 차면 바로 429를 반환한다.
+ * OpenAiResilienceFilter 의 재시도는 여기를 다시 거치지 않으므로 버킷에는 첫 요청만 잡힌다 (한도는 재시도분 여유를 두고 설정).
+ * 지표: openai.rate.queue.depth(게이지), openai.rate.wait(대기 시간), openai.rate.rejected
+ */
+@Component
+public class OpenAiRateScheduler {
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final Map<String, long[]> limits; //모델 -> {rpm, tpm}
+    private final long defaultRpm;
+    private final long defaultTpm;
+    private final double reserveRatio;
+    private final int maxQueue;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler timer;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public OpenAiRateScheduler(MeterRegistry meterRegistry,
+                               @Value("${openai.rate.default-rpm:500}") long defaultRpm,
+                               @Value("${openai.rate.default-tpm:200000}") long defaultTpm,
+                               @Value("${openai.rate.models:gpt-4o-mini=500/200000,gpt-3.5-turbo=500/200000,tts-1=50/0}") String models,
+                               @Value("${openai.rate.reserve-ratio:0.2}") double reserveRatio,
+                               @Value("${openai.rate.max-queue:200}") int maxQueue) {
+        this(meterRegistry, defaultRpm, defaultTpm, models, reserveRatio, maxQueue, Schedulers.parallel(), System::nanoTime);
+    }
+
+    OpenAiRateScheduler(MeterRegistry meterRegistry, long defaultRpm, long defaultTpm, String models, double reserveRatio, int maxQueue,
+                        Scheduler timer, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.defaultRpm = defaultRpm;
+        this.defaultTpm = defaultTpm;
+        this.limits = parseLimits(models);
+        this.reserveRatio = reserveRatio;
+        this.maxQueue = maxQueue;
+        this.timer = timer;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 버킷에서 요청 1개와 추정 토큰 수만큼 허가를 받은 뒤 work 를 구독한다.
+     * @param estimatedTokens 프롬프트 + 예상 출력 토큰 수 (토큰 한도가 없는 모델이나 모르면 0)
+     */
+    public <T> Mono<T> admit(String model, OpenAiPriority priority, long estimatedTokens, Supplier<? extends Mono<T>> work) {
+        return acquire(model, priority, estimatedTokens).then(Mono.defer(work));
+    }
+
+    public <T> Flux<T> admitMany(String model, OpenAiPriority priority, long estimatedTokens, Supplier<? extends Flux<T>> work) {
+        return acquire(model, priority, estimatedTokens).thenMany(Flux.defer(work));
+    }
+
+    //현재 대기 중인 요청 수
+    public int queueDepth(String model, OpenAiPriority priority) {
+        Budget budget = budgets.get(model);
+        if (budget == null) return 0;
+        synchronized (budget) {
+            return budget.queues.get(priority).size();
+        }
+    }
+
+    private Mono<Void> acquire(String model, OpenAiPriority priority, long estimatedTokens) {
+        return Mono.defer(() -> {
+            Budget budget = budgets.computeIfAbsent(model, this::newBudget);
+            Waiter waiter = new Waiter(priority, Math.max(0, estimatedTokens), nanoClock.getAsLong());
+            synchronized (budget) {
+                if (budget.queues.get(priority).size() >= maxQueue) {
+                    budget.rejected.get(priority).increment();
+                    return Mono.error(new CustomApiException("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요", HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.TOO_MANY_REQUESTS));
+                }
+                budget.queues.get(priority).addLast(waiter);
+            }
+            drain(budget);
+            return waiter.granted.asMono()
+                    .doOnCancel(() -> cancel(budget, waiter));
+        });
+    }
+
+    private void cancel(Budget budget, Waiter waiter) {
+        boolean removed;
+        synchronized (budget) {
+            removed = budget.queues.get(waiter.priority).remove(waiter);
+        }
+        if (removed) drain(budget); //앞에서 막고 있던 요청이 빠졌으므로 뒤 요청 재확인
+    }
+
+    //허가할 수 있는 요청을 우선순위 순서로 꺼내고, 남은 요청이 있으면 버킷이 찰 시점에 다시 확인
+    private void drain(Budget budget) {
+        List<Waiter> granted = new ArrayList<>();
+        long retryNanos = -1;
+        synchronized (budget) {
+            budget.refill(nanoClock.getAsLong());
+            for (OpenAiPriority priority : OpenAiPriority.values()) {
+                ArrayDeque<Waiter> queue = budget.queues.get(priority);
+                boolean reserved = priority.compareTo(OpenAiPriority.VOICE) > 0; //AUTOCOMPLETE, BATCH 는 예비분을 남김
+                while (!queue.isEmpty() && budget.tryConsume(queue.peekFirst().tokens, reserved ? reserveRatio : 0)) {
+                    granted.add(queue.pollFirst());
+                }
+                if (!queue.isEmpty()) {
+                    //높은 우선순위가 막혀 있으면 낮은 우선순위가 먼저 가져가지 못하도록 여기서 멈춤
+                    retryNanos = budget.nanosUntilAvailable(queue.peekFirst().tokens, reserved ? reserveRatio : 0);
+                    break;
+                }
+            }
+            if (retryNanos >= 0 && !budget.drainScheduled) {
+                budget.drainScheduled = true;
+            } else {
+                retryNanos = -1;
+            }
+        }
+
+        long now = nanoClock.getAsLong();
+        for (Waiter waiter : granted) {
+            budget.waitTimers.get(waiter.priority).record(now - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+            waiter.granted.tryEmitEmpty();
+        }
+        if (retryNanos >= 0) {
+            timer.schedule(() -> {
+                synchronized (budget) {
+                    budget.drainScheduled = false;
+                }
+                drain(budget);
+            }, Math.max(retryNanos, TimeUnit.MILLISECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Budget newBudget(String model) {
+        long[] limit = limits.getOrDefault(model, new long[]{defaultRpm, defaultTpm});
+        Budget budget = new Budget(limit[0], limit[1], nanoClock.getAsLong());
+        for (OpenAiPriority priority : OpenAiPriority.values()) {
+            String name = priority.name().toLowerCase();
+            Gauge.builder("openai.rate.queue.depth", budget, b -> queueDepth(model, priority))
+                    .description("OpenAI 호출 허가를 기다리는 요청 수")
+                    .tags("model", model, "priority", name)
+                    .register(meterRegistry);
+            budget.waitTimers.put(priority, Timer.builder("openai.rate.wait")
+                    .description("OpenAI 호출 허가까지 대기 시간")
+                    .tags("model", model, "priority", name)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+            budget.rejected.put(priority, Counter.builder("openai.rate.rejected")
+                    .description("대기열이 가득 차 거절한 요청 수")
+                    .tags("model", model, "priority", name)
+                    .register(meterRegistry));
+        }
+        return budget;
+    }
+
+    //"gpt-4o-mini=500/200000,tts-1=50/0" -> 모델별 {rpm, tpm} (tpm 0 이면 토큰 한도 없음)
+    static Map<String, long[]> parseLimits(String models) {
+        Map<String, long[]> result = new HashMap<>();
+        if (models == null || models.isBlank()) return result;
+        for (String entry : models.split(",")) {
+            String[] modelAndLimit = entry.trim().split("=");
+            String[] rpmAndTpm = modelAndLimit[1].split("/");
+            result.put(modelAndLimit[0].trim(), new long[]{Long.parseLong(rpmAndTpm[0].trim()), Long.parseLong(rpmAndTpm[1].trim())});
+        }
+        return result;
+    }
+
+    private static final class Waiter {
+        private final OpenAiPriority priority;
+        private final long tokens;
+        private final long enqueuedAt;
+        private final Sinks.Empty<Void> granted = Sinks.empty();
+
+        private Waiter(OpenAiPriority priority, long tokens, long enqueuedAt) {
+            this.priority = priority;
+            this.tokens = tokens;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    //모델별 요청/토큰 버킷 (분당 한도만큼 채워지고 최대 1분치까지 쌓임), budget 객체로 동기화
+    private static final class Budget {
+        private static final double NANOS_PER_MINUTE = Duration.ofMinutes(1).toNanos();
+
+        private final long rpm;
+        private final long tpm;
+        private double requests;
+        private double tokens;
+        private long refilledAt;
+        private boolean drainScheduled;
+        private final EnumMap<OpenAiPriority, ArrayDeque<Waiter>> queues = new EnumMap<>(OpenAiPriority.class);
+        private final EnumMap<OpenAiPriority, Timer> waitTimers = new EnumMap<>(OpenAiPriority.class);
+        private final EnumMap<OpenAiPriority, Counter> rejected = new EnumMap<>(OpenAiPriority.class);
+
+        private Budget(long rpm, long tpm, long now) {
+            this.rpm = rpm;
+            this.tpm = tpm;
+            this.requests = rpm;
+            this.tokens = tpm;
+            this.refilledAt = now;
+            for (OpenAiPriority priority : OpenAiPriority.values()) queues.put(priority, new ArrayDeque<>());
+        }
+
+        private void refill(long now) {
+            long elapsed = now - refilledAt;
+            if (elapsed <= 0) return;
+            requests = Math.min(rpm, requests + rpm * elapsed / NANOS_PER_MINUTE);
+            tokens = Math.min(tpm, tokens + tpm * elapsed / NANOS_PER_MINUTE);
+            refilledAt = now;
+        }
+
+        //reserveRatio 만큼은 남겨두고 허가 (1분치보다 큰 요청은 버킷이 가득 찼을 때 허가)
+        private boolean tryConsume(long needTokens, double reserveRatio) {
+            if (requests - 1 < rpm * reserveRatio) return false;
+            if (tpm > 0 && tokens < tpm * reserveRatio + Math.min(needTokens, tpm * (1 - reserveRatio))) return false;
+            requests -= 1;
+            if (tpm > 0) tokens -= needTokens;
+            return true;
+        }
+
+        private long nanosUntilAvailable(long needTokens, double reserveRatio) {
+            double requestDeficit = rpm * reserveRatio + 1 - requests;
+            double tokenDeficit = tpm > 0 ? tpm * reserveRatio + Math.min(needTokens, tpm * (1 - reserveRatio)) - tokens : 0;
+            double requestNanos = requestDeficit > 0 ? requestDeficit / rpm * NANOS_PER_MINUTE : 0;
+            double tokenNanos = tokenDeficit > 0 ? tokenDeficit / tpm * NANOS_PER_MINUTE : 0;
+            return (long) Math.ceil(Math.max(requestNanos, tokenNanos));
+        }
+    }
+}
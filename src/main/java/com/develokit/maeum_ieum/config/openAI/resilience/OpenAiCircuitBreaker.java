@@ -0,0 +1,100 @@
+package com.develokit.maeum_ieum.config.openAI.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 엔드포인트 묶음(runs, messages, audio 등) 하나의 서킷 브레이커.
+ * 최근 windowSize 건 중 minCalls 건 이상이 쌓이고 실패율이 failureRate 이상이면 OPEN 으로 바꿔 openMs 동안 바로 실패시킨다.
+ * openMs 가 지나면 HALF_OPEN 에서 시험 호출 하나만 통과시키고, 성공하면 CLOSED, 실패하면 다시 OPEN.
+ */
+public class OpenAiCircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final boolean[] outcomes; //true = 실패
+    private final int minCalls;
+    private final double failureRate;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int size;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private boolean probing;
+
+    public OpenAiCircuitBreaker(int windowSize, int minCalls, double failureRate, long openMs, LongSupplier nanoClock) {
+        this.outcomes = new boolean[windowSize];
+        this.minCalls = minCalls;
+        this.failureRate = failureRate;
+        this.openNanos = openMs * 1_000_000;
+        this.nanoClock = nanoClock;
+    }
+
+    //호출 가능 여부 (HALF_OPEN 에서는 시험 호출 하나만 허용)
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) return false;
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probing) return false;
+            probing = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (size >= minCalls && (double) failures / size >= failureRate) open();
+    }
+
+    //시험 호출이 결과 없이 끝난 경우 (취소, 429 등) 다음 호출이 다시 시험하도록 함
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) probing = false;
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) return State.HALF_OPEN;
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (size == outcomes.length) {
+            if (outcomes[next]) failures--;
+        } else {
+            size++;
+        }
+        outcomes[next] = failure;
+        if (failure) failures++;
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        probing = false;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        size = 0;
+        next = 0;
+        failures = 0;
+        probing = false;
+    }
+}
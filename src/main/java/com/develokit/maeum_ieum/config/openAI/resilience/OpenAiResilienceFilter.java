@@ -0,0 +1,223 @@
+package com.develokit.maeum_ieum.config.openAI.resilience;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * OpenAI WebClient 재시도 + 서킷 브레이커 필터.
+ * - 429/5xx 응답과 연결 실패는 지수 백오프(지터 포함)로 최대 max-retries 번 다시 보내고, Retry-After(-ms) 헤더가 있으면 그 시간을 따른다.
+ *   Retry-After 가 max-retry-after-ms 보다 길면 기다리지 않고 응답을 그대로 넘긴다.
+ * - POST 는 처리되지 않은 것이 확실한 429/503 과 연결 실패만 재시도한다 (메시지/런 중복 생성 방지).
+ * - 엔드포인트 묶음(runs, messages, threads, audio, chat, assistants)마다 서킷 브레이커를 두고, OPEN 이면 타임아웃까지 기다리지 않고 바로 503.
+ *   서킷은 5xx 와 연결 실패만 실패로 센다. 429 는 서버 장애가 아니라 계정 한도 신호라서 (보고서 분석이 한도에 걸려도 채팅 서킷이 열리지 않게) 따로 센다.
+ * - 재시도는 OpenAiRateScheduler 를 다시 거치지 않으므로 스케줄러 버킷에 잡히지 않는다.
+ *   한도에 걸릴수록 실제 요청 수가 버킷보다 많아지므로 openai.retry 지표를 보고 openai.rate.* 한도에 여유를 둔다.
+ * 재시도 후에도 실패한 응답은 그대로 넘기므로 호출하는 쪽의 WebClientResponseException 처리는 기존과 같다.
+ * 지표: openai.retry(family, reason), openai.rate-limited(family), openai.circuit.state(0 CLOSED, 1 HALF_OPEN, 2 OPEN), openai.circuit.rejected
+ */
+@Component
+public class OpenAiResilienceFilter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAiResilienceFilter.class);
+    private static final Set<Integer> RETRYABLE_STATUS = Set.of(429, 500, 502, 503, 504);
+    private static final Set<Integer> RETRYABLE_POST_STATUS = Set.of(429, 503);
+
+    private final Map<String, OpenAiCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final int maxRetries;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final long maxRetryAfterMs;
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRate;
+    private final long openMs;
+    private final Scheduler timer;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public OpenAiResilienceFilter(MeterRegistry meterRegistry,
+                                  @Value("${openai.retry.max-retries:2}") int maxRetries,
+                                  @Value("${openai.retry.backoff-ms:500}") long backoffMs,
+                                  @Value("${openai.retry.max-backoff-ms:8000}") long maxBackoffMs,
+                                  @Value("${openai.retry.max-retry-after-ms:20000}") long maxRetryAfterMs,
+                                  @Value("${openai.circuit.window-size:20}") int windowSize,
+                                  @Value("${openai.circuit.min-calls:10}") int minCalls,
+                                  @Value("${openai.circuit.failure-rate:0.5}") double failureRate,
+                                  @Value("${openai.circuit.open-ms:30000}") long openMs) {
+        this(meterRegistry, maxRetries, backoffMs, maxBackoffMs, maxRetryAfterMs, windowSize, minCalls, failureRate, openMs,
+                Schedulers.parallel(), System::nanoTime);
+    }
+
+    OpenAiResilienceFilter(MeterRegistry meterRegistry, int maxRetries, long backoffMs, long maxBackoffMs, long maxRetryAfterMs,
+                           int windowSize, int minCalls, double failureRate, long openMs, Scheduler timer, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxRetryAfterMs = maxRetryAfterMs;
+        this.windowSize = windowSize;
+        this.minCalls = minCalls;
+        this.failureRate = failureRate;
+        this.openMs = openMs;
+        this.timer = timer;
+        this.nanoClock = nanoClock;
+    }
+
+    //재시도 예약 신호 (retryWhen 에서만 사용)
+    private static final class RetrySignal extends RuntimeException {
+        private final String reason;
+        private final Duration retryAfter;
+
+        private RetrySignal(String reason, Duration retryAfter) {
+            super(reason, null, false, false);
+            this.reason = reason;
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String family = family(request.url().getPath());
+        OpenAiCircuitBreaker breaker = breaker(family);
+
+        return Mono.defer(() -> {
+            AtomicInteger attempts = new AtomicInteger();
+            return Mono.defer(() -> attempt(request, next, family, breaker, attempts.incrementAndGet()))
+                    .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                        if (!(signal.failure() instanceof RetrySignal retry)) return Mono.error(signal.failure());
+                        Duration delay = retry.retryAfter != null
+                                ? retry.retryAfter.plusMillis(ThreadLocalRandom.current().nextLong(250))
+                                : Duration.ofMillis(backoff(attempts.get()));
+                        counter("openai.retry", family, retry.reason).increment();
+                        log.warn("OpenAI 요청 재시도: {} {} ({}), {}ms 후 {}번째 시도", request.method(), family, retry.reason, delay.toMillis(), attempts.get() + 1);
+                        return Mono.delay(delay, timer);
+                    })));
+        });
+    }
+
+    private Mono<ClientResponse> attempt(ClientRequest request, ExchangeFunction next, String family, OpenAiCircuitBreaker breaker, int attempt) {
+        if (!breaker.tryAcquire()) {
+            counter("openai.circuit.rejected", family, null).increment();
+            return Mono.error(new CustomApiException("OpenAI 서버 응답이 원활하지 않습니다. 잠시 후 다시 시도해주세요", HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE));
+        }
+        boolean canRetry = attempt <= maxRetries;
+
+        return next.exchange(request)
+                .flatMap(response -> {
+                    int status = response.statusCode().value();
+                    if (!RETRYABLE_STATUS.contains(status)) {
+                        breaker.onSuccess(); //4xx 는 요청 문제이므로 서버 상태로 보지 않음
+                        return Mono.just(response);
+                    }
+                    if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        breaker.onIgnored();
+                        counter("openai.rate-limited", family, null).increment();
+                    } else {
+                        breaker.onFailure();
+                    }
+                    Duration retryAfter = retryAfter(response.headers().asHttpHeaders());
+                    boolean retryable = canRetry
+                            && (request.method() != HttpMethod.POST || RETRYABLE_POST_STATUS.contains(status))
+                            && (retryAfter == null || retryAfter.toMillis() <= maxRetryAfterMs);
+                    if (!retryable) return Mono.just(response);
+                    return response.releaseBody().then(Mono.error(new RetrySignal(String.valueOf(status), retryAfter)));
+                })
+                .onErrorResume(e -> !(e instanceof RetrySignal), e -> {
+                    breaker.onFailure();
+                    if (canRetry && isConnectFailure(e)) return Mono.error(new RetrySignal("connect", null));
+                    return Mono.error(e);
+                })
+                .doOnCancel(breaker::onIgnored);
+    }
+
+    //base * 2^(attempt-1) 상한 maxBackoffMs, 그 안에서 절반~전체 구간 지터
+    long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    //retry-after-ms(OpenAI) > retry-after(초 또는 HTTP 날짜)
+    static Duration retryAfter(HttpHeaders headers) {
+        try {
+            String millis = headers.getFirst("retry-after-ms");
+            if (millis != null) return Duration.ofMillis((long) Double.parseDouble(millis.trim()));
+            String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            if (value == null) return null;
+            value = value.trim();
+            if (Character.isDigit(value.charAt(0))) return Duration.ofMillis((long) (Double.parseDouble(value) * 1000));
+            Duration until = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return until.isNegative() ? Duration.ZERO : until;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    //"/v1/threads/{threadId}/runs/..." -> runs
+    static String family(String path) {
+        if (path.contains("/runs")) return "runs";
+        if (path.contains("/messages")) return "messages";
+        if (path.contains("/threads")) return "threads";
+        if (path.contains("/audio")) return "audio";
+        if (path.contains("/chat/completions")) return "chat";
+        if (path.contains("/assistants")) return "assistants";
+        return "other";
+    }
+
+    public OpenAiCircuitBreaker.State state(String family) {
+        return breaker(family).state();
+    }
+
+    private OpenAiCircuitBreaker breaker(String family) {
+        return breakers.computeIfAbsent(family, key -> {
+            OpenAiCircuitBreaker breaker = new OpenAiCircuitBreaker(windowSize, minCalls, failureRate, openMs, nanoClock);
+            Gauge.builder("openai.circuit.state", breaker, b -> b.state().ordinal())
+                    .description("OpenAI 서킷 브레이커 상태 (0 CLOSED, 1 HALF_OPEN, 2 OPEN)")
+                    .tag("family", key)
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    private Counter counter(String name, String family, String reason) {
+        Counter.Builder builder = Counter.builder(name).tag("family", family);
+        if (reason != null) builder.tag("reason", reason);
+        return builder.register(meterRegistry);
+    }
+
+    private static boolean isConnectFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException) return true;
+        }
+        return false;
+    }
+}
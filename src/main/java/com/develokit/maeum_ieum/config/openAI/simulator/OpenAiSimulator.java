@@ -0,0 +1,358 @@
+package com.develokit.maeum_ieum.config.openAI.simulator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Builder;
+import lombok.Getter;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.http.server.HttpServerRoutes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * 부하/지연 테스트용 로컬 OpenAI 시뮬레이터 (reactor-netty).
+ * 앱이 사용하는 /assistants, /threads, /threads/{id}/messages, /threads/{id}/runs(SSE), /threads/runs(SSE), /chat/completions(SSE 포함), /audio/speech 만 흉내 낸다.
+ * - 런 스트림은 녹화된 SSE 트랜스크립트(runTranscript)를 재생하고, 없으면 answer 로 이벤트를 만든다. 델타 이벤트는 ttftMs 뒤 tokensPerSecond 속도로 보낸다.
+ * - latencyMs: 모든 응답 전 지연 (네트워크 왕복), errorRate: 500 응답 비율, rateLimitEvery: N번째 요청마다 429 (retry-after-ms 헤더 포함)
+ * 테스트/벤치마크에서는 start(Settings) 로 띄우고 baseUrl() 을 WebClient/Feign 주소로 사용, 앱에서는 simulator 프로필 (OpenAiSimulatorConfig)
+ */
+public class OpenAiSimulator implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAiSimulator.class);
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    @Getter
+    @Builder(toBuilder = true)
+    public static class Settings {
+        @Builder.Default private int port = 0; //0 이면 빈 포트
+        @Builder.Default private long latencyMs = 0;
+        @Builder.Default private long ttftMs = 300;
+        @Builder.Default private double tokensPerSecond = 50; //0 이면 지연 없이 바로
+        @Builder.Default private double errorRate = 0;
+        @Builder.Default private int rateLimitEvery = 0; //0 이면 429 없음
+        @Builder.Default private long retryAfterMs = 1000;
+        @Builder.Default private String answer = "안녕하세요, 어르신! 오늘 하루는 어떻게 보내셨어요? 식사는 잘 챙겨 드셨나요?";
+        private String runTranscript; //"event: ...\ndata: ...\n\n" 형식
+    }
+
+    //요청 본문을 받아 응답을 쓰는 핸들러
+    @FunctionalInterface
+    private interface Responder {
+        Publisher<Void> respond(HttpServerRequest request, HttpServerResponse response, String body);
+    }
+
+    private final Settings settings;
+    private final List<String[]> runEvents; //[event, data], null 이면 answer 로 생성
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<String, AtomicLong> hits = new ConcurrentHashMap<>();
+    private final DisposableServer server;
+
+    private OpenAiSimulator(Settings settings) {
+        this.settings = settings;
+        this.runEvents = settings.getRunTranscript() == null ? null : parse(settings.getRunTranscript());
+        this.server = HttpServer.create()
+                .port(settings.getPort())
+                .route(this::routes)
+                .bindNow();
+        log.info("OpenAI 시뮬레이터 시작: {}", baseUrl());
+    }
+
+    public static OpenAiSimulator start(Settings settings) {
+        return new OpenAiSimulator(settings);
+    }
+
+    public int port() {
+        return server.port();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port() + "/v1";
+    }
+
+    //엔드포인트 묶음(assistants, threads, messages, runs, chat, audio)별 받은 요청 수 (429/500 포함)
+    public long requestCount(String family) {
+        AtomicLong count = hits.get(family);
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private void routes(HttpServerRoutes routes) {
+        routes
+                .post("/v1/assistants", handle("assistants", (req, res, body) -> json(res, assistant(newId("asst")))))
+                .get("/v1/assistants/{assistantId}", handle("assistants", (req, res, body) -> json(res, assistant(req.param("assistantId")))))
+                .post("/v1/assistants/{assistantId}", handle("assistants", (req, res, body) -> json(res, assistant(req.param("assistantId")))))
+                .delete("/v1/assistants/{assistantId}", handle("assistants", (req, res, body) -> json(res, deleted(req.param("assistantId"), "assistant.deleted"))))
+                .post("/v1/threads", handle("threads", (req, res, body) -> json(res, thread(newId("thread")))))
+                .post("/v1/threads/runs", handle("runs", (req, res, body) -> isStream(body)
+                        ? sse(res, runStream(newId("thread")))
+                        : json(res, run(newId("run"), newId("thread"), "queued"))))
+                .get("/v1/threads/{threadId}", handle("threads", (req, res, body) -> json(res, thread(req.param("threadId")))))
+                .delete("/v1/threads/{threadId}", handle("threads", (req, res, body) -> json(res, deleted(req.param("threadId"), "thread.deleted"))))
+                .post("/v1/threads/{threadId}/messages", handle("messages", (req, res, body) -> json(res, message(newId("msg"), req.param("threadId"), "user", ""))))
+                .get("/v1/threads/{threadId}/messages", handle("messages", (req, res, body) -> json(res, Map.of("object", "list", "data", List.of(), "has_more", false))))
+                .post("/v1/threads/{threadId}/runs", handle("runs", (req, res, body) -> isStream(body)
+                        ? sse(res, runStream(req.param("threadId")))
+                        : json(res, run(newId("run"), req.param("threadId"), "queued"))))
+                .get("/v1/threads/{threadId}/runs/{runId}", handle("runs", (req, res, body) -> json(res, run(req.param("runId"), req.param("threadId"), "completed"))))
+                .post("/v1/threads/{threadId}/runs/{runId}/cancel", handle("runs", (req, res, body) -> json(res, run(req.param("runId"), req.param("threadId"), "cancelled"))))
+                .post("/v1/chat/completions", handle("chat", (req, res, body) -> isStream(body)
+                        ? sse(res, chatStream())
+                        : json(res, chatCompletion())))
+                .post("/v1/audio/speech", handle("audio", (req, res, body) -> res
+                        .header("Content-Type", "audio/mpeg")
+                        .sendByteArray(speech())));
+    }
+
+    //공통 처리: 본문 수신 -> latencyMs 지연 -> 429/500 주입 -> 핸들러
+    private BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> handle(String family, Responder responder) {
+        return (req, res) -> req.receive().aggregate().asString(StandardCharsets.UTF_8)
+                .defaultIfEmpty("")
+                .delayElement(Duration.ofMillis(settings.getLatencyMs()))
+                .flatMap(body -> {
+                    hits.computeIfAbsent(family, key -> new AtomicLong()).incrementAndGet();
+                    long n = requests.incrementAndGet();
+                    if (settings.getRateLimitEvery() > 0 && n % settings.getRateLimitEvery() == 0) {
+                        return res.status(429)
+                                .header("retry-after-ms", String.valueOf(settings.getRetryAfterMs()))
+                                .header("Retry-After", String.valueOf((settings.getRetryAfterMs() + 999) / 1000))
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just(error("Rate limit reached (simulated)", "rate_limit_exceeded")))
+                                .then();
+                    }
+                    if (settings.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.getErrorRate()) {
+                        return res.status(500)
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just(error("The server had an error while processing your request (simulated)", "server_error")))
+                                .then();
+                    }
+                    return Mono.from(responder.respond(req, res, body));
+                });
+    }
+
+    //런 SSE: 녹화본 재생 또는 answer 로 생성
+    private Flux<String> runStream(String threadId) {
+        return Flux.defer(() -> {
+            List<String[]> events = runEvents != null ? runEvents : generatedRun(threadId);
+            return paced(Flux.fromIterable(events), event -> "thread.message.delta".equals(event[0]))
+                    .map(event -> "event: " + event[0] + "\ndata: " + event[1] + "\n\n");
+        });
+    }
+
+    private List<String[]> generatedRun(String threadId) {
+        String runId = newId("run");
+        String messageId = newId("msg");
+        List<String[]> events = new ArrayList<>();
+        events.add(new String[]{"thread.run.created", write(run(runId, threadId, "queued"))});
+        events.add(new String[]{"thread.run.in_progress", write(run(runId, threadId, "in_progress"))});
+        events.add(new String[]{"thread.message.created", write(message(messageId, threadId, "assistant", ""))});
+        for (String token : tokens(settings.getAnswer())) {
+            events.add(new String[]{"thread.message.delta", write(Map.of(
+                    "id", messageId,
+                    "object", "thread.message.delta",
+                    "delta", Map.of("content", List.of(Map.of("index", 0, "type", "text", "text", Map.of("value", token, "annotations", List.of())))))) });
+        }
+        events.add(new String[]{"thread.message.completed", write(message(messageId, threadId, "assistant", settings.getAnswer()))});
+        Map<String, Object> completed = run(runId, threadId, "completed");
+        completed.put("usage", usage());
+        events.add(new String[]{"thread.run.completed", write(completed)});
+        events.add(new String[]{"done", "[DONE]"});
+        return events;
+    }
+
+    //chat.completion.chunk SSE
+    private Flux<String> chatStream() {
+        return Flux.defer(() -> {
+            String id = newId("chatcmpl");
+            List<String> chunks = new ArrayList<>();
+            for (String token : tokens(settings.getAnswer())) {
+                chunks.add(write(chunk(id, Map.of("content", token), null)));
+            }
+            Flux<String> deltas = paced(Flux.fromIterable(chunks), chunk -> true);
+            return deltas.concatWith(Flux.just(write(chunk(id, Map.of(), "stop")), "[DONE]"))
+                    .map(data -> "data: " + data + "\n\n");
+        });
+    }
+
+    //mp3 흉내: 답변 길이에 비례한 크기를 4KB 조각으로 tokensPerSecond 속도에 맞춰 전송
+    private Flux<byte[]> speech() {
+        int chunks = Math.max(1, settings.getAnswer().length() / 10);
+        return paced(Flux.range(0, chunks), i -> true).map(i -> {
+            byte[] chunk = new byte[4096];
+            if (i == 0) {
+                chunk[0] = 'I';
+                chunk[1] = 'D';
+                chunk[2] = '3';
+            }
+            return chunk;
+        });
+    }
+
+    //첫 항목은 ttftMs 뒤, 이후 항목은 1/tokensPerSecond 간격 (paced 가 아닌 항목은 바로)
+    private <T> Flux<T> paced(Flux<T> items, Predicate<T> isToken) {
+        return Flux.defer(() -> {
+            AtomicBoolean first = new AtomicBoolean(true);
+            long tokenMs = settings.getTokensPerSecond() <= 0 ? 0 : (long) (1000 / settings.getTokensPerSecond());
+            return items.concatMap(item -> {
+                if (!isToken.test(item)) return Mono.just(item);
+                long delay = first.getAndSet(false) ? settings.getTtftMs() : tokenMs;
+                return delay <= 0 ? Mono.just(item) : Mono.just(item).delayElement(Duration.ofMillis(delay));
+            });
+        });
+    }
+
+    private Publisher<Void> json(HttpServerResponse res, Object body) {
+        return res.header("Content-Type", "application/json").sendString(Mono.just(write(body)));
+    }
+
+    private Publisher<Void> sse(HttpServerResponse res, Flux<String> frames) {
+        return res.header("Content-Type", "text/event-stream")
+                .header("Cache-Control", "no-cache")
+                .sendString(frames);
+    }
+
+    private String newId(String prefix) {
+        return prefix + "_sim" + ids.incrementAndGet();
+    }
+
+    private static boolean isStream(String body) {
+        try {
+            return !body.isEmpty() && OM.readTree(body).path("stream").asBoolean(false);
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    //두 글자씩 (한국어 기준 대략 토큰 하나)
+    static List<String> tokens(String answer) {
+        List<String> tokens = new ArrayList<>();
+        int[] codePoints = answer.codePoints().toArray();
+        for (int i = 0; i < codePoints.length; i += 2) {
+            tokens.add(new String(codePoints, i, Math.min(2, codePoints.length - i)));
+        }
+        return tokens;
+    }
+
+    private static Map<String, Object> assistant(String id) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("object", "assistant");
+        body.put("created_at", epochSeconds());
+        body.put("model", "gpt-4o-mini");
+        body.put("tools", List.of());
+        body.put("metadata", Map.of());
+        return body;
+    }
+
+    private static Map<String, Object> thread(String id) {
+        return Map.of("id", id, "object", "thread", "created_at", epochSeconds(), "metadata", Map.of());
+    }
+
+    private static Map<String, Object> deleted(String id, String object) {
+        return Map.of("id", id, "object", object, "deleted", true);
+    }
+
+    private static Map<String, Object> message(String id, String threadId, String role, String text) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("object", "thread.message");
+        body.put("created_at", epochSeconds());
+        body.put("thread_id", threadId);
+        body.put("role", role);
+        body.put("status", "completed");
+        body.put("content", List.of(Map.of("type", "text", "text", Map.of("value", text, "annotations", List.of()))));
+        body.put("metadata", Map.of());
+        return body;
+    }
+
+    private static Map<String, Object> run(String id, String threadId, String status) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("object", "thread.run");
+        body.put("created_at", epochSeconds());
+        body.put("thread_id", threadId);
+        body.put("assistant_id", "asst_sim");
+        body.put("status", status);
+        body.put("model", "gpt-4o-mini");
+        body.put("metadata", Map.of());
+        return body;
+    }
+
+    private Map<String, Object> chatCompletion() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", newId("chatcmpl"));
+        body.put("object", "chat.completion");
+        body.put("created", epochSeconds());
+        body.put("model", "gpt-3.5-turbo");
+        body.put("choices", List.of(Map.of("index", 0, "message", Map.of("role", "assistant", "content", settings.getAnswer()), "finish_reason", "stop")));
+        body.put("usage", usage());
+        return body;
+    }
+
+    private static Map<String, Object> chunk(String id, Map<String, Object> delta, String finishReason) {
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("delta", delta);
+        choice.put("finish_reason", finishReason);
+        return Map.of("id", id, "object", "chat.completion.chunk", "model", "gpt-3.5-turbo", "choices", List.of(choice));
+    }
+
+    private Map<String, Object> usage() {
+        int completion = tokens(settings.getAnswer()).size();
+        return Map.of("prompt_tokens", 100, "completion_tokens", completion, "total_tokens", 100 + completion);
+    }
+
+    private static String error(String message, String code) {
+        return write(Map.of("error", Map.of("message", message, "type", code, "code", code)));
+    }
+
+    private static long epochSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static String write(Object body) {
+        try {
+            return OM.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //"event: ...\ndata: ...\n\n" 형식의 트랜스크립트를 [event, data] 목록으로 변환
+    static List<String[]> parse(String raw) {
+        List<String[]> result = new ArrayList<>();
+        for (String block : raw.replace("\r\n", "\n").split("\n\n")) {
+            String event = null;
+            StringBuilder data = new StringBuilder();
+            for (String line : block.split("\n")) {
+                if (line.startsWith("event: ")) event = line.substring(7);
+                else if (line.startsWith("data: ")) data.append(line.substring(6));
+            }
+            if (event != null) result.add(new String[]{event, data.toString()});
+        }
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package com.develokit.maeum_ieum.config.openAI.simulator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * simulator 프로필: 앱 안에서 OpenAI 시뮬레이터를 띄운다.
+ * openai.base-url 을 따로 주지 않으면 OpenAiSimulatorEnvironmentPostProcessor 가 WebClient/Feign 주소를 시뮬레이터로 바꾼다.
+ */
+@Configuration
+@Profile("simulator")
+public class OpenAiSimulatorConfig {
+
+    @Bean(destroyMethod = "close")
+    public OpenAiSimulator openAiSimulator(ResourceLoader resourceLoader,
+                                           @Value("${openai.simulator.port:18080}") int port,
+                                           @Value("${openai.simulator.latency-ms:50}") long latencyMs,
+                                           @Value("${openai.simulator.ttft-ms:300}") long ttftMs,
+                                           @Value("${openai.simulator.tokens-per-second:50}") double tokensPerSecond,
+                                           @Value("${openai.simulator.error-rate:0}") double errorRate,
+                                           @Value("${openai.simulator.rate-limit-every:0}") int rateLimitEvery,
+                                           @Value("${openai.simulator.retry-after-ms:1000}") long retryAfterMs,
+                                           @Value("${openai.simulator.run-transcript:}") String runTranscript) throws IOException {
+        OpenAiSimulator.Settings.SettingsBuilder settings = OpenAiSimulator.Settings.builder()
+                .port(port)
+                .latencyMs(latencyMs)
+                .ttftMs(ttftMs)
+                .tokensPerSecond(tokensPerSecond)
+                .errorRate(errorRate)
+                .rateLimitEvery(rateLimitEvery)
+                .retryAfterMs(retryAfterMs);
+        //녹화된 런 트랜스크립트 (예: file:./sse/long-answer.sse)
+        if (!runTranscript.isBlank()) {
+            Resource resource = resourceLoader.getResource(runTranscript);
+            settings.runTranscript(resource.getContentAsString(StandardCharsets.UTF_8));
+        }
+        return OpenAiSimulator.start(settings.build());
+    }
+}
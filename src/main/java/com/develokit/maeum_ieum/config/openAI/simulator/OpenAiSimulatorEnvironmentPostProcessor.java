@@ -0,0 +1,36 @@
+package com.develokit.maeum_ieum.config.openAI.simulator;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.Profiles;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * simulator 프로필이면 openai.base-url 을 로컬 시뮬레이터(openai.simulator.port)로, openai.key 를 더미 값으로 채운다.
+ * 이미 지정된 값은 그대로 둔다 (다른 곳에서 띄운 시뮬레이터를 가리킬 때).
+ */
+public class OpenAiSimulatorEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.acceptsProfiles(Profiles.of("simulator"))) return;
+
+        Map<String, Object> defaults = new HashMap<>();
+        if (!environment.containsProperty("openai.base-url"))
+            defaults.put("openai.base-url", "http://localhost:" + environment.getProperty("openai.simulator.port", "18080") + "/v1");
+        if (!environment.containsProperty("openai.key"))
+            defaults.put("openai.key", "sk-simulator");
+        if (!defaults.isEmpty())
+            environment.getPropertySources().addLast(new MapPropertySource("openaiSimulator", defaults));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE; //설정 파일을 읽은 뒤
+    }
+}
@@ -0,0 +1,38 @@
+package com.develokit.maeum_ieum.config.openAI.stream;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * 런 스트림(SSE) 이벤트를 타입으로 나눈 것. StreamEventDecoder.decodeRunEvent 가 만든다.
+ * - Created: thread.run.created (런 아이디, 스레드 아이디)
+ * - Delta: thread.message.delta (답변 조각, 텍스트가 없으면 null)
+ * - Completed: thread.message.completed (전체 답변, 없으면 null)
+ * - Usage: thread.run.completed (런 정상 종료 + 토큰 사용량)
+ * - Failed: thread.run.failed/expired/cancelled/incomplete/requires_action, error (런 비정상 종료)
+ */
+public sealed interface RunEvent {
+
+    record Created(String runId, String threadId) implements RunEvent {
+    }
+
+    record Delta(String text) implements RunEvent {
+    }
+
+    record Completed(String text) implements RunEvent {
+    }
+
+    record Usage(long promptTokens, long completionTokens, long totalTokens) implements RunEvent {
+        public static final Usage EMPTY = new Usage(0, 0, 0);
+    }
+
+    record Failed(String status, String code, String message) implements RunEvent {
+
+        //OpenAI 쪽 한도 초과는 429, 나머지는 500 으로 전달
+        public CustomApiException toException() {
+            HttpStatus httpStatus = "rate_limit_exceeded".equals(code) ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.INTERNAL_SERVER_ERROR;
+            return new CustomApiException("답변 생성 과정에서 오류 발생 (런 " + status + (code != null ? ", " + code : "") + ")",
+                    httpStatus.value(), httpStatus);
+        }
+    }
+}
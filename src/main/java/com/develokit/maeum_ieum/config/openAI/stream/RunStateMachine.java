@@ -0,0 +1,102 @@
+package com.develokit.maeum_ieum.config.openAI.stream;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 런 하나의 상태 머신. RunEvent 를 순서대로 받아 상태를 옮기고 런/스레드 아이디, 답변, 토큰 사용량을 모은다.
+ * QUEUED -> IN_PROGRESS -> ANSWERED -> COMPLETED 순서로 진행하고, 어느 상태에서든 Failed 를 받으면 바로 FAILED 로 끝난다.
+ * 종료(COMPLETED, FAILED) 이후 이벤트는 무시한다. 구독마다 새로 만들어 쓰며 스레드 안전하지 않다.
+ */
+public class RunStateMachine {
+
+    public enum State {
+        QUEUED, IN_PROGRESS, ANSWERED, COMPLETED, FAILED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    //usage 는 런 완료 이벤트 없이 스트림이 끝났으면 null
+    public record Result(String runId, String threadId, String answer, RunEvent.Usage usage) {
+    }
+
+    private State state = State.QUEUED;
+    private String runId;
+    private String threadId;
+    private String answer;
+    private RunEvent.Usage usage;
+    private RunEvent.Failed failure;
+    private int deltas;
+
+    public State apply(RunEvent event) {
+        if (state.isTerminal()) return state;
+        if (event instanceof RunEvent.Created created) {
+            runId = created.runId();
+            threadId = created.threadId();
+            if (state == State.QUEUED) state = State.IN_PROGRESS;
+        } else if (event instanceof RunEvent.Delta) {
+            deltas++;
+            if (state == State.QUEUED) state = State.IN_PROGRESS;
+        } else if (event instanceof RunEvent.Completed completed) {
+            answer = completed.text();
+            state = State.ANSWERED;
+        } else if (event instanceof RunEvent.Usage runUsage) {
+            usage = runUsage;
+            state = State.COMPLETED;
+        } else if (event instanceof RunEvent.Failed failed) {
+            failure = failed;
+            state = State.FAILED;
+        }
+        return state;
+    }
+
+    //런 이벤트를 끝까지 따라가 답변과 사용량을 반환. Failed 를 받으면 남은 이벤트를 기다리지 않고 바로 에러로 끝낸다
+    public static Mono<Result> await(Flux<RunEvent> events) {
+        return Mono.defer(() -> {
+            RunStateMachine run = new RunStateMachine();
+            return events
+                    .<Result>handle((event, sink) -> {
+                        State state = run.apply(event);
+                        if (state == State.FAILED) sink.error(run.failure.toException());
+                        else if (state == State.COMPLETED) sink.next(run.result());
+                    })
+                    .next()
+                    //런 완료 이벤트 없이 스트림이 끝나도 답변을 받았으면 그대로 반환
+                    .switchIfEmpty(Mono.defer(() -> run.state == State.ANSWERED
+                            ? Mono.just(run.result())
+                            : Mono.error(new CustomApiException("답변을 받기 전에 런 스트림이 종료됨", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR))));
+        });
+    }
+
+    public Result result() {
+        return new Result(runId, threadId, answer, usage);
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public String runId() {
+        return runId;
+    }
+
+    public String threadId() {
+        return threadId;
+    }
+
+    public RunEvent.Usage usage() {
+        return usage;
+    }
+
+    public RunEvent.Failed failure() {
+        return failure;
+    }
+
+    public int deltas() {
+        return deltas;
+    }
+}
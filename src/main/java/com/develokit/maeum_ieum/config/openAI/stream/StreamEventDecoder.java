@@ -0,0 +1,195 @@
+package com.develokit.maeum_ieum.config.openAI.stream;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+
+/**
+ * OpenAI 런 스트림(SSE) 이벤트의 data에서 필요한 값만 꺼내는 디코더.
+ * 이벤트마다 ObjectMapper나 JsonNode 트리를 만들지 않고, 공유 JsonFactory의 스트리밍 파서로 필요한 경로만 따라간다.
+ * 런 스트림은 decodeRunEvent(s) 로 RunEvent 로 바꾼 뒤 RunStateMachine 으로 따라간다.
+ */
+@Component
+public class StreamEventDecoder {
+
+    //JsonFactory는 스레드 안전하므로 한 번만 생성해서 공유
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+            .build();
+
+    //thread.message.delta -> delta.content[0].text.value (없으면 null)
+    public String extractDeltaText(String data) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            if (!moveToField(parser, "delta") || parser.currentToken() != JsonToken.START_OBJECT) return null;
+            return readFirstContentText(parser);
+        }
+    }
+
+    //thread.message.completed -> content[0].text.value (없으면 null)
+    public String extractCompletedText(String data) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            return readFirstContentText(parser);
+        }
+    }
+
+    //thread.run.created 등 최상위 객체의 id (없으면 null)
+    public String extractId(String data) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            if (!moveToField(parser, "id")) return null;
+            return parser.currentToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+        }
+    }
+
+    //chat.completion.chunk -> choices[0].delta.content (없으면 null)
+    public String extractChatDelta(String data) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            if (!moveToField(parser, "choices") || parser.currentToken() != JsonToken.START_ARRAY) return null;
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null; //빈 배열
+            if (!moveToField(parser, "delta") || parser.currentToken() != JsonToken.START_OBJECT) return null;
+            if (!moveToField(parser, "content")) return null;
+            return parser.currentToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+        }
+    }
+
+    //SSE 런 스트림 -> RunEvent 스트림 (관심 없는 이벤트는 건너뜀)
+    public Flux<RunEvent> decodeRunEvents(Flux<ServerSentEvent<String>> events) {
+        return events.<RunEvent>handle((event, sink) -> {
+            try {
+                RunEvent runEvent = decodeRunEvent(event.event(), event.data());
+                if (runEvent != null) sink.next(runEvent);
+            } catch (IOException e) {
+                sink.error(new CustomApiException("답변 직렬화 과정에서 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
+            }
+        });
+    }
+
+    //이벤트 이름 + data -> RunEvent (관심 없는 이벤트면 null)
+    public RunEvent decodeRunEvent(String event, String data) throws IOException {
+        if (event == null || data == null) return null;
+        switch (event) {
+            case "thread.run.created":
+                return extractCreated(data);
+            case "thread.message.delta":
+                return new RunEvent.Delta(extractDeltaText(data));
+            case "thread.message.completed":
+                return new RunEvent.Completed(extractCompletedText(data));
+            case "thread.run.completed":
+                RunEvent.Usage usage = extractUsage(data);
+                return usage != null ? usage : RunEvent.Usage.EMPTY;
+            case "thread.run.failed":
+            case "thread.run.expired":
+            case "thread.run.cancelled":
+            case "thread.run.incomplete":
+            case "thread.run.requires_action": //도구 호출은 쓰지 않으므로 기다려도 끝나지 않음
+                return extractFailure(event.substring("thread.run.".length()), data);
+            case "error":
+                return extractFailure("error", data);
+            default:
+                return null;
+        }
+    }
+
+    //thread.run.created -> id, thread_id (스레드+런 동시 생성이면 여기서 처음 스레드 아이디를 알게 됨)
+    RunEvent.Created extractCreated(String data) throws IOException {
+        String runId = null, threadId = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return new RunEvent.Created(null, null);
+            while (parser.nextToken() == JsonToken.FIELD_NAME && (runId == null || threadId == null)) {
+                String fieldName = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_STRING && "id".equals(fieldName)) runId = parser.getText();
+                else if (value == JsonToken.VALUE_STRING && "thread_id".equals(fieldName)) threadId = parser.getText();
+                else parser.skipChildren();
+            }
+        }
+        return new RunEvent.Created(runId, threadId);
+    }
+
+    //thread.run.completed -> usage (없으면 null)
+    RunEvent.Usage extractUsage(String data) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            if (!moveToField(parser, "usage") || parser.currentToken() != JsonToken.START_OBJECT) return null;
+            long prompt = 0, completion = 0, total = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value != JsonToken.VALUE_NUMBER_INT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (fieldName) {
+                    case "prompt_tokens" -> prompt = parser.getLongValue();
+                    case "completion_tokens" -> completion = parser.getLongValue();
+                    case "total_tokens" -> total = parser.getLongValue();
+                    default -> {
+                    }
+                }
+            }
+            return new RunEvent.Usage(prompt, completion, total);
+        }
+    }
+
+    //런 객체의 last_error / incomplete_details, 또는 error 이벤트의 (error.)code, message
+    RunEvent.Failed extractFailure(String status, String data) throws IOException {
+        String[] codeAndMessage = new String[2];
+        try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                readFailureFields(parser, codeAndMessage);
+            }
+        }
+        return new RunEvent.Failed(status, codeAndMessage[0], codeAndMessage[1]);
+    }
+
+    private void readFailureFields(JsonParser parser, String[] codeAndMessage) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (fieldName) {
+                case "last_error", "error", "incomplete_details" -> {
+                    if (value == JsonToken.START_OBJECT) readFailureFields(parser, codeAndMessage);
+                }
+                case "code", "reason" -> {
+                    if (value == JsonToken.VALUE_STRING) codeAndMessage[0] = parser.getText();
+                }
+                case "message" -> {
+                    if (value == JsonToken.VALUE_STRING) codeAndMessage[1] = parser.getText();
+                }
+                default -> {
+                }
+            }
+            parser.skipChildren(); //객체/배열 값이면 건너뜀 (스칼라 값이나 이미 읽은 객체의 끝이면 아무 일도 안 함)
+        }
+    }
+
+    //현재 객체에서 content[0].text.value 를 읽는다
+    private String readFirstContentText(JsonParser parser) throws IOException {
+        if (!moveToField(parser, "content") || parser.currentToken() != JsonToken.START_ARRAY) return null;
+        if (parser.nextToken() != JsonToken.START_OBJECT) return null; //빈 배열
+        if (!moveToField(parser, "text") || parser.currentToken() != JsonToken.START_OBJECT) return null;
+        if (!moveToField(parser, "value")) return null;
+        return parser.currentToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+    }
+
+    //현재 객체의 필드를 순회하면서 name 필드의 값 토큰으로 이동 (다른 필드 값은 건너뜀)
+    static boolean moveToField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            if (name.equals(fieldName)) return true;
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
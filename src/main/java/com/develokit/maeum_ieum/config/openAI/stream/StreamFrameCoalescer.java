@@ -0,0 +1,178 @@
+package com.develokit.maeum_ieum.config.openAI.stream;
+
+import com.develokit.maeum_ieum.dto.message.RespDto.CreateStreamMessageRespDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스트림 답변 델타 프레임 병합.
+ * OpenAI 델타는 토큰 단위로 잘게 오므로, 첫 토큰은 바로 내보내고 이후 델타는 모았다가
+ * window-ms 가 지나거나, max-chars 를 넘거나, 문장이 끝나면(. ? ! 줄바꿈) 하나의 프레임으로 내보낸다.
+ * 마지막 프레임(isLast)은 모아둔 델타를 먼저 내보낸 뒤 그대로 전달한다. window-ms=0 이면 병합하지 않는다.
+ */
+@Component
+public class StreamFrameCoalescer {
+
+    private final long windowMs;
+    private final int maxChars;
+    private final boolean sentenceFlush;
+    private final Scheduler timer;
+
+    private final Counter upstreamFrames;
+    private final Counter downstreamFrames;
+    private final Counter bytesSaved;
+    private final DistributionSummary framesPerSecond;
+    private final int frameOverheadBytes; //프레임 하나당 답변 외 직렬화 바이트 (SSE data: 포함)
+
+    @Autowired
+    public StreamFrameCoalescer(MeterRegistry meterRegistry,
+                                @Value("${chat.stream.coalesce.window-ms:40}") long windowMs,
+                                @Value("${chat.stream.coalesce.max-chars:48}") int maxChars,
+                                @Value("${chat.stream.coalesce.sentence-flush:true}") boolean sentenceFlush) {
+        this(meterRegistry, windowMs, maxChars, sentenceFlush, Schedulers.parallel());
+    }
+
+    StreamFrameCoalescer(MeterRegistry meterRegistry, long windowMs, int maxChars, boolean sentenceFlush, Scheduler timer) {
+        this.windowMs = windowMs;
+        this.maxChars = maxChars;
+        this.sentenceFlush = sentenceFlush;
+        this.timer = timer;
+
+        this.upstreamFrames = Counter.builder("chat.stream.frames")
+                .tag("stage", "upstream")
+                .description("OpenAI 에서 받은 델타 프레임 수")
+                .register(meterRegistry);
+        this.downstreamFrames = Counter.builder("chat.stream.frames")
+                .tag("stage", "downstream")
+                .description("클라이언트로 보낸 프레임 수")
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("chat.stream.bytes.saved")
+                .baseUnit("bytes")
+                .description("프레임 병합으로 줄어든 전송 바이트 수")
+                .register(meterRegistry);
+        this.framesPerSecond = DistributionSummary.builder("chat.stream.frames.per.second")
+                .description("스트림별 클라이언트 프레임 전송률")
+                .register(meterRegistry);
+        this.frameOverheadBytes = frameOverheadBytes();
+    }
+
+    public Flux<CreateStreamMessageRespDto> coalesce(Flux<CreateStreamMessageRespDto> frames) {
+        if (windowMs <= 0) return frames;
+        return Flux.create(sink -> {
+            Window window = new Window(sink);
+            Disposable upstream = frames.subscribe(window::onFrame, window::onError, window::onComplete);
+            sink.onDispose(() -> {
+                upstream.dispose();
+                window.cancelTimer();
+            });
+        });
+    }
+
+    //스트림 하나의 병합 상태 (업스트림 스레드와 타이머 스레드가 함께 접근하므로 synchronized)
+    private final class Window {
+        private final FluxSink<CreateStreamMessageRespDto> sink;
+        private final StringBuilder buffer = new StringBuilder();
+        private final long startedAt = System.nanoTime();
+        private boolean firstSent;
+        private int merged; //버퍼에 모인 델타 수
+        private long sent;
+        private Disposable pendingFlush;
+
+        private Window(FluxSink<CreateStreamMessageRespDto> sink) {
+            this.sink = sink;
+        }
+
+        synchronized void onFrame(CreateStreamMessageRespDto frame) {
+            if (frame.isLast()) {
+                flush();
+                emit(frame);
+                return;
+            }
+            String answer = frame.getAnswer();
+            if (answer == null || answer.isEmpty()) return;
+            upstreamFrames.increment();
+
+            if (!firstSent) { //첫 토큰은 바로
+                firstSent = true;
+                emit(frame);
+                return;
+            }
+            buffer.append(answer);
+            merged++;
+            if (buffer.length() >= maxChars || (sentenceFlush && endsSentence(answer))) {
+                flush();
+            } else if (pendingFlush == null) {
+                pendingFlush = timer.schedule(this::flushOnTimer, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        synchronized void onComplete() {
+            flush();
+            recordRate();
+            sink.complete();
+        }
+
+        synchronized void onError(Throwable e) {
+            flush();
+            sink.error(e);
+        }
+
+        synchronized void cancelTimer() {
+            if (pendingFlush != null) {
+                pendingFlush.dispose();
+                pendingFlush = null;
+            }
+        }
+
+        private synchronized void flushOnTimer() {
+            pendingFlush = null;
+            flush();
+        }
+
+        private void flush() {
+            cancelTimer();
+            if (buffer.length() == 0) return;
+            emit(new CreateStreamMessageRespDto(buffer.toString(), false, null));
+            bytesSaved.increment((double) (merged - 1) * frameOverheadBytes);
+            buffer.setLength(0);
+            merged = 0;
+        }
+
+        private void emit(CreateStreamMessageRespDto frame) {
+            sent++;
+            downstreamFrames.increment();
+            sink.next(frame);
+        }
+
+        private void recordRate() {
+            double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+            if (seconds > 0) framesPerSecond.record(sent / seconds);
+        }
+    }
+
+    static boolean endsSentence(String text) {
+        char last = text.charAt(text.length() - 1);
+        return last == '.' || last == '?' || last == '!' || last == '\n' || last == '…';
+    }
+
+    private static int frameOverheadBytes() {
+        try {
+            return new ObjectMapper().writeValueAsBytes(new CreateStreamMessageRespDto("", false, null)).length + "data:\n\n".length();
+        } catch (JsonProcessingException e) {
+            return 0;
+        }
+    }
+}
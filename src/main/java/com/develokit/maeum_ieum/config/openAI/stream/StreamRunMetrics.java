@@ -0,0 +1,73 @@
+package com.develokit.maeum_ieum.config.openAI.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 스트림 런 지표.
+ * - openai.run.deltas: 끝까지 받은 런의 델타 이벤트 수 (델타 1개 ≒ 토큰 1개로 본다)
+ * - openai.run.cancelled: 클라이언트 연결이 끊겨 취소한 런 수
+ * - openai.run.tokens.saved: 취소로 아낀 것으로 추정되는 출력 토큰 수 (평균 델타 수 - 취소 시점까지 받은 델타 수)
+ * - openai.run.usage: 런 완료 이벤트의 토큰 사용량 (call: 호출 종류, type: prompt/completion)
+ */
+@Component
+public class StreamRunMetrics {
+
+    //완료된 런이 아직 없을 때 쓰는 평균 델타 수
+    private static final double DEFAULT_AVERAGE_DELTAS = 150;
+
+    private final DistributionSummary completedDeltas;
+    private final Counter cancelledRuns;
+    private final Counter cancelFailures;
+    private final DistributionSummary tokensSaved;
+    private final MeterRegistry meterRegistry;
+
+    public StreamRunMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.completedDeltas = DistributionSummary.builder("openai.run.deltas")
+                .description("완료된 스트림 런의 델타 이벤트 수")
+                .register(meterRegistry);
+        this.cancelledRuns = Counter.builder("openai.run.cancelled")
+                .description("클라이언트 연결 종료로 취소한 런 수")
+                .register(meterRegistry);
+        this.cancelFailures = Counter.builder("openai.run.cancel.failed")
+                .description("런 취소 요청 실패 수")
+                .register(meterRegistry);
+        this.tokensSaved = DistributionSummary.builder("openai.run.tokens.saved")
+                .description("런 취소로 아낀 추정 출력 토큰 수")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+    }
+
+    public void recordCompleted(int deltas) {
+        completedDeltas.record(deltas);
+    }
+
+    public void recordCancelled(int deltasSoFar) {
+        cancelledRuns.increment();
+        double average = completedDeltas.count() == 0 ? DEFAULT_AVERAGE_DELTAS : completedDeltas.mean();
+        tokensSaved.record(Math.max(0, average - deltasSoFar));
+    }
+
+    public void recordCancelFailure() {
+        cancelFailures.increment();
+    }
+
+    //런 완료 이벤트 없이 끝난 런(usage == null)은 기록하지 않음
+    public void recordUsage(String call, RunEvent.Usage usage) {
+        if (usage == null) return;
+        usageSummary(call, "prompt").record(usage.promptTokens());
+        usageSummary(call, "completion").record(usage.completionTokens());
+    }
+
+    private DistributionSummary usageSummary(String call, String type) {
+        return DistributionSummary.builder("openai.run.usage")
+                .description("런 토큰 사용량")
+                .baseUnit("tokens")
+                .tag("call", call)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
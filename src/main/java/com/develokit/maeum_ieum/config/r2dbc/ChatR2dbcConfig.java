@@ -0,0 +1,64 @@
+package com.develokit.maeum_ieum.config.r2dbc;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * 채팅 경로 전용 R2DBC 커넥션 풀.
+ * JPA/배치가 쓰는 DataSource 와 트랜잭션 매니저는 그대로 두기 위해 R2DBC 자동설정은 끄고(MaeumIeumApplication) 여기서만 만든다.
+ * 운영 아티팩트에는 MySQL 드라이버만 들어가므로 chat.r2dbc.url(r2dbc:mysql://...)을 반드시 지정해야 한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "chat.r2dbc", name = "enabled", havingValue = "true")
+public class ChatR2dbcConfig {
+
+    @Value("${chat.r2dbc.url:}")
+    private String url;
+    @Value("${chat.r2dbc.username:sa}")
+    private String username;
+    @Value("${chat.r2dbc.password:}")
+    private String password;
+    @Value("${chat.r2dbc.pool.initial-size:4}")
+    private int initialSize;
+    @Value("${chat.r2dbc.pool.max-size:20}")
+    private int maxSize;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool chatConnectionFactory(){
+        if (url.isBlank())
+            throw new IllegalStateException("chat.r2dbc.enabled=true 이면 chat.r2dbc.url 을 지정해야 합니다");
+        return createPool(url, username, password, initialSize, maxSize);
+    }
+
+    @Bean
+    public DatabaseClient chatDatabaseClient(@Qualifier("chatConnectionFactory") ConnectionFactory connectionFactory){
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    public static ConnectionPool createPool(String url, String username, String password, int initialSize, int maxSize){
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options);
+
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("chat-r2dbc")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                .maxAcquireTime(Duration.ofSeconds(5))
+                .build());
+    }
+}
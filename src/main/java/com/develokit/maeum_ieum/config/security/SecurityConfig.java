@@ -12,6 +12,7 @@ import com.develokit.maeum_ieum.util.api.ApiResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,6 +89,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(configurationSource()))
                 .with(new CustomSecurityFilterManager(), CustomSecurityFilterManager::getClass)
                 .authorizeHttpRequests(authorize -> authorize
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() //SSE(Flux) 응답의 비동기 디스패치: 최초 요청에서 이미 인가됨
                         .requestMatchers(HttpMethod.POST, "/caregivers").permitAll()
                         .requestMatchers("/caregivers/check-username/**").permitAll()
                         .requestMatchers("/caregivers/**").authenticated()
@@ -137,6 +139,8 @@ public class SecurityConfig {
         config.addAllowedOriginPattern("*"); //모든 IP 주소 허용 (프론트엔드 IP만 허용)
         config.setMaxAge(3600L); //1시간 동안 캐시
         config.addExposedHeader("Authorization"); //자바스크립트가 브라우저에서 토큰을 가져오기 위해 붙여줘야 함
+        config.addExposedHeader("X-Message-Content"); //오디오 스트림 응답의 답변 텍스트
+        config.addExposedHeader("X-Message-Time"); //오디오 스트림 응답의 답변 시간
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
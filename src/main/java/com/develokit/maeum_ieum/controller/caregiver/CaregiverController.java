@@ -28,6 +28,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.MalformedURLException;
@@ -163,6 +164,15 @@ public class CaregiverController implements CaregiverControllerDocs {
         return new ResponseEntity<>(ApiUtil.success(caregiverService.createAutoMandatoryRuleWithFeign(assistantMandatoryRuleReqDto)), HttpStatus.CREATED);
     }
 
+    //노인 필수 규칙 자동 완성 스트림 (SSE): 생성되는 대로 전송
+    @PostMapping(value = "/elderlys/{elderlyId}/assistants/rules/autocomplete/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<AssistantMandatoryRuleStreamRespDto> createAutoMandatoryRuleStream(@PathVariable(name = "elderlyId")Long elderlyId,
+                                                                                  @Valid @RequestBody AssistantMandatoryRuleReqDto assistantMandatoryRuleReqDto,
+                                                                                  BindingResult bindingResult,
+                                                                                  @AuthenticationPrincipal LoginUser loginUser) {
+        return caregiverService.createAutoMandatoryRuleStream(assistantMandatoryRuleReqDto);
+    }
+
 
 
 //    @PostMapping("/elderlys/{elderlyId}/assistants/rules/autocomplete")
@@ -18,6 +18,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 
 import java.net.MalformedURLException;
 
@@ -207,6 +208,17 @@ public interface CaregiverControllerDocs {
                                                     @Valid @RequestBody AssistantMandatoryRuleReqDto assistantMandatoryRuleReqDto,
                                                     BindingResult bindingResult,
                                                     @AuthenticationPrincipal LoginUser loginUser);
+
+    @Operation(summary = "AI 어시스턴트 필수 규칙 자동 생성 스트림", description = "생성되는 규칙 조각을 SSE(text/event-stream)로 전송, 마지막 응답(isLast:true)에는 전체 규칙: jwt 토큰 사용")
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "요청 성공", content = @Content(schema = @Schema(implementation = AssistantMandatoryRuleStreamRespDto.class), mediaType = "text/event-stream")),
+            @ApiResponse(responseCode = "401", description = "토큰 기간 만료", content = @Content(schema = @Schema(implementation = AssistantMandatoryRuleStreamRespDto.class), mediaType = "application/json")),
+            @ApiResponse(responseCode = "500", description = "GPT 메시지 생성 과정에서 에러 발생", content = @Content(schema = @Schema(implementation = AssistantMandatoryRuleStreamRespDto.class), mediaType = "application/json")),
+    })
+    Flux<AssistantMandatoryRuleStreamRespDto> createAutoMandatoryRuleStream(@PathVariable(name = "elderlyId")Long elderlyId,
+                                                                           @Valid @RequestBody AssistantMandatoryRuleReqDto assistantMandatoryRuleReqDto,
+                                                                           BindingResult bindingResult,
+                                                                           @AuthenticationPrincipal LoginUser loginUser);
     @Operation(summary = "알림 내역 페이지 조회 ", description = "관리하는 노인 사용자가 발행한 알림 내역 조회: jwt 토큰 사용")
     @ApiResponses( value = {
             @ApiResponse(responseCode = "200", description = "요청 성공", content = @Content(schema = @Schema(implementation = EmergencyRequestListRespDto.class), mediaType = "application/json")),
@@ -13,13 +13,22 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -39,6 +48,9 @@ public class ElderlyController implements ElderlyControllerDocs {
     private final EmergencyRequestService emergencyRequestService;
     private final ReportService reportService;
 
+    private static final MediaType AUDIO_MPEG = MediaType.parseMediaType("audio/mpeg");
+    private static final long VOICE_STREAM_TIMEOUT_MS = 120_000L;
+
     //접속 코드 확인
     @GetMapping("/access-code/{accessCode}")
     public ResponseEntity<?> verifyAccessCode(@PathVariable(name = "accessCode")String accessCode){
@@ -97,9 +109,92 @@ public class ElderlyController implements ElderlyControllerDocs {
 //                .flatMap(voiceMessage -> saveVoiceMessageToFile(voiceMessage, "C:\\Users\\admin\\Desktop\\maeum-ieum\\src\\main\\resources\\마음이음.mp3")
 //                        .then(Mono.just(voiceMessage)))
                 .map(result -> new ResponseEntity<>(ApiUtil.success(result), HttpStatus.CREATED))
-                .doOnError(e -> {
-                    throw new CustomApiException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
-                });
+                .onErrorMap(e -> !(e instanceof CustomApiException),
+                        e -> new CustomApiException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    //음성 메시지 스트리밍 생성: 문장 단위로 합성된 오디오 조각을 순서대로 바로 전송
+    @PostMapping(value = "/{elderlyId}/voice-message/stream", produces = "audio/mpeg")
+    public Mono<ResponseEntity<ResponseBodyEmitter>> createStreamingVoiceMessage(@PathVariable(name = "elderlyId")Long elderlyId,
+                                                                                @Valid @RequestBody CreateAudioReqDto createAudioReqDto,
+                                                                                BindingResult bindingResult){
+        return toAudioEmitterOnFirstChunk(messageService.getStreamingVoiceMessage(createAudioReqDto, elderlyId))
+                .map(emitter -> ResponseEntity.ok()
+                        .contentType(AUDIO_MPEG)
+                        .body(emitter));
+    }
+
+    //음성 메시지 생성: OpenAI 음성 응답을 버퍼링 없이 audio/mpeg 로 전달, 답변 텍스트와 시간은 헤더로 전달
+    @PostMapping(value = "/{elderlyId}/voice-message/audio", produces = "audio/mpeg")
+    public Mono<ResponseEntity<ResponseBodyEmitter>> createAudioVoiceMessage(@PathVariable(name = "elderlyId")Long elderlyId,
+                                                                            @Valid @RequestBody CreateAudioReqDto createAudioReqDto,
+                                                                            BindingResult bindingResult){
+        return messageService.getVoiceMessageAudio(createAudioReqDto, elderlyId)
+                .map(result -> ResponseEntity.ok()
+                        .contentType(AUDIO_MPEG)
+                        .header("X-Message-Content", URLEncoder.encode(result.getContent(), StandardCharsets.UTF_8).replace("+", "%20")) //헤더는 ASCII 만 가능
+                        .header("X-Message-Time", result.getTimeStamp())
+                        .body(toAudioEmitter(result.getAudio().map(ElderlyController::toBytes))));
+    }
+
+    //네트워크에서 받은 조각 단위로 복사 후 바로 반환 (전체 mp3 를 모으지 않음)
+    private static byte[] toBytes(DataBuffer buffer){
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    //오디오 조각을 받는 대로 chunked 응답에 쓰고, 클라이언트가 끊기면 업스트림 구독 취소
+    private ResponseBodyEmitter toAudioEmitter(Flux<byte[]> audioChunks){
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(VOICE_STREAM_TIMEOUT_MS);
+        Disposable subscription = audioChunks.subscribe(
+                audio -> sendAudio(emitter, audio),
+                emitter::completeWithError,
+                emitter::complete);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        emitter.onCompletion(subscription::dispose);
+        return emitter;
+    }
+
+    //toAudioEmitter 와 같지만 첫 오디오 조각(또는 완료)이 나온 뒤에 응답을 시작함
+    //그 전에 난 에러(메일박스 429, 사용자 검증 등)는 audio/mpeg 본문이 아니라 일반 에러 응답으로 나감
+    private Mono<ResponseBodyEmitter> toAudioEmitterOnFirstChunk(Flux<byte[]> audioChunks){
+        return Mono.create(sink -> {
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter(VOICE_STREAM_TIMEOUT_MS);
+            AtomicBoolean started = new AtomicBoolean(false);
+            Disposable subscription = audioChunks.subscribe(
+                    audio -> {
+                        if (started.compareAndSet(false, true)) sink.success(emitter);
+                        sendAudio(emitter, audio); //핸들러 초기화 전이면 emitter 가 버퍼링
+                    },
+                    e -> {
+                        if (started.compareAndSet(false, true)) sink.error(e);
+                        else emitter.completeWithError(e);
+                    },
+                    () -> {
+                        if (started.compareAndSet(false, true)) sink.success(emitter);
+                        emitter.complete();
+                    });
+            sink.onCancel(() -> {
+                if (!started.get()) subscription.dispose();
+            });
+            emitter.onTimeout(subscription::dispose);
+            emitter.onError(e -> subscription.dispose());
+            emitter.onCompletion(subscription::dispose);
+        });
+    }
+
+    private static void sendAudio(ResponseBodyEmitter emitter, byte[] audio){
+        try {
+            emitter.send(audio, AUDIO_MPEG);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
     }
 
     //createVoiceMessage 테스트를 위한 임시 코드
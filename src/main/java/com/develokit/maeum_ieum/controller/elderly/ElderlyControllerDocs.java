@@ -14,6 +14,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -120,4 +121,23 @@ public interface ElderlyControllerDocs {
     Mono<?> createVoiceMessage(@PathVariable(name = "elderlyId")Long elderlyId,
                                @Valid @RequestBody CreateAudioReqDto createAudioReqDto,
                                BindingResult bindingResult);
+
+    @Operation(summary = "채팅(스트리밍 오디오 답변)", description = "음성 기반 채팅 시 요청: 답변을 문장 단위로 합성해 audio/mpeg 조각을 순서대로 chunked 전송 (답변 생성 중에 재생 시작 가능). " +
+            "응답은 첫 오디오 조각이 준비되면 시작하고, 그 전에 난 에러는 JSON 에러 응답으로 전달 (Accept 에 application/json 또는 */* 필요). 재생 중에 난 에러는 연결이 끊기는 것으로만 전달됨")
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "성공", content = @Content(mediaType = "audio/mpeg")),
+            @ApiResponse(responseCode = "429", description = "같은 스레드의 이전 대화를 처리 중", content = @Content(mediaType = "application/json"))
+    })
+    Mono<ResponseEntity<ResponseBodyEmitter>> createStreamingVoiceMessage(@PathVariable(name = "elderlyId")Long elderlyId,
+                                                                         @Valid @RequestBody CreateAudioReqDto createAudioReqDto,
+                                                                         BindingResult bindingResult);
+
+    @Operation(summary = "채팅(오디오 스트림 답변)", description = "음성 기반 채팅 시 요청: mp3 를 JSON(base64)으로 감싸지 않고 audio/mpeg 본문으로 바로 전달. 답변 텍스트는 X-Message-Content(URL 인코딩), 시간은 X-Message-Time 헤더")
+    @ApiResponses( value = {
+            @ApiResponse(responseCode = "200", description = "성공", content = @Content(mediaType = "audio/mpeg")),
+            @ApiResponse(responseCode = "429", description = "같은 스레드의 이전 대화를 처리 중", content = @Content(mediaType = "application/json"))
+    })
+    Mono<ResponseEntity<ResponseBodyEmitter>> createAudioVoiceMessage(@PathVariable(name = "elderlyId")Long elderlyId,
+                                                                     @Valid @RequestBody CreateAudioReqDto createAudioReqDto,
+                                                                     BindingResult bindingResult);
 }
@@ -57,6 +57,17 @@ public class Assistant extends BaseEntity {
         this.threadCreatedDate = LocalDateTime.now();
     }
 
+    //미리 만들어 둔 스레드 연결 (30일 기준은 실제 생성 시각부터)
+    public void attachThread(String threadId, LocalDateTime threadCreatedDate){
+        this.threadId = threadId;
+        this.threadCreatedDate = threadCreatedDate;
+    }
+
+    //OpenAI 어시스턴트 생성 완료 반영 (OpenAiOutboxDispatcher)
+    public void attachOpenAiAssistant(String openAiAssistantId){
+        this.openAiAssistantId = openAiAssistantId;
+    }
+
     public boolean hasThread(){
         if(threadId == null) return false;
         else return true;
@@ -22,6 +22,15 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("delete from Message m where m.elderly = :elderly")
     int deleteAllByElderly(@Param("elderly") Elderly elderly);
 
+    //스레드 컨텍스트 크기 추정용: since 이후 메시지 수와 글자 수 합
+    @Query("select count(m) as messages, coalesce(sum(length(m.content)), 0) as chars from Message m where m.elderly = :elderly and m.createdDate >= :since")
+    MessageVolume findVolumeSince(@Param("elderly") Elderly elderly, @Param("since") LocalDateTime since);
+
+    interface MessageVolume {
+        long getMessages();
+        long getChars();
+    }
+
     @Query("select m from Message m where m.elderly = :elderly and m.createdDate >= :startDate and m.createdDate <= :endDate")
     List<Message> findByElderlyWithTimeZone(@Param("elderly") Elderly elderly, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 }
@@ -0,0 +1,85 @@
+package com.develokit.maeum_ieum.domain.outbox;
+
+import com.develokit.maeum_ieum.domain.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+//DB 트랜잭션과 분리해서 실행할 OpenAI 호출 (OpenAiOutboxDispatcher 가 커밋 후 실행하고 결과를 반영)
+@Entity
+@Table(name = "open_ai_outbox", indexes = {
+        @Index(name = "idx_open_ai_outbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_open_ai_outbox_assistant", columnList = "assistant_id, operation, status")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class OpenAiOutbox extends BaseEntity {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxOperation operation;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    @Column(name = "assistant_id")
+    private Long assistantId; //로컬 Assistant id (삭제 후에도 남도록 FK 없이 보관)
+
+    private String openAiAssistantId; //어시스턴트 삭제 시 대상 (로컬 행은 이미 삭제됨)
+
+    private String openAiThreadId; //스레드 삭제 시 대상 (보고서 분석용 일회용 스레드 등), 스레드 생성 시에는 교체되는 이전 스레드
+
+    @Column(length = 8192)
+    private String payload; //스레드 초기 메시지 등 (JSON)
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt; //재시도 예정 시각이자 처리 중 점유 만료 시각
+
+    @Column(length = 512)
+    private String lastError;
+
+    private String result; //생성된 OpenAI 리소스 id
+
+    private LocalDateTime completedAt;
+
+    @Builder
+    public OpenAiOutbox(OutboxOperation operation, Long assistantId, String openAiAssistantId, String openAiThreadId, String payload) {
+        this.operation = operation;
+        this.status = OutboxStatus.PENDING;
+        this.assistantId = assistantId;
+        this.openAiAssistantId = openAiAssistantId;
+        this.openAiThreadId = openAiThreadId;
+        this.payload = payload;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+
+    //OpenAI 생성 직후 결과만 먼저 기록 (반영 전에 죽어도 재시도가 같은 리소스를 다시 만들지 않도록)
+    public void recordResult(String result){
+        this.result = result;
+    }
+
+    public void complete(String result){
+        this.status = OutboxStatus.DONE;
+        this.result = result;
+        this.completedAt = LocalDateTime.now();
+        this.lastError = null;
+    }
+
+    //실패 기록: maxAttempts 에 도달하면 FAILED 로 멈추고, 아니면 nextAttemptAt 에 다시 시도
+    public void fail(String error, int maxAttempts, LocalDateTime nextAttemptAt){
+        this.attempts++;
+        this.lastError = error == null ? null : error.substring(0, Math.min(error.length(), 512));
+        if(this.attempts >= maxAttempts) this.status = OutboxStatus.FAILED;
+        else this.nextAttemptAt = nextAttemptAt;
+    }
+}
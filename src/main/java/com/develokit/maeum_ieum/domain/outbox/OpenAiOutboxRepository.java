@@ -0,0 +1,29 @@
+package com.develokit.maeum_ieum.domain.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OpenAiOutboxRepository extends JpaRepository<OpenAiOutbox, Long> {
+
+    @Query("select o.id from OpenAiOutbox o where o.status = :status and o.operation = :operation and o.nextAttemptAt <= :now order by o.id")
+    List<Long> findDueIdsByOperation(@Param("status") OutboxStatus status, @Param("operation") OutboxOperation operation, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("select o.id from OpenAiOutbox o where o.status = :status and o.operation <> :operation and o.nextAttemptAt <= :now order by o.id")
+    List<Long> findDueIdsExcludingOperation(@Param("status") OutboxStatus status, @Param("operation") OutboxOperation operation, @Param("now") LocalDateTime now, Pageable pageable);
+
+    //처리 점유: nextAttemptAt 을 lease 만큼 미뤄서 다른 디스패처(다른 인스턴스 포함)가 동시에 실행하지 않도록 함 (1이면 점유 성공)
+    @Modifying(clearAutomatically = true)
+    @Query("update OpenAiOutbox o set o.nextAttemptAt = :leaseUntil where o.id = :id and o.status = com.develokit.maeum_ieum.domain.outbox.OutboxStatus.PENDING and o.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    Optional<OpenAiOutbox> findFirstByAssistantIdAndOperationAndStatusOrderByIdDesc(Long assistantId, OutboxOperation operation, OutboxStatus status);
+}
@@ -0,0 +1,5 @@
+package com.develokit.maeum_ieum.domain.outbox;
+
+public enum OutboxOperation {
+    CREATE_ASSISTANT, MODIFY_ASSISTANT, DELETE_ASSISTANT, CREATE_THREAD, DELETE_THREAD
+}
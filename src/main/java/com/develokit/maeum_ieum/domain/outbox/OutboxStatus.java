@@ -0,0 +1,5 @@
+package com.develokit.maeum_ieum.domain.outbox;
+
+public enum OutboxStatus {
+    PENDING, DONE, FAILED
+}
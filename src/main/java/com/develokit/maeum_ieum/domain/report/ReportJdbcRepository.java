@@ -0,0 +1,85 @@
+package com.develokit.maeum_ieum.domain.report;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * 대기(PENDING) 빈 보고서 일괄 생성.
+ * 노인마다 exists 조회 + save 하던 것(2N+1 문장)을 INSERT ... SELECT 한 문장으로 처리한다.
+ * report.empty-reports.insert-select=false 면 대상 노인 아이디를 한 번에 조회한 뒤 batch-size 단위 JDBC 배치 insert 로 넣는다.
+ */
+@Repository
+public class ReportJdbcRepository {
+
+    private static final String REPORT_COLUMNS =
+            "report (elderly_id, report_type, report_status, start_date, report_day, created_date, last_modified_date)";
+
+    //보고 요일이 오늘인 노인 중 같은 요일의 대기 주간 보고서가 없는 노인
+    private static final String WEEKLY_TARGETS =
+            "from elderly e where e.report_day = ? and not exists (select 1 from report r where r.elderly_id = e.elderly_id " +
+                    "and r.report_type = 'WEEKLY' and r.report_status = 'PENDING' and r.report_day = ?)";
+
+    //대기 월간 보고서가 없는 모든 노인
+    private static final String MONTHLY_TARGETS =
+            "from elderly e where not exists (select 1 from report r where r.elderly_id = e.elderly_id " +
+                    "and r.report_type = 'MONTHLY' and r.report_status = 'PENDING')";
+
+    private static final DateTimeFormatter TIMESTAMP_LITERAL = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean insertSelect;
+    private final int batchSize;
+
+    public ReportJdbcRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${report.empty-reports.insert-select:true}") boolean insertSelect,
+                                @Value("${report.empty-reports.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertSelect = insertSelect;
+        this.batchSize = batchSize;
+    }
+
+    //주간 빈 보고서 생성, 생성한 보고서 수 반환
+    public int insertMissingWeeklyReports(LocalDate date) {
+        String reportDay = date.getDayOfWeek().name();
+        return insertMissing(ReportType.WEEKLY, date, WEEKLY_TARGETS, reportDay, reportDay);
+    }
+
+    //월간 빈 보고서 생성, 생성한 보고서 수 반환
+    public int insertMissingMonthlyReports(LocalDate date) {
+        return insertMissing(ReportType.MONTHLY, date, MONTHLY_TARGETS);
+    }
+
+    private int insertMissing(ReportType reportType, LocalDate date, String targets, Object... args) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS); //JPA 감사 필드(createdDate, lastModifiedDate) 대신
+        if (insertSelect) {
+            //select 절 상수는 enum 이름과 날짜뿐이라 리터럴로 넣음
+            String values = String.format("e.elderly_id, '%s', '%s', date '%s', '%s', timestamp '%s', timestamp '%s'",
+                    reportType.name(), ReportStatus.PENDING.name(), date, date.getDayOfWeek().name(),
+                    TIMESTAMP_LITERAL.format(now), TIMESTAMP_LITERAL.format(now));
+            return jdbcTemplate.update("insert into " + REPORT_COLUMNS + " select " + values + " " + targets, args);
+        }
+
+        List<Long> elderlyIds = jdbcTemplate.queryForList("select e.elderly_id " + targets, Long.class, args);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate("insert into " + REPORT_COLUMNS + " values (?, ?, ?, ?, ?, ?, ?)", elderlyIds, batchSize,
+                (ps, elderlyId) -> {
+                    ps.setLong(1, elderlyId);
+                    ps.setString(2, reportType.name());
+                    ps.setString(3, ReportStatus.PENDING.name());
+                    ps.setDate(4, Date.valueOf(date));
+                    ps.setString(5, date.getDayOfWeek().name());
+                    ps.setTimestamp(6, timestamp);
+                    ps.setTimestamp(7, timestamp);
+                });
+        return elderlyIds.size();
+    }
+}
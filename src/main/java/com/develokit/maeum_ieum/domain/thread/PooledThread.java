@@ -0,0 +1,27 @@
+package com.develokit.maeum_ieum.domain.thread;
+
+import com.develokit.maeum_ieum.domain.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+//미리 만들어 둔 빈 OpenAI 스레드 (OpenAiThreadPool 이 채우고, 채팅 진입 시 행을 삭제하면서 꺼내 쓴다)
+@Entity
+@Table(name = "pooled_thread", indexes = {
+        @Index(name = "idx_pooled_thread_created", columnList = "created_date")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class PooledThread extends BaseEntity {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String threadId; //openAi 스레드 아이디
+
+    public PooledThread(String threadId) {
+        this.threadId = threadId;
+    }
+}
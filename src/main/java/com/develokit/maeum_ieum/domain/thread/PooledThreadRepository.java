@@ -0,0 +1,28 @@
+package com.develokit.maeum_ieum.domain.thread;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PooledThreadRepository extends JpaRepository<PooledThread, Long> {
+
+    //가장 오래된(만료 전) 스레드 하나 (PK 순서로 첫 행만 읽음)
+    Optional<PooledThread> findFirstByCreatedDateAfterOrderByIdAsc(LocalDateTime freshAfter);
+
+    long countByCreatedDateAfter(LocalDateTime freshAfter);
+
+    List<PooledThread> findByCreatedDateLessThanEqualOrderByIdAsc(LocalDateTime expiredAt, Pageable pageable);
+
+    //행 삭제로 점유 (1이면 점유 성공, 다른 요청/인스턴스가 먼저 가져갔으면 0). 트랜잭션이 롤백되면 풀로 돌아간다
+    @Modifying
+    @Query("delete from PooledThread p where p.id = :id")
+    int claim(@Param("id") Long id);
+}
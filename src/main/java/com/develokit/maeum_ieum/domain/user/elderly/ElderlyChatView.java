@@ -0,0 +1,26 @@
+package com.develokit.maeum_ieum.domain.user.elderly;
+
+/**
+ * 채팅 요청 처리에 필요한 노인 사용자 + 어시스턴트 정보만 담은 조회 전용 프로젝션.
+ * 어시스턴트가 등록되지 않은 경우 assistantId, openAiAssistantId 는 null.
+ */
+public record ElderlyChatView(Long elderlyId,
+                              Long assistantId,
+                              String openAiAssistantId,
+                              String threadId) {
+
+    public boolean hasAssistant(){
+        return assistantId != null;
+    }
+
+    public static ElderlyChatView from(Elderly elderly){
+        if(elderly.getAssistant() == null)
+            return new ElderlyChatView(elderly.getId(), null, null, null);
+        return new ElderlyChatView(
+                elderly.getId(),
+                elderly.getAssistant().getId(),
+                elderly.getAssistant().getOpenAiAssistantId(),
+                elderly.getAssistant().getThreadId()
+        );
+    }
+}
@@ -2,6 +2,7 @@ package com.develokit.maeum_ieum.dto.assistant;
 
 import com.develokit.maeum_ieum.domain.assistant.Assistant;
 import com.develokit.maeum_ieum.domain.user.elderly.Elderly;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -35,10 +36,31 @@ public class RespDto {
 
             this.mandatoryRule = content;
         }
+        //스트림으로 받은 전체 규칙을 캐시에 넣을 때 사용
+        public AssistantMandatoryRuleRespDto(String mandatoryRule){
+            this.mandatoryRule = mandatoryRule;
+        }
         @Schema(description = "자동 생성된 필수 규칙")
         private String mandatoryRule;
     }
 
+    @NoArgsConstructor
+    @Getter
+    @AllArgsConstructor
+    @Schema(description = "노인 필수 규칙 자동 생성 스트림 응답 DTO")
+    public static class AssistantMandatoryRuleStreamRespDto{
+        @Schema(description = "생성 중인 규칙 조각: 마지막 응답에는 전체 규칙")
+        private String mandatoryRule;
+
+        @Schema(description = "마지막 응답 여부")
+        private boolean isLast;
+
+        @JsonProperty("isLast")
+        public boolean isLast() {
+            return isLast;
+        }
+    }
+
     @Getter
     @NoArgsConstructor
     @Schema(description = "어시스턴트 삭제 후 반환되는 DTO")
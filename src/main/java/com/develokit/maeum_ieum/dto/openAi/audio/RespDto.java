@@ -4,6 +4,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 
@@ -21,4 +23,13 @@ public class RespDto {
         @Schema(description = "메시지 발행 시간")
         private String timeStamp;
     }
+
+    //오디오 본문은 OpenAI 응답을 그대로 흘려보내고, 텍스트와 시간은 응답 헤더로 전달
+    @Getter
+    @AllArgsConstructor
+    public static class StreamAudioRespDto{
+        private String content;
+        private String timeStamp;
+        private Flux<DataBuffer> audio; //audio/mpeg
+    }
 }
@@ -1,5 +1,6 @@
 package com.develokit.maeum_ieum.dto.openAi.gpt;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
@@ -22,6 +23,9 @@ public class ReqDto {
         private List<MessageDto> messages = new ArrayList<>();
         //GPT 응답 생성 길이를 제어하는 토큰 크기
         private int maxTokens;
+        //true 면 토큰 단위 SSE 응답 (없으면 전송하지 않음)
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Boolean stream;
 
         public CreateGptMessageReqDto(String model, MessageDto system, MessageDto user, int maxTokens){
             this.model = model;
@@ -30,6 +34,11 @@ public class ReqDto {
             this.maxTokens = maxTokens;
         }
 
+        public CreateGptMessageReqDto streaming(){
+            this.stream = true;
+            return this;
+        }
+
 
         @NoArgsConstructor
         @Getter
@@ -1,6 +1,7 @@
 package com.develokit.maeum_ieum.dto.openAi.run;
 
 import com.develokit.maeum_ieum.dto.openAi.message.RespDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
@@ -12,6 +13,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class ReqDto {
 
@@ -19,11 +21,12 @@ public class ReqDto {
     @AllArgsConstructor
     @Builder
     @JsonNaming(value = PropertyNamingStrategies.SnakeCaseStrategy.class)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class CreateRunReqDto {
         @NotNull
         private String assistantId;
         private String instructions;
-        private AdditionalMessageDto additionalMessages;
+        private List<AdditionalMessageDto> additionalMessages; //런 생성 전에 스레드에 추가할 메시지
         private boolean stream; //true이면 런 이벤트에 대한 스트림을 생성
 
         public CreateRunReqDto (String assistantId, boolean stream){
@@ -31,24 +34,20 @@ public class ReqDto {
             this.stream = stream;
         }
 
-        @NoArgsConstructor
+        //메시지 생성 요청 없이 런 생성 요청에 메시지를 실어 보냄 (한 번의 왕복)
+        public CreateRunReqDto withAdditionalMessage(String role, String content){
+            List<AdditionalMessageDto> messages = new ArrayList<>();
+            if(additionalMessages != null) messages.addAll(additionalMessages);
+            messages.add(new AdditionalMessageDto(role, content));
+            return new CreateRunReqDto(assistantId, instructions, messages, stream);
+        }
+
         @Getter
-        private static class AdditionalMessageDto {
+        @AllArgsConstructor
+        @NoArgsConstructor
+        public static class AdditionalMessageDto {
             private String role;
-            private ContentDto content;
-
-            @Getter
-            @NoArgsConstructor
-            public static class ContentDto{
-                private String type;
-                private TextDto text;
-
-                @Getter
-                @NoArgsConstructor
-                public static class TextDto{
-                    private String value;
-                }
-            }
+            private String content;
         }
     }
 }
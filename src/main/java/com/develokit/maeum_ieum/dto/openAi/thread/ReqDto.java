@@ -2,6 +2,7 @@ package com.develokit.maeum_ieum.dto.openAi.thread;
 
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -15,10 +16,20 @@ public class ReqDto {
     @JsonNaming(value = PropertyNamingStrategies.SnakeCaseStrategy.class)
     @Getter
     @NoArgsConstructor
+    @AllArgsConstructor
     public static class CreateThreadAndRunReqDto {
         private String assistantId;
         private ThreadDto thread;
+        private boolean stream; //true이면 런 이벤트에 대한 스트림을 생성
 
+        //메시지 하나로 스레드를 만들고 바로 런 실행 (일회용 스레드)
+        public static CreateThreadAndRunReqDto of(String assistantId, String role, String content, boolean stream){
+            return new CreateThreadAndRunReqDto(assistantId, new ThreadDto(List.of(new MessagesDto(role, content))), stream);
+        }
+
+        @Getter
+        @NoArgsConstructor
+        @AllArgsConstructor
         public static class ThreadDto{
             private List<MessagesDto> messages;
         }
@@ -26,10 +37,13 @@ public class ReqDto {
 
     @Getter
     @NoArgsConstructor
+    @AllArgsConstructor
     public static class CreateThreadReqDto{
         private List<MessagesDto> messages = new ArrayList<>();
 
         @Getter
+        @NoArgsConstructor
+        @AllArgsConstructor
         public static class MessagesDto{
             private String role;
             private String content;
@@ -2,6 +2,8 @@ package com.develokit.maeum_ieum.service;
 
 import com.develokit.maeum_ieum.domain.assistant.Assistant;
 import com.develokit.maeum_ieum.domain.assistant.AssistantRepository;
+import com.develokit.maeum_ieum.domain.outbox.OpenAiOutbox;
+import com.develokit.maeum_ieum.domain.outbox.OutboxOperation;
 import com.develokit.maeum_ieum.domain.user.caregiver.CareGiverRepository;
 import com.develokit.maeum_ieum.domain.user.caregiver.Caregiver;
 import com.develokit.maeum_ieum.domain.user.elderly.Elderly;
@@ -9,6 +11,7 @@ import com.develokit.maeum_ieum.domain.user.elderly.ElderlyRepository;
 import com.develokit.maeum_ieum.dto.openAi.assistant.ReqDto;
 import com.develokit.maeum_ieum.dto.openAi.assistant.RespDto;
 import com.develokit.maeum_ieum.ex.CustomApiException;
+import com.develokit.maeum_ieum.service.outbox.OpenAiOutboxDispatcher;
 import com.develokit.maeum_ieum.util.CustomAccessCodeGenerator;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
@@ -26,7 +29,7 @@ import static com.develokit.maeum_ieum.dto.openAi.assistant.RespDto.*;
 public class AssistantService {
 
     private final AssistantRepository assistantRepository;
-    private final OpenAiService openAiService;
+    private final OpenAiOutboxDispatcher openAiOutboxDispatcher; //OpenAI 호출은 커밋 후 아웃박스로 실행
     private final ElderlyRepository elderlyRepository;
     private final CareGiverRepository careGiverRepository;
     private final CustomAccessCodeGenerator accessCodeGenerator;
@@ -56,7 +59,11 @@ public class AssistantService {
         //db 정보 수정
         assistantPS.update(assistantModifyReqDto);
 
-        openAiService.modifyAssistant(assistantPS.getOpenAiAssistantId(), assistantPS);
+        //openAI 어시스턴트 수정 (커밋 후 실행, 실행 시점의 최신 내용으로 반영)
+        openAiOutboxDispatcher.enqueue(OpenAiOutbox.builder()
+                .operation(OutboxOperation.MODIFY_ASSISTANT)
+                .assistantId(assistantPS.getId())
+                .build());
 
         return new AssistantModifyRespDto(assistantPS);
     }
@@ -84,8 +91,12 @@ public class AssistantService {
         );
         caregiverPS.getAssistantList().remove(assistantPS);
 
-        //openAI 어시스턴트 삭제
-        openAiService.deleteAssistant(assistantPS.getOpenAiAssistantId());
+        //openAI 어시스턴트 삭제 (커밋 후 실행, 아직 생성 중이면 생성 반영 시점에 삭제)
+        openAiOutboxDispatcher.enqueue(OpenAiOutbox.builder()
+                .operation(OutboxOperation.DELETE_ASSISTANT)
+                .assistantId(assistantPS.getId())
+                .openAiAssistantId(assistantPS.getOpenAiAssistantId())
+                .build());
 
         //어시스턴트 삭제
         assistantRepository.delete(assistantPS);
@@ -131,20 +142,10 @@ public class AssistantService {
         }
 
 
-        //어시스턴트 생성 + instructions 설정
-        String assistantId = openAiService.createAssistant(
-                ReqDto.OpenAiCreateAssistantReqDto.builder()
-                        .description(createAssistantReqDto.getMandatoryRule())
-                        .instructions(instructions)
-                        .name(createAssistantReqDto.getName())
-                        .build()
-        );
-
-        //어시스턴트 저장
+        //어시스턴트 저장 (openAiAssistantId 는 OpenAI 생성 후 아웃박스 디스패처가 채움)
         Assistant assistantPS = assistantRepository.save(
                 Assistant.builder()
                         .name(createAssistantReqDto.getName())
-                        .openAiAssistantId(assistantId)
                         .caregiver(caregiverPS)
                         .mandatoryRule(createAssistantReqDto.getMandatoryRule())
                         .conversationTopic(createAssistantReqDto.getConversationTopic())
@@ -155,6 +156,12 @@ public class AssistantService {
                         .build()
         );
 
+        //OpenAI 어시스턴트 생성 + instructions 설정 (커밋 후 실행)
+        openAiOutboxDispatcher.enqueue(OpenAiOutbox.builder()
+                .operation(OutboxOperation.CREATE_ASSISTANT)
+                .assistantId(assistantPS.getId())
+                .build());
+
         //노인에 어시스턴트 + accessCode 주입
         elderlyPS.attachAssistant(assistantPS);
         String accessCode = accessCodeGenerator.generateEncodedAccessCode(elderlyPS.getName());
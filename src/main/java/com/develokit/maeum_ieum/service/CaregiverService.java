@@ -23,6 +23,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Base64;
@@ -222,6 +223,11 @@ public class CaregiverService {
                     throw new CustomApiException("AI 필수 규칙 자동 완성 응답 DTO 반환 중 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
                 });
     }
+    //AI 필수 규칙 자동 생성 스트림: 조각을 바로 전달하고 마지막에 전체 규칙 전달
+    public Flux<AssistantMandatoryRuleStreamRespDto> createAutoMandatoryRuleStream(AssistantMandatoryRuleReqDto assistantMandatoryRuleReqdto){
+        return openAiService.createGptMessageStream(assistantMandatoryRuleReqdto)
+                .doOnError(e -> log.error("AI 필수 규칙 자동 완성 스트림 중 오류 발생: " + e.getMessage()));
+    }
     // TODO AI 필수 규칙 자동 생성 -> Servlet
 
     public AssistantMandatoryRuleRespDto createAutoMandatoryRuleWithFeign(AssistantMandatoryRuleReqDto assistantMandatoryRuleReqdto){
@@ -6,10 +6,15 @@ import com.develokit.maeum_ieum.domain.emergencyRequest.EmergencyRequest;
 import com.develokit.maeum_ieum.domain.emergencyRequest.EmergencyRequestRepository;
 import com.develokit.maeum_ieum.domain.message.Message;
 import com.develokit.maeum_ieum.domain.message.MessageRepository;
+import com.develokit.maeum_ieum.domain.outbox.OpenAiOutbox;
+import com.develokit.maeum_ieum.domain.outbox.OpenAiOutboxRepository;
+import com.develokit.maeum_ieum.domain.outbox.OutboxOperation;
+import com.develokit.maeum_ieum.domain.outbox.OutboxStatus;
 import com.develokit.maeum_ieum.domain.report.Report;
 import com.develokit.maeum_ieum.domain.report.ReportRepository;
 import com.develokit.maeum_ieum.domain.report.ReportStatus;
 import com.develokit.maeum_ieum.domain.report.ReportType;
+import com.develokit.maeum_ieum.domain.thread.PooledThread;
 import com.develokit.maeum_ieum.domain.user.caregiver.CareGiverRepository;
 import com.develokit.maeum_ieum.domain.user.caregiver.Caregiver;
 import com.develokit.maeum_ieum.domain.user.elderly.Elderly;
@@ -17,6 +22,9 @@ import com.develokit.maeum_ieum.domain.user.elderly.ElderlyRepository;
 import com.develokit.maeum_ieum.dto.assistant.RespDto;
 import com.develokit.maeum_ieum.dto.elderly.ReqDto.ElderlyCreateReqDto;
 import com.develokit.maeum_ieum.ex.CustomApiException;
+import com.develokit.maeum_ieum.service.chat.ConversationContextManager;
+import com.develokit.maeum_ieum.service.chat.OpenAiThreadPool;
+import com.develokit.maeum_ieum.service.outbox.OpenAiOutboxDispatcher;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.servlet.http.HttpServlet;
 import lombok.*;
@@ -30,7 +38,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 
@@ -49,6 +59,7 @@ import java.util.concurrent.CompletableFuture;
 import static com.develokit.maeum_ieum.dto.elderly.ReqDto.*;
 import static com.develokit.maeum_ieum.dto.elderly.RespDto.*;
 import static com.develokit.maeum_ieum.dto.openAi.thread.RespDto.*;
+import static com.develokit.maeum_ieum.dto.openAi.thread.ReqDto.CreateThreadReqDto.MessagesDto;
 
 @Service
 @RequiredArgsConstructor
@@ -59,10 +70,14 @@ public class ElderlyService {
     private final CareGiverRepository careGiverRepository;
     private final S3Service s3Service;
     private final AssistantRepository assistantRepository;
-    private final OpenAiService openAiService;
     private final ReportRepository reportRepository;
     private final MessageRepository messageRepository;
     private final EmergencyRequestRepository emergencyRequestRepository;
+    private final ConversationContextManager conversationContextManager;
+    private final OpenAiOutboxDispatcher openAiOutboxDispatcher;
+    private final OpenAiOutboxRepository openAiOutboxRepository;
+    private final OpenAiThreadPool openAiThreadPool;
+    private final TransactionTemplate transactionTemplate;
 
     private final Logger log = LoggerFactory.getLogger(CaregiverService.class);
 
@@ -133,10 +148,39 @@ public class ElderlyService {
     }
 
 
-    //@Transactional
     //채팅 화면 들어가기: 어시스턴트 검증 및 스레드 검증 진행
+    //OpenAI 호출(스레드 생성) 동안 커넥션과 락을 잡지 않도록 트랜잭션 없이 실행하고, DB 작업만 짧은 트랜잭션으로 나눈다
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CheckAssistantInfoRespDto checkAssistantInfo(Long elderlyId, Long assistantId){
 
+        //1. 검증 + 필요한 OpenAI 작업 아웃박스 기록
+        PendingOpenAiWork work = transactionTemplate.execute(status -> prepareAssistantInfo(elderlyId, assistantId));
+
+        //2. 커밋 후 트랜잭션 없이 OpenAI 호출, 결과는 디스패처가 짧은 트랜잭션으로 반영
+        if(work.createAssistantOutboxId() != null)
+            openAiOutboxDispatcher.dispatchNow(work.createAssistantOutboxId());
+        //교체된 이전 스레드 정리는 반영 시점에 디스패처가 처리 (백그라운드 재시도로 반영돼도 동일)
+        if(work.createThreadOutboxId() != null)
+            openAiOutboxDispatcher.dispatchNow(work.createThreadOutboxId());
+
+        //3. 반영된 어시스턴트 정보 반환
+        return transactionTemplate.execute(status -> {
+            Assistant assistantPS = assistantRepository.findById(assistantId)
+                    .orElseThrow(
+                            () -> new CustomApiException("존재하지 않는 AI 어시스턴트 입니다",HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND)
+                    );
+            //OpenAI 생성이 아직 반영되지 않음 (실패 시 아웃박스가 재시도)
+            if(assistantPS.getOpenAiAssistantId() == null || !assistantPS.hasThread())
+                throw new CustomApiException("AI 어시스턴트를 준비 중입니다. 잠시 후 다시 시도해주세요", HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE);
+            return new CheckAssistantInfoRespDto(assistantPS);
+        });
+    }
+
+    //checkAssistantInfo 에서 커밋 후 실행할 아웃박스 id (없으면 null)
+    private record PendingOpenAiWork(Long createAssistantOutboxId, Long createThreadOutboxId){}
+
+    private PendingOpenAiWork prepareAssistantInfo(Long elderlyId, Long assistantId){
+
         //사용자 검증
         Elderly elderlyPS = elderlyRepository.findById(elderlyId).orElseThrow(
                 () -> new CustomApiException("등록되지 않은 노인 사용자입니다.",HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND)
@@ -157,41 +201,79 @@ public class ElderlyService {
         if(elderlyPS.getAssistant() != assistantPS)
             throw new CustomApiException("해당 사용자의 AI 어시스턴트가 아닙니다", HttpStatus.FORBIDDEN.value(), HttpStatus.FORBIDDEN);
 
+        //OpenAI 어시스턴트 생성이 아직 반영되지 않았으면 대기 중인 생성 아웃박스를 바로 실행
+        Long createAssistantOutboxId = null;
+        if(assistantPS.getOpenAiAssistantId() == null){
+            createAssistantOutboxId = openAiOutboxRepository
+                    .findFirstByAssistantIdAndOperationAndStatusOrderByIdDesc(assistantPS.getId(), OutboxOperation.CREATE_ASSISTANT, OutboxStatus.PENDING)
+                    .map(OpenAiOutbox::getId)
+                    .orElse(null);
+        }
+
+        //이미 기록된 스레드 생성이 있으면 그것을 실행 (중복 생성 방지)
+        Optional<OpenAiOutbox> pendingThread = openAiOutboxRepository
+                .findFirstByAssistantIdAndOperationAndStatusOrderByIdDesc(assistantPS.getId(), OutboxOperation.CREATE_THREAD, OutboxStatus.PENDING);
+        if(pendingThread.isPresent())
+            return new PendingOpenAiWork(createAssistantOutboxId, pendingThread.get().getId());
 
         //스레드가 있는지 확인 -> 없으면 스레드 생성
         if(!assistantPS.hasThread()){ //스레드 없음
             log.debug("디버그 : 해당 AI 어시스턴트는 스레드 없으므로 스레드 생성");
-            ThreadRespDto threadRespDto = openAiService.createThread();
-            assistantPS.attachThread(threadRespDto.getId());
+            return newThread(createAssistantOutboxId, assistantPS);
         }
-        else{ //스레드가 있다면
-            log.debug("디버그 : 해당 AI 어시스턴트는 스레드가 존재함");
-            LocalDateTime lastChatTime = elderlyPS.getLastChatTime();
-            //이전 응답 기록이 없다면
-            if (lastChatTime == null) {
-                //스레드 생성일로부터 30일이 지났는지 검증 -> 지났다면 새로운 스레드 생성
-                LocalDateTime threadCreatedDate = assistantPS.getThreadCreatedDate();
-
-                //스레드 생성일로부터 30일이 지남
-                if(ChronoUnit.DAYS.between(threadCreatedDate, LocalDateTime.now()) >= 30){
-                    log.debug("디버그 : 해당 AI 어시스턴트는 스레드 생성일로부터 30일이 지났고, 이전 대화 기록이 없으므로 새 스레드 생성");
-                    ThreadRespDto threadRespDto = openAiService.createThread();
-                    assistantPS.attachThread(threadRespDto.getId());
-                }
-                //스레드 생성일로부터 30일이 지나지 않으면 그대로 반환
-
-            } else { //이전 응답 기록이 있다면
-                //마지막 대화일로부터 30일이 지났는지 확인
-                if(ChronoUnit.DAYS.between(lastChatTime, LocalDateTime.now()) >= 30){
-                    log.debug("디버그 : 해당 AI 어시스턴트는 마지막 대화로부터 30일이 지났으므로 새 스레드 생성");
-                    ThreadRespDto threadRespDto = openAiService.createThread();
-                    assistantPS.attachThread(threadRespDto.getId());
-                }
-                //마지막 대화일로부터 30일이 지나지 않았으므로 그대로 반환
+
+        log.debug("디버그 : 해당 AI 어시스턴트는 스레드가 존재함");
+        LocalDateTime lastChatTime = elderlyPS.getLastChatTime();
+        //이전 응답 기록이 없다면
+        if (lastChatTime == null) {
+            //스레드 생성일로부터 30일이 지났는지 검증 -> 지났다면 새로운 스레드 생성
+            LocalDateTime threadCreatedDate = assistantPS.getThreadCreatedDate();
+
+            //스레드 생성일로부터 30일이 지남
+            if(ChronoUnit.DAYS.between(threadCreatedDate, LocalDateTime.now()) >= 30){
+                log.debug("디버그 : 해당 AI 어시스턴트는 스레드 생성일로부터 30일이 지났고, 이전 대화 기록이 없으므로 새 스레드 생성");
+                return newThread(createAssistantOutboxId, assistantPS);
             }
+            //스레드 생성일로부터 30일이 지나지 않으면 그대로 반환
+
+        } else { //이전 응답 기록이 있다면
+            //마지막 대화일로부터 30일이 지났는지 확인
+            if(ChronoUnit.DAYS.between(lastChatTime, LocalDateTime.now()) >= 30){
+                log.debug("디버그 : 해당 AI 어시스턴트는 마지막 대화로부터 30일이 지났으므로 새 스레드 생성");
+                return newThread(createAssistantOutboxId, assistantPS);
+            }
+            //마지막 대화일로부터 30일이 지나지 않았으므로 그대로 반환
         }
 
-        return new CheckAssistantInfoRespDto(assistantPS);
+        //30일 기준으로 교체되지 않았어도 컨텍스트 토큰 예산을 넘으면 최근 대화 요약을 넣은 새 스레드로 교체
+        String threadId = assistantPS.getThreadId();
+        long contextTokens = conversationContextManager.estimateTokens(threadId, elderlyPS, assistantPS.getThreadCreatedDate());
+        if(conversationContextManager.exceedsBudget(contextTokens)){
+            log.debug("디버그 : 해당 AI 어시스턴트는 스레드 컨텍스트가 토큰 예산을 초과({})했으므로 요약을 넣은 새 스레드 생성", contextTokens);
+            return new PendingOpenAiWork(createAssistantOutboxId, recordCreateThread(assistantPS, conversationContextManager.seedMessages(elderlyPS), threadId));
+        }
+
+        return new PendingOpenAiWork(createAssistantOutboxId, null);
+    }
+
+    //미리 만들어 둔 스레드가 있으면 바로 연결, 풀이 비었으면 스레드 생성 아웃박스 기록
+    private PendingOpenAiWork newThread(Long createAssistantOutboxId, Assistant assistant){
+        Optional<PooledThread> pooled = openAiThreadPool.take();
+        if(pooled.isPresent()){
+            assistant.attachThread(pooled.get().getThreadId(), pooled.get().getCreatedDate());
+            return new PendingOpenAiWork(createAssistantOutboxId, null);
+        }
+        return new PendingOpenAiWork(createAssistantOutboxId, recordCreateThread(assistant, null, null));
+    }
+
+    //스레드 생성 아웃박스 기록 (커밋 후 checkAssistantInfo 가 직접 실행), rotatedThreadId 는 반영 후 삭제할 이전 스레드
+    private Long recordCreateThread(Assistant assistant, List<MessagesDto> seed, String rotatedThreadId){
+        return openAiOutboxDispatcher.record(OpenAiOutbox.builder()
+                .operation(OutboxOperation.CREATE_THREAD)
+                .assistantId(assistant.getId())
+                .openAiThreadId(rotatedThreadId)
+                .payload(openAiOutboxDispatcher.seedPayload(seed))
+                .build());
     }
 
     //채팅 내역 끌고오기
@@ -1,22 +1,29 @@
 package com.develokit.maeum_ieum.service;
 
 import com.develokit.maeum_ieum.config.openAI.ThreadWebClient;
-import com.develokit.maeum_ieum.domain.user.elderly.Elderly;
-import com.develokit.maeum_ieum.domain.user.elderly.ElderlyRepository;
+import com.develokit.maeum_ieum.config.openAI.rate.OpenAiPriority;
+import com.develokit.maeum_ieum.config.openAI.rate.OpenAiRateScheduler;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamFrameCoalescer;
+import com.develokit.maeum_ieum.domain.user.elderly.ElderlyChatView;
 import com.develokit.maeum_ieum.dto.message.ReqDto.CreateStreamMessageReqDto;
 import com.develokit.maeum_ieum.dto.message.RespDto;
 import com.develokit.maeum_ieum.dto.message.RespDto.CreateStreamMessageRespDto;
 import com.develokit.maeum_ieum.dto.openAi.audio.RespDto.CreateAudioRespDto;
+import com.develokit.maeum_ieum.dto.openAi.audio.RespDto.StreamAudioRespDto;
 import com.develokit.maeum_ieum.dto.openAi.run.ReqDto.CreateRunReqDto;
 import com.develokit.maeum_ieum.ex.CustomApiException;
+import com.develokit.maeum_ieum.service.chat.ConversationContextManager;
+import com.develokit.maeum_ieum.service.chat.ElderlyChatReader;
+import com.develokit.maeum_ieum.service.chat.SentenceChunker;
+import com.develokit.maeum_ieum.service.chat.ThreadRunMailbox;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import static com.develokit.maeum_ieum.dto.message.RespDto.*;
 import static com.develokit.maeum_ieum.dto.openAi.audio.ReqDto.*;
@@ -28,23 +35,20 @@ import static com.develokit.maeum_ieum.dto.openAi.message.ReqDto.*;
 public class MessageService {
 
     private final ThreadWebClient threadWebClient;
-    private final ElderlyRepository elderlyRepository;
+    private final ElderlyChatReader elderlyChatReader; //JPA 또는 R2DBC (chat.r2dbc.enabled)
+    private final ThreadRunMailbox threadRunMailbox; //같은 스레드의 턴은 순서대로 하나씩 실행
+    private final StreamFrameCoalescer streamFrameCoalescer; //델타 프레임 병합
+    private final SentenceChunker sentenceChunker; //스트리밍 음성: 문장 단위 분할
+    private final ConversationContextManager conversationContextManager; //스레드 컨텍스트 크기별 런 지연 시간 기록
+    private final OpenAiRateScheduler openAiRateScheduler; //OpenAI 한도 공유 (채팅 > 음성 > 자동 생성 > 보고서)
+    private static final String CHAT_MODEL = "gpt-4o-mini"; //어시스턴트 모델 (OpenAiService.MODEL)
+    private static final String TTS_MODEL = "tts-1";
+    @Value("${chat.voice.tts-concurrency:3}")
+    private int ttsConcurrency; //동시에 합성하는 문장 수
     private final static Logger log = LoggerFactory.getLogger(MessageService.class);
 
     public Mono<CreateMessageRespDto> getNonStreamMessage(CreateStreamMessageReqDto createStreamMessageReqDto, Long elderlyId){
-        return Mono.fromCallable(() ->
-                elderlyRepository.findByIdWithAssistant(elderlyId))
-                .subscribeOn(Schedulers.boundedElastic())
-                .flatMap(elderlyOptional -> elderlyOptional
-                        .map(Mono::just)
-                        .orElseThrow(() -> new CustomApiException("등록되지 않은 사용자입니다. 담당 요양사에게 문의해주세요", HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND)))
-                .flatMap(elderlyPS -> {
-                    if(elderlyPS.getAssistant() == null)
-                        return Mono.error(new CustomApiException("AI 어시스턴트가 등록되지 않은 사용자입니다", HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND));
-                    else if(!elderlyPS.getAssistant().getOpenAiAssistantId().equals(createStreamMessageReqDto.getOpenAiAssistantId()))
-                        return Mono.error(new CustomApiException("해당 사용자의 AI 어시스턴트가 아닙니다", HttpStatus.FORBIDDEN.value(), HttpStatus.FORBIDDEN));
-                    else return Mono.just(elderlyPS);
-                })
+        return threadRunMailbox.submitMono(createStreamMessageReqDto.getThreadId(), () -> findChatElderly(elderlyId, createStreamMessageReqDto.getOpenAiAssistantId())
                 .flatMap(elderlyPS ->{
                     CreateMessageReqDto createMessageReqDto = new CreateMessageReqDto(
                             "user",
@@ -55,85 +59,149 @@ public class MessageService {
                             true
                     );
 
-                    return threadWebClient.createMessageAndRun(
-                            createStreamMessageReqDto.getThreadId(),
-                            createMessageReqDto,
-                            createRunReqDto,
-                            elderlyPS
-                    );
-                })
+                    return openAiRateScheduler.admit(CHAT_MODEL, OpenAiPriority.LIVE_CHAT, runTokens(createStreamMessageReqDto.getThreadId(), createStreamMessageReqDto.getContent()),
+                            () -> conversationContextManager.trackRun(
+                                    createStreamMessageReqDto.getThreadId(),
+                                    createStreamMessageReqDto.getContent(),
+                                    threadWebClient.createMessageAndRun(
+                                            createStreamMessageReqDto.getThreadId(),
+                                            createMessageReqDto,
+                                            createRunReqDto,
+                                            elderlyPS.elderlyId()
+                                    ),
+                                    CreateMessageRespDto::getAnswer
+                            ));
+                }))
                 .doOnError(e -> log.error("비스트림런 유저 답변 생성 중 오류 발생: ", e));
     }
 
 
     public Flux<CreateStreamMessageRespDto> getStreamMessage(CreateStreamMessageReqDto createStreamMessageReqDto, Long elderlyId){
 
-        return Mono.fromCallable(() ->
-                        elderlyRepository.findByIdWithAssistant(elderlyId))
-                        .subscribeOn(Schedulers.boundedElastic()) //노인 사용자 조회 블로킹 작업 비동기로 수행
-                        .flatMap(elderlyOptional -> elderlyOptional
-                                .map(Mono::just)
-                                .orElseThrow(() -> new CustomApiException("등록되지 않은 사용자 입니다. 담당 요양사에게 문의해주세요", HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND))
-                        )
-                        .flatMap(elderlyPS -> {
-                            if(elderlyPS.getAssistant() == null)
-                                return Mono.error(new CustomApiException("AI 어시스턴트가 등록되지 않은 사용자입니다", HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND));
-                            else if(!elderlyPS.getAssistant().getOpenAiAssistantId().equals(createStreamMessageReqDto.getOpenAiAssistantId()))
-                                return Mono.error(new CustomApiException("해당 사용자의 AI 어시스턴트가 아닙니다", HttpStatus.FORBIDDEN.value(), HttpStatus.FORBIDDEN));
-                            else return Mono.just(elderlyPS);
-                        })
-                        .flatMapMany(elderlyPS ->
-                                threadWebClient.createMessageAndStreamRun(
+        return threadRunMailbox.submit(createStreamMessageReqDto.getThreadId(), () -> findChatElderly(elderlyId, createStreamMessageReqDto.getOpenAiAssistantId())
+                        .flatMapMany(elderlyPS -> openAiRateScheduler.admitMany(CHAT_MODEL, OpenAiPriority.LIVE_CHAT, runTokens(createStreamMessageReqDto.getThreadId(), createStreamMessageReqDto.getContent()),
+                                () -> conversationContextManager.trackStream(
                                         createStreamMessageReqDto.getThreadId(),
+                                        createStreamMessageReqDto.getContent(),
+                                        threadWebClient.createMessageAndStreamRun(
+                                                createStreamMessageReqDto.getThreadId(),
+                                                new CreateMessageReqDto(
+                                                        "user",
+                                                        createStreamMessageReqDto.getContent()
+                                                ),
+                                                new CreateRunReqDto(
+                                                        createStreamMessageReqDto.getOpenAiAssistantId(),
+                                                        true
+                                                ),
+                                                elderlyPS.elderlyId()
+                                        )
+                                )).transform(streamFrameCoalescer::coalesce)
+                        ));
+
+    }
+
+    public Mono<CreateAudioRespDto> getVoiceMessage(CreateAudioReqDto createAudioReqDto, Long elderlyId){
+
+        return threadRunMailbox.submitMono(createAudioReqDto.getThreadId(), () -> findChatElderly(elderlyId, createAudioReqDto.getOpenAiAssistantId())
+                .flatMap( elderlyPS -> openAiRateScheduler.admit(CHAT_MODEL, OpenAiPriority.VOICE, runTokens(createAudioReqDto.getThreadId(), createAudioReqDto.getContent()), () ->
+                        conversationContextManager.trackRun(
+                                createAudioReqDto.getThreadId(),
+                                createAudioReqDto.getContent(),
+                                threadWebClient.createMessageAndRunForAudio(
+                                        createAudioReqDto.getThreadId(),
                                         new CreateMessageReqDto(
                                                 "user",
-                                                createStreamMessageReqDto.getContent()
+                                                createAudioReqDto.getContent()
                                         ),
                                         new CreateRunReqDto(
-                                                createStreamMessageReqDto.getOpenAiAssistantId(),
+                                                createAudioReqDto.getOpenAiAssistantId(),
                                                 true
                                         ),
-                                        elderlyPS
-                                )
-                        );
+                                        new AudioRequestDto(
+                                                "tts-1",
+                                                createAudioReqDto.getGender().equals("FEMALE")?"nova":"onyx"
+                                        ),
+                                        elderlyPS.elderlyId()
+                                ),
+                                CreateAudioRespDto::getContent
+                        )))
+                //한도 초과(429), 서킷 열림(503), 검증 실패 같은 CustomApiException 은 그대로 전달하고 나머지만 500 으로 감쌈
+                .doOnError(e -> log.error(e.getMessage()))
+                .onErrorMap(e -> !(e instanceof CustomApiException),
+                        e -> new CustomApiException("오디오 메시지 처리 중 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR)));
+    }
 
+    //음성 메시지 (오디오 본문 스트림 + 텍스트/시간 메타데이터)
+    public Mono<StreamAudioRespDto> getVoiceMessageAudio(CreateAudioReqDto createAudioReqDto, Long elderlyId){
+        return threadRunMailbox.submitMono(createAudioReqDto.getThreadId(), () -> findChatElderly(elderlyId, createAudioReqDto.getOpenAiAssistantId())
+                .flatMap(elderlyPS -> openAiRateScheduler.admit(CHAT_MODEL, OpenAiPriority.VOICE, runTokens(createAudioReqDto.getThreadId(), createAudioReqDto.getContent()), () -> conversationContextManager.trackRun(
+                        createAudioReqDto.getThreadId(),
+                        createAudioReqDto.getContent(),
+                        threadWebClient.createMessageAndRunForAudioStream(
+                                createAudioReqDto.getThreadId(),
+                                new CreateMessageReqDto(
+                                        "user",
+                                        createAudioReqDto.getContent()
+                                ),
+                                new CreateRunReqDto(
+                                        createAudioReqDto.getOpenAiAssistantId(),
+                                        true
+                                ),
+                                new AudioRequestDto(
+                                        "tts-1",
+                                        "FEMALE".equals(createAudioReqDto.getGender())?"nova":"onyx"
+                                ),
+                                elderlyPS.elderlyId()
+                        ),
+                        StreamAudioRespDto::getContent
+                ))));
     }
 
-    public Mono<CreateAudioRespDto> getVoiceMessage(CreateAudioReqDto createAudioReqDto, Long elderlyId){
+    //스트리밍 음성: 답변을 문장 단위로 잘라 동시에(최대 ttsConcurrency) 합성하고, 오디오 조각은 문장 순서대로 반환
+    public Flux<byte[]> getStreamingVoiceMessage(CreateAudioReqDto createAudioReqDto, Long elderlyId){
+        String voice = "FEMALE".equals(createAudioReqDto.getGender()) ? "nova" : "onyx";
 
-        return Mono.fromCallable(() ->
-                        elderlyRepository.findByIdWithAssistant(elderlyId))
-                .subscribeOn(Schedulers.boundedElastic())
-                .flatMap(elderlyOptional -> elderlyOptional
-                        .map(Mono::just)
-                        .orElseThrow(() -> new CustomApiException("등록되지 않은 사용자입니다. 담당 요양사에게 문의해주세요", HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND)))
+        return threadRunMailbox.submit(createAudioReqDto.getThreadId(), () -> findChatElderly(elderlyId, createAudioReqDto.getOpenAiAssistantId())
+                .flatMapMany(elderlyPS -> openAiRateScheduler.admitMany(CHAT_MODEL, OpenAiPriority.VOICE, runTokens(createAudioReqDto.getThreadId(), createAudioReqDto.getContent()), () -> conversationContextManager.trackStream(
+                                createAudioReqDto.getThreadId(),
+                                createAudioReqDto.getContent(),
+                                threadWebClient.createMessageAndStreamRun(
+                                        createAudioReqDto.getThreadId(),
+                                        new CreateMessageReqDto(
+                                                "user",
+                                                createAudioReqDto.getContent()
+                                        ),
+                                        new CreateRunReqDto(
+                                                createAudioReqDto.getOpenAiAssistantId(),
+                                                true
+                                        ),
+                                        elderlyPS.elderlyId()
+                                ))))
+                .filter(frame -> !frame.isLast())
+                .map(CreateStreamMessageRespDto::getAnswer)
+                .transform(sentenceChunker::chunk)
+                .flatMapSequential(sentence -> openAiRateScheduler.admit(TTS_MODEL, OpenAiPriority.VOICE, 0,
+                        () -> threadWebClient.createSpeech(new AudioRequestDto(TTS_MODEL, voice, sentence))), ttsConcurrency)
+                .doOnError(e -> log.error("스트리밍 음성 메시지 처리 중 오류 발생: ", e)));
+    }
+
+    private long runTokens(String threadId, String content){
+        return conversationContextManager.estimateRunTokens(threadId, content);
+    }
+
+    //노인 사용자 조회 + 어시스턴트 검증 (논블로킹)
+    private Mono<ElderlyChatView> findChatElderly(Long elderlyId, String openAiAssistantId){
+        return elderlyChatReader.findChatView(elderlyId)
+                .switchIfEmpty(Mono.error(() -> new CustomApiException("등록되지 않은 사용자입니다. 담당 요양사에게 문의해주세요", HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND)))
                 .flatMap(elderlyPS -> {
-                    if(elderlyPS.getAssistant() == null)
+                    if(!elderlyPS.hasAssistant())
                         return Mono.error(new CustomApiException("AI 어시스턴트가 등록되지 않은 사용자입니다", HttpStatus.NOT_FOUND.value(), HttpStatus.NOT_FOUND));
-                    else if(!elderlyPS.getAssistant().getOpenAiAssistantId().equals(createAudioReqDto.getOpenAiAssistantId()))
+                    //OpenAI 어시스턴트 생성 아웃박스가 아직 실행되지 않음 (ElderlyService.checkAssistantInfo 와 같은 응답)
+                    else if(elderlyPS.openAiAssistantId() == null)
+                        return Mono.error(new CustomApiException("AI 어시스턴트를 준비 중입니다. 잠시 후 다시 시도해주세요", HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE));
+                    else if(!elderlyPS.openAiAssistantId().equals(openAiAssistantId))
                         return Mono.error(new CustomApiException("해당 사용자의 AI 어시스턴트가 아닙니다", HttpStatus.FORBIDDEN.value(), HttpStatus.FORBIDDEN));
                     else return Mono.just(elderlyPS);
-                })
-                .flatMap( elderlyPS ->
-                        threadWebClient.createMessageAndRunForAudio(
-                        createAudioReqDto.getThreadId(),
-                        new CreateMessageReqDto(
-                                "user",
-                                createAudioReqDto.getContent()
-                        ),
-                        new CreateRunReqDto(
-                                createAudioReqDto.getOpenAiAssistantId(),
-                                true
-                        ),
-                        new AudioRequestDto(
-                                "tts-1",
-                                createAudioReqDto.getGender().equals("FEMALE")?"nova":"onyx"
-                        ),
-                        elderlyPS
-                ))
-                .onErrorResume(e -> {
-                    log.error(e.getMessage());
-                    throw new CustomApiException("오디오 메시지 처리 중 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
                 });
     }
 
@@ -4,11 +4,14 @@ import com.develokit.maeum_ieum.config.openAI.AssistantFeignClient;
 import com.develokit.maeum_ieum.config.openAI.GptFeignClient;
 import com.develokit.maeum_ieum.config.openAI.GptWebClient;
 import com.develokit.maeum_ieum.config.openAI.ThreadFeignClient;
+import com.develokit.maeum_ieum.config.openAI.rate.OpenAiPriority;
+import com.develokit.maeum_ieum.config.openAI.rate.OpenAiRateScheduler;
 import com.develokit.maeum_ieum.domain.assistant.Assistant;
 import com.develokit.maeum_ieum.dto.openAi.gpt.ReqDto;
 import com.develokit.maeum_ieum.dto.openAi.gpt.RespDto;
 import com.develokit.maeum_ieum.dto.openAi.message.RespDto.ListMessageRespDto;
 import com.develokit.maeum_ieum.ex.CustomApiException;
+import com.develokit.maeum_ieum.service.assistant.MandatoryRuleCache;
 import feign.FeignException;
 import lombok.*;
 
@@ -16,8 +19,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
 
 import static com.develokit.maeum_ieum.dto.assistant.ReqDto.*;
 import static com.develokit.maeum_ieum.dto.assistant.RespDto.*;
@@ -39,9 +47,12 @@ public class OpenAiService {
     private final ThreadFeignClient threadFeignClient;
     private final GptWebClient gptWebClient;
     private final GptFeignClient gptFeignClient;
+    private final OpenAiRateScheduler openAiRateScheduler;
+    private final MandatoryRuleCache mandatoryRuleCache;
     private final String MODEL = "gpt-4o-mini";
     private final String CHAT_MODEL = "gpt-3.5-turbo";
     private final int MAX_TOKENS = 400;
+    private final Duration ADMIT_TIMEOUT = Duration.ofSeconds(10); //서블릿 경로에서 속도 제한 허가를 기다리는 최대 시간
 
     private final String SYSTEM_PROMPT =
             "당신은 요양사를 위한 규칙을 간결하고 실용적으로 작성하는 도우미 역할을 합니다. " +
@@ -83,6 +94,22 @@ public class OpenAiService {
             throw new CustomApiException("OPENAI_SERVER_ERROR", 500, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+    //초기 메시지(이전 대화 요약 등)를 넣어서 스레드 생성
+    public ThreadRespDto createThread(List<CreateThreadReqDto.MessagesDto> messages){
+        try{
+            return threadFeignClient.createThreads(new CreateThreadReqDto(messages));
+        }catch (Exception e){
+            throw new CustomApiException("OPENAI_SERVER_ERROR", 500, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    //스레드 삭제 (만료된 스레드 풀 정리)
+    public void deleteThread(String threadId){
+        try{
+            threadFeignClient.deleteThread(threadId);
+        }catch (Exception e){
+            throw new CustomApiException("OPENAI_SERVER_ERROR", 500, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
     //메시지 리스트 조회
     public ListMessageRespDto listMessages(String threadId){
         try{
@@ -118,14 +145,21 @@ public class OpenAiService {
         }
     }
     //TODO gpt한테 필수 규칙 더 상세하게 생성해달라는 요청 -> WebFlux버전
+    //같은 내용은 캐시된 결과를 쓰고, 동시에 들어온 같은 요청은 호출 하나로 합침
     public Mono<AssistantMandatoryRuleRespDto> createGptMessage(AssistantMandatoryRuleReqDto assistantMandatoryRuleReqDto){
+        return mandatoryRuleCache.getOrLoad(CHAT_MODEL, assistantMandatoryRuleReqDto.getContent(), () -> requestGptMessage(assistantMandatoryRuleReqDto));
+    }
+
+    private Mono<AssistantMandatoryRuleRespDto> requestGptMessage(AssistantMandatoryRuleReqDto assistantMandatoryRuleReqDto){
         try{
-           return gptWebClient.createGptMessage(new CreateGptMessageReqDto(
+           //채팅보다 뒤에, 보고서 분석보다 앞에 허가 (프롬프트 + 최대 출력 토큰)
+           long estimatedTokens = estimateAutocompleteTokens(assistantMandatoryRuleReqDto);
+           return openAiRateScheduler.admit(CHAT_MODEL, OpenAiPriority.AUTOCOMPLETE, estimatedTokens, () -> gptWebClient.createGptMessage(new CreateGptMessageReqDto(
                     CHAT_MODEL,
                     new MessageDto(SYSTEM_PROMPT, "system"),
                     new MessageDto(assistantMandatoryRuleReqDto.getContent() + USER_PROMPT_SUFFIX, "user"),
                    MAX_TOKENS
-            )).map(AssistantMandatoryRuleRespDto::new);
+            ))).map(AssistantMandatoryRuleRespDto::new);
 
         }catch (Exception e){
             log.error("GPT 자동 생성 필수 규칙 반환 중 오류 발생: "+e.getMessage());
@@ -134,9 +168,54 @@ public class OpenAiService {
         }
     }
 
+    //필수 규칙 자동 생성 스트림 버전: 토큰이 도착하는 대로 반환하고 마지막에 전체 규칙 반환
+    //캐시에 있으면 OpenAI 호출 없이 전체 규칙 하나만 반환, 끝까지 받은 결과는 WebFlux 버전과 같은 캐시에 저장
+    public Flux<AssistantMandatoryRuleStreamRespDto> createGptMessageStream(AssistantMandatoryRuleReqDto assistantMandatoryRuleReqDto){
+        String content = assistantMandatoryRuleReqDto.getContent();
+        return Flux.defer(() -> {
+            Optional<AssistantMandatoryRuleRespDto> cached = mandatoryRuleCache.find(CHAT_MODEL, content);
+            if (cached.isPresent()) return Flux.just(new AssistantMandatoryRuleStreamRespDto(cached.get().getMandatoryRule(), true));
+
+            StringBuilder mandatoryRule = new StringBuilder();
+            return openAiRateScheduler.admitMany(CHAT_MODEL, OpenAiPriority.AUTOCOMPLETE, estimateAutocompleteTokens(assistantMandatoryRuleReqDto),
+                            () -> gptWebClient.streamGptMessage(new CreateGptMessageReqDto(
+                                    CHAT_MODEL,
+                                    new MessageDto(SYSTEM_PROMPT, "system"),
+                                    new MessageDto(content + USER_PROMPT_SUFFIX, "user"),
+                                    MAX_TOKENS
+                            )))
+                    .doOnNext(mandatoryRule::append)
+                    .map(delta -> new AssistantMandatoryRuleStreamRespDto(delta, false))
+                    .concatWith(Mono.fromSupplier(() -> { //정상 완료된 경우에만 (오류, 취소 시에는 저장하지 않음)
+                        String rule = mandatoryRule.toString();
+                        if (!rule.isBlank()) mandatoryRuleCache.store(CHAT_MODEL, content, new AssistantMandatoryRuleRespDto(rule));
+                        return new AssistantMandatoryRuleStreamRespDto(rule, true);
+                    }));
+        });
+    }
+
+    //서블릿(Feign) 호출용 허가: 요청 스레드에서 허가만 기다리고 호출은 그대로 요청 스레드에서 (스케줄러 스레드에서 Feign 을 실행하지 않도록)
+    private void admitBlocking(String model, OpenAiPriority priority, long estimatedTokens){
+        try{
+            openAiRateScheduler.admit(model, priority, estimatedTokens, () -> Mono.just(Boolean.TRUE)).block(ADMIT_TIMEOUT);
+        }catch (IllegalStateException e){ //대기 시간 초과 (block 취소로 대기열에서도 빠짐)
+            throw new CustomApiException("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요", HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.TOO_MANY_REQUESTS);
+        }
+    }
+
+    //프롬프트 + 최대 출력 토큰
+    private long estimateAutocompleteTokens(AssistantMandatoryRuleReqDto assistantMandatoryRuleReqDto){
+        return (long) Math.ceil((SYSTEM_PROMPT.length() + assistantMandatoryRuleReqDto.getContent().length() + USER_PROMPT_SUFFIX.length()) / 1.5) + MAX_TOKENS;
+    }
+
     //TODO gpt한테 필수 규칙 더 상세하게 생성해달라는 요청 -> 서블릿 버전
     public AssistantMandatoryRuleRespDto createGptMessageWithFeign(AssistantMandatoryRuleReqDto assistantMandatoryRuleReqDto){
+        return mandatoryRuleCache.getOrLoadBlocking(MODEL, assistantMandatoryRuleReqDto.getContent(), () -> requestGptMessageWithFeign(assistantMandatoryRuleReqDto));
+    }
+
+    private AssistantMandatoryRuleRespDto requestGptMessageWithFeign(AssistantMandatoryRuleReqDto assistantMandatoryRuleReqDto){
         log.debug("GPT 자동 생성 필수 규칙 요청 전송: {}", assistantMandatoryRuleReqDto.getContent());
+        admitBlocking(MODEL, OpenAiPriority.AUTOCOMPLETE, estimateAutocompleteTokens(assistantMandatoryRuleReqDto));
         try{
             CreateGptMessageRespDto gptMessage = gptFeignClient.createGptMessage(new CreateGptMessageReqDto(
                     MODEL,
@@ -0,0 +1,170 @@
+package com.develokit.maeum_ieum.service.assistant;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static com.develokit.maeum_ieum.dto.assistant.RespDto.AssistantMandatoryRuleRespDto;
+
+/**
+ * 필수 규칙 자동 완성 결과 캐시 + 중복 요청 합치기.
+ * 키는 (모델, 정규화한 요청 내용) 이고, ttl-seconds 동안 max-entries 개까지 LRU 로 보관한다.
+ * 같은 키의 요청이 동시에 들어오면(더블 클릭 등) OpenAI 호출은 하나만 보내고 나머지는 그 결과를 같이 받는다.
+ * 실패한 결과는 캐시하지 않는다.
+ * 스트림 버전은 조각 단위라 호출을 합치지 않고, find 로 먼저 확인한 뒤 끝까지 받은 전체 규칙만 store 로 넣는다.
+ */
+@Component
+public class MandatoryRuleCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    //키 -> 결과 (접근 순서)
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    //키 -> 진행 중인 호출
+    private final Map<String, CompletableFuture<AssistantMandatoryRuleRespDto>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter joined;
+
+    private record Entry(AssistantMandatoryRuleRespDto value, long expiresAt) {
+    }
+
+    @Autowired
+    public MandatoryRuleCache(MeterRegistry meterRegistry,
+                              @Value("${openai.autocomplete.cache.max-entries:500}") int maxEntries,
+                              @Value("${openai.autocomplete.cache.ttl-seconds:600}") long ttlSeconds) {
+        this(meterRegistry, maxEntries, ttlSeconds, System::nanoTime);
+    }
+
+    MandatoryRuleCache(MeterRegistry meterRegistry, int maxEntries, long ttlSeconds, LongSupplier nanoClock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.nanoClock = nanoClock;
+        this.hits = Counter.builder("openai.autocomplete.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("openai.autocomplete.cache").tag("result", "miss").register(meterRegistry);
+        this.joined = Counter.builder("openai.autocomplete.cache").tag("result", "joined").register(meterRegistry);
+        Gauge.builder("openai.autocomplete.cache.entries", this, MandatoryRuleCache::size).register(meterRegistry);
+    }
+
+    //WebFlux 버전: 캐시 -> 진행 중인 호출 -> loader 순서. 한 명이 취소해도 같이 기다리는 요청을 위해 호출은 끝까지 진행
+    public Mono<AssistantMandatoryRuleRespDto> getOrLoad(String model, String content, Supplier<Mono<AssistantMandatoryRuleRespDto>> loader) {
+        return Mono.defer(() -> {
+            String key = key(model, content);
+            AssistantMandatoryRuleRespDto cached = get(key);
+            if (cached != null) return Mono.just(cached);
+
+            CompletableFuture<AssistantMandatoryRuleRespDto> flight = new CompletableFuture<>();
+            CompletableFuture<AssistantMandatoryRuleRespDto> existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                joined.increment();
+                return Mono.fromFuture(existing, true);
+            }
+            misses.increment();
+            Mono<AssistantMandatoryRuleRespDto> call;
+            try {
+                call = loader.get();
+            } catch (RuntimeException e) {
+                finish(key, flight, null, e);
+                return Mono.error(e);
+            }
+            call.subscribe(
+                    value -> finish(key, flight, value, null),
+                    error -> finish(key, flight, null, error),
+                    () -> finish(key, flight, null, null));
+            return Mono.fromFuture(flight, true);
+        });
+    }
+
+    //서블릿(Feign) 버전: 먼저 온 요청이 직접 호출하고, 같은 키의 다른 요청은 그 결과를 기다림
+    public AssistantMandatoryRuleRespDto getOrLoadBlocking(String model, String content, Supplier<AssistantMandatoryRuleRespDto> loader) {
+        String key = key(model, content);
+        AssistantMandatoryRuleRespDto cached = get(key);
+        if (cached != null) return cached;
+
+        CompletableFuture<AssistantMandatoryRuleRespDto> flight = new CompletableFuture<>();
+        CompletableFuture<AssistantMandatoryRuleRespDto> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joined.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+        misses.increment();
+        try {
+            AssistantMandatoryRuleRespDto value = loader.get();
+            finish(key, flight, value, null);
+            return value;
+        } catch (RuntimeException e) {
+            finish(key, flight, null, e);
+            throw e;
+        }
+    }
+
+    //스트림 버전: 캐시만 확인 (진행 중인 호출은 합치지 않음)
+    public Optional<AssistantMandatoryRuleRespDto> find(String model, String content) {
+        AssistantMandatoryRuleRespDto cached = get(key(model, content));
+        if (cached == null) misses.increment();
+        return Optional.ofNullable(cached);
+    }
+
+    //스트림 버전: 정상 완료된 전체 규칙 저장
+    public void store(String model, String content, AssistantMandatoryRuleRespDto value) {
+        put(key(model, content), value);
+    }
+
+    private void finish(String key, CompletableFuture<AssistantMandatoryRuleRespDto> flight, AssistantMandatoryRuleRespDto value, Throwable error) {
+        if (flight.isDone()) return; //값 다음 완료 신호
+        if (value != null) put(key, value);
+        inFlight.remove(key, flight);
+        if (error != null) flight.completeExceptionally(error);
+        else flight.complete(value);
+    }
+
+    private synchronized AssistantMandatoryRuleRespDto get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() - nanoClock.getAsLong() > 0) {
+            hits.increment();
+            return entry.value();
+        }
+        if (entry != null) entries.remove(key);
+        return null;
+    }
+
+    private synchronized void put(String key, AssistantMandatoryRuleRespDto value) {
+        entries.put(key, new Entry(value, nanoClock.getAsLong() + ttlNanos));
+        while (entries.size() > maxEntries) {
+            entries.remove(entries.keySet().iterator().next()); //가장 오래 사용되지 않은 항목
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    //공백 정리 + 유니코드 정규화 + 소문자 (띄어쓰기만 다른 요청은 같은 키)
+    static String key(String model, String content) {
+        String normalized = Normalizer.normalize(content == null ? "" : content.strip().replaceAll("\\s+", " "), Normalizer.Form.NFC);
+        return model + ":" + normalized.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,14 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 저장 대기 중인 대화 한 턴 (유저 질문 + AI 답변).
+ * MessageJournal 큐와 스풀 파일에 그대로 기록된다.
+ */
+public record ChatTurn(Long elderlyId,
+                       String userContent,
+                       LocalDateTime askedAt,
+                       String aiContent,
+                       LocalDateTime answeredAt) {
+}
@@ -0,0 +1,202 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.domain.message.Message;
+import com.develokit.maeum_ieum.domain.message.MessageRepository;
+import com.develokit.maeum_ieum.domain.message.MessageRepository.MessageVolume;
+import com.develokit.maeum_ieum.domain.message.MessageType;
+import com.develokit.maeum_ieum.domain.user.elderly.Elderly;
+import com.develokit.maeum_ieum.dto.message.RespDto.CreateStreamMessageRespDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.develokit.maeum_ieum.dto.openAi.thread.ReqDto.CreateThreadReqDto.MessagesDto;
+
+/**
+ * OpenAI 스레드 컨텍스트 크기 관리.
+ * 스레드 생성 이후 저장된 Message 글자 수로 토큰 수를 추정하고, 예산(chat.context.token-budget)을 넘으면
+ * 최근 대화를 짧게 정리한 요약을 넣은 새 스레드로 교체하도록 알려준다.
+ * 스레드별 추정 토큰 수는 채팅 중에도 갱신해서 런 지연 시간 지표(openai.run.latency)에 컨텍스트 구간 태그로 붙인다.
+ * 추적 맵은 클라이언트가 보낸 threadId 를 키로 쓰고 30일 만료 교체 때는 정리되지 않으므로 max-tracked-threads 개까지만 LRU 로 보관한다
+ * (밀려난 스레드는 다음 채팅 진입 때 다시 추정).
+ */
+@Component
+public class ConversationContextManager {
+
+    private static final int TOKENS_PER_MESSAGE = 4; //메시지마다 붙는 역할/구분자 토큰
+    private static final int EXPECTED_ANSWER_TOKENS = 300; //답변 길이 추정치
+
+    private final MessageRepository messageRepository;
+    private final MeterRegistry meterRegistry;
+    private final long tokenBudget;
+    private final double charsPerToken;
+    private final int seedTurns;
+    private final int seedCharsPerMessage;
+
+    private final Map<String, AtomicLong> threadTokens;
+    private final DistributionSummary contextTokens;
+    private final Counter rotations;
+
+    public ConversationContextManager(MessageRepository messageRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${chat.context.token-budget:16000}") long tokenBudget,
+                                      @Value("${chat.context.chars-per-token:1.5}") double charsPerToken,
+                                      @Value("${chat.context.seed-turns:6}") int seedTurns,
+                                      @Value("${chat.context.seed-chars-per-message:200}") int seedCharsPerMessage,
+                                      @Value("${chat.context.max-tracked-threads:10000}") int maxTrackedThreads) {
+        this.messageRepository = messageRepository;
+        this.meterRegistry = meterRegistry;
+        this.tokenBudget = tokenBudget;
+        this.charsPerToken = charsPerToken;
+        this.seedTurns = seedTurns;
+        this.seedCharsPerMessage = seedCharsPerMessage;
+        //접근 순서 LRU, 가득 차면 가장 오래 쓰지 않은 스레드부터 제거
+        this.threadTokens = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AtomicLong> eldest) {
+                return size() > maxTrackedThreads;
+            }
+        });
+
+        this.contextTokens = DistributionSummary.builder("chat.context.tokens")
+                .description("채팅 진입 시 스레드별 추정 컨텍스트 토큰 수")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        this.rotations = Counter.builder("chat.context.rotations")
+                .description("컨텍스트 예산 초과로 교체한 스레드 수")
+                .register(meterRegistry);
+    }
+
+    //스레드 생성 이후 메시지로 추정한 토큰 수 (채팅 진입 시 호출, 지표 기록)
+    public long estimateTokens(String threadId, Elderly elderly, LocalDateTime threadCreatedDate) {
+        MessageVolume volume = messageRepository.findVolumeSince(elderly, threadCreatedDate);
+        long tokens = (long) Math.ceil(volume.getChars() / charsPerToken) + volume.getMessages() * TOKENS_PER_MESSAGE;
+        threadTokens.computeIfAbsent(threadId, key -> new AtomicLong()).set(tokens);
+        contextTokens.record(tokens);
+        return tokens;
+    }
+
+    public boolean exceedsBudget(long tokens) {
+        return tokens > tokenBudget;
+    }
+
+    //새 스레드에 넣을 최근 대화 요약 (최근 seedTurns 턴, 메시지마다 seedCharsPerMessage 글자까지)
+    public List<MessagesDto> seedMessages(Elderly elderly) {
+        List<Message> recent = new ArrayList<>(messageRepository.findByElderly(elderly,
+                PageRequest.of(0, seedTurns * 2, Sort.by(Sort.Direction.DESC, "createdDate"))).getContent());
+        if (recent.isEmpty()) return List.of();
+        Collections.reverse(recent);
+
+        StringBuilder summary = new StringBuilder("[이전 대화 요약] 아래는 최근에 나눈 대화입니다. 이어서 자연스럽게 대화해주세요.\n");
+        for (Message message : recent) {
+            summary.append(message.getMessageType() == MessageType.USER ? "어르신: " : "AI: ")
+                    .append(abbreviate(message.getContent()))
+                    .append('\n');
+        }
+        return List.of(new MessagesDto("user", summary.toString()));
+    }
+
+    //스레드 교체 후 이전 스레드 추적 정리
+    public void rotated(String oldThreadId) {
+        if (oldThreadId != null) threadTokens.remove(oldThreadId);
+        rotations.increment();
+    }
+
+    //턴이 끝날 때마다 추정 토큰 수 누적
+    public void recordTurn(String threadId, String question, String answer) {
+        long tokens = estimate(question) + estimate(answer) + 2L * TOKENS_PER_MESSAGE;
+        threadTokens.computeIfAbsent(threadId, key -> new AtomicLong()).addAndGet(tokens);
+    }
+
+    //스트림 런: 첫 프레임까지, 마지막 프레임까지 시간을 현재 컨텍스트 구간 태그로 기록
+    public Flux<CreateStreamMessageRespDto> trackStream(String threadId, String question, Flux<CreateStreamMessageRespDto> frames) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            String bucket = bucket(threadId);
+            StringBuilder answer = new StringBuilder();
+            boolean[] first = {true};
+            return frames.doOnNext(frame -> {
+                if (first[0]) {
+                    first[0] = false;
+                    timer("openai.run.first-token", bucket).record(Duration.ofNanos(System.nanoTime() - start));
+                }
+                if (frame.isLast()) {
+                    timer("openai.run.latency", bucket).record(Duration.ofNanos(System.nanoTime() - start));
+                    recordTurn(threadId, question, answer.toString());
+                } else if (frame.getAnswer() != null) {
+                    answer.append(frame.getAnswer());
+                }
+            });
+        });
+    }
+
+    //비스트림 런: 전체 답변까지 시간
+    public <T> Mono<T> trackRun(String threadId, String question, Mono<T> run, Function<T, String> answerOf) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            String bucket = bucket(threadId);
+            return run.doOnNext(result -> {
+                timer("openai.run.latency", bucket).record(Duration.ofNanos(System.nanoTime() - start));
+                recordTurn(threadId, question, answerOf.apply(result));
+            });
+        });
+    }
+
+    //런 하나가 소비할 것으로 보는 토큰 수: 현재 스레드 컨텍스트 + 질문 + 예상 답변 (요청 속도 제한용)
+    public long estimateRunTokens(String threadId, String question) {
+        return Math.max(0, trackedTokens(threadId)) + estimate(question) + EXPECTED_ANSWER_TOKENS + 2L * TOKENS_PER_MESSAGE;
+    }
+
+    int trackedThreads() {
+        return threadTokens.size();
+    }
+
+    long trackedTokens(String threadId) {
+        AtomicLong tokens = threadTokens.get(threadId);
+        return tokens == null ? -1 : tokens.get();
+    }
+
+    //지표 태그용 컨텍스트 구간 (카디널리티를 낮게 유지)
+    String bucket(String threadId) {
+        long tokens = trackedTokens(threadId);
+        if (tokens < 0) return "unknown";
+        if (tokens < 2_000) return "lt2k";
+        if (tokens < 8_000) return "2k-8k";
+        if (tokens < 16_000) return "8k-16k";
+        return "gte16k";
+    }
+
+    private Timer timer(String name, String bucket) {
+        return Timer.builder(name)
+                .tag("context", bucket)
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
+
+    private long estimate(String text) {
+        return text == null ? 0 : (long) Math.ceil(text.length() / charsPerToken);
+    }
+
+    private String abbreviate(String content) {
+        if (content == null) return "";
+        String oneLine = content.replaceAll("\\s+", " ").strip();
+        return oneLine.length() <= seedCharsPerMessage ? oneLine : oneLine.substring(0, seedCharsPerMessage) + "…";
+    }
+}
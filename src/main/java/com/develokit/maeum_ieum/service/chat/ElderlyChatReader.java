@@ -0,0 +1,14 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.domain.user.elderly.ElderlyChatView;
+import reactor.core.publisher.Mono;
+
+/**
+ * 채팅 요청 시 노인 사용자 + 어시스턴트 조회.
+ * 기본은 JPA(JpaElderlyChatReader), chat.r2dbc.enabled=true 이면 R2DBC(R2dbcElderlyChatReader) 구현이 등록된다.
+ */
+public interface ElderlyChatReader {
+
+    //사용자가 없으면 빈 Mono
+    Mono<ElderlyChatView> findChatView(Long elderlyId);
+}
@@ -0,0 +1,25 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.domain.user.elderly.ElderlyChatView;
+import com.develokit.maeum_ieum.domain.user.elderly.ElderlyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+//JPA 조회를 boundedElastic 스레드에서 수행 (요청마다 스레드 + 커넥션 점유)
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "chat.r2dbc", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class JpaElderlyChatReader implements ElderlyChatReader {
+
+    private final ElderlyRepository elderlyRepository;
+
+    @Override
+    public Mono<ElderlyChatView> findChatView(Long elderlyId) {
+        return Mono.fromCallable(() -> elderlyRepository.findByIdWithAssistant(elderlyId).map(ElderlyChatView::from))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty);
+    }
+}
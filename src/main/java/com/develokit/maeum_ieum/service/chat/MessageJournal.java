@@ -0,0 +1,240 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.domain.message.MessageType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 채팅 메시지 write-behind 저널.
+ * 답변이 완성되면 USER/AI 메시지 쌍과 마지막 대화 시간 갱신을 바운디드 큐에 넣기만 하고 바로 반환한다.
+ * 큐는 전용 스레드가 flush-interval-ms 마다, 또는 batch-size 만큼 쌓이면 비운다.
+ * 메시지는 flush 한 번에 values (...), (...) 를 이어 붙인 insert 문 하나로 저장하므로 드라이버 설정(rewriteBatchedStatements 등)과 무관하게 왕복 1회다.
+ * DB 저장이 실패하거나, 큐가 가득 찼거나, 종료 시점에 남은 턴은 스풀 파일(JSON lines)에 기록했다가 다음 flush에서 다시 저장한다.
+ */
+@Component
+public class MessageJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageJournal.class);
+    private static final String SPOOL_FILE = "pending-messages.jsonl";
+
+    private static final String INSERT_MESSAGE_PREFIX =
+            "insert into message (elderly_id, message_type, content, created_date, last_modified_date) values ";
+    private static final String MESSAGE_ROW = "(?, ?, ?, ?, ?)";
+    private static final String UPDATE_LAST_CHAT_SQL =
+            "update elderly set last_chat_time = ? where elderly_id = ? and (last_chat_time is null or last_chat_time < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper om = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final BlockingQueue<ChatTurn> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Path spoolPath;
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private ScheduledExecutorService flusher;
+
+    public MessageJournal(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${chat.journal.capacity:10000}") int capacity,
+                          @Value("${chat.journal.batch-size:200}") int batchSize,
+                          @Value("${chat.journal.flush-interval-ms:200}") long flushIntervalMs,
+                          @Value("${chat.journal.spool-dir:./chat-journal}") String spoolDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.spoolPath = Paths.get(spoolDir, SPOOL_FILE);
+    }
+
+    @PostConstruct
+    void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //이전 실행에서 남은 스풀부터 저장
+        flusher.scheduleWithFixedDelay(this::flushSafely, 0, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 대화 한 턴을 저장 대기열에 넣는다. 블로킹하지 않는다.
+     * @return AI 답변 저장 시각 (클라이언트에 내려주는 timeStamp 와 동일)
+     */
+    public LocalDateTime append(Long elderlyId, String userContent, LocalDateTime askedAt, String aiContent) {
+        LocalDateTime answeredAt = LocalDateTime.now();
+        ChatTurn turn = new ChatTurn(elderlyId, userContent, askedAt, aiContent, answeredAt);
+
+        if (!queue.offer(turn)) {
+            //큐가 가득 찬 경우: 유실되지 않도록 스풀에 기록 후 flush 요청
+            log.warn("메시지 저널 큐가 가득 차 스풀에 기록합니다: elderlyId = {}", elderlyId);
+            spool(List.of(turn));
+        }
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushSafely);
+        }
+        return answeredAt;
+    }
+
+    int pendingCount() {
+        return queue.size();
+    }
+
+    void flushSafely() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (Exception e) { //스케줄이 끊기지 않도록
+            log.error("메시지 저널 flush 중 오류 발생: ", e);
+        }
+    }
+
+    void flush() {
+        List<ChatTurn> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!persistOrSpool(batch)) {
+                //DB 장애: 남은 큐도 스풀로 넘기고 다음 주기에 재시도
+                List<ChatTurn> rest = new ArrayList<>();
+                queue.drainTo(rest);
+                spool(rest);
+                return;
+            }
+            batch.clear();
+        }
+        replaySpool();
+    }
+
+    private boolean persistOrSpool(List<ChatTurn> batch) {
+        try {
+            persist(batch);
+            return true;
+        } catch (Exception e) {
+            log.error("메시지 배치 저장 실패, 스풀에 기록합니다: size = {}", batch.size(), e);
+            spool(batch);
+            return false;
+        }
+    }
+
+    //한 트랜잭션에서 메시지 multi-row insert(문장 1개) + 노인별 마지막 대화 시간 갱신
+    void persist(List<ChatTurn> batch) {
+        if (batch.isEmpty()) return;
+
+        List<Object> messageArgs = new ArrayList<>(batch.size() * 10);
+        Map<Long, LocalDateTime> lastChatTimes = new HashMap<>();
+        for (ChatTurn turn : batch) {
+            Timestamp askedAt = Timestamp.valueOf(turn.askedAt());
+            Timestamp answeredAt = Timestamp.valueOf(turn.answeredAt());
+            Collections.addAll(messageArgs, turn.elderlyId(), MessageType.USER.name(), turn.userContent(), askedAt, askedAt);
+            Collections.addAll(messageArgs, turn.elderlyId(), MessageType.AI.name(), turn.aiContent(), answeredAt, answeredAt);
+            lastChatTimes.merge(turn.elderlyId(), turn.askedAt(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        String insertMessagesSql = insertMessagesSql(batch.size() * 2);
+        List<Object[]> elderlyRows = new ArrayList<>(lastChatTimes.size());
+        lastChatTimes.forEach((elderlyId, lastChatTime) -> {
+            Timestamp timestamp = Timestamp.valueOf(lastChatTime);
+            elderlyRows.add(new Object[]{timestamp, elderlyId, timestamp});
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(insertMessagesSql, messageArgs.toArray());
+            jdbcTemplate.batchUpdate(UPDATE_LAST_CHAT_SQL, elderlyRows);
+        });
+        log.debug("메시지 배치 저장 완료: turns = {}", batch.size());
+    }
+
+    //행 수만큼 값 묶음을 이어 붙인 insert 문 (batch-size 턴이면 2 x batch-size 행)
+    static String insertMessagesSql(int rows) {
+        return INSERT_MESSAGE_PREFIX + String.join(", ", Collections.nCopies(rows, MESSAGE_ROW));
+    }
+
+    private synchronized void spool(List<ChatTurn> turns) {
+        if (turns.isEmpty()) return;
+        try {
+            Files.createDirectories(spoolPath.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(spoolPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (ChatTurn turn : turns) {
+                    writer.write(om.writeValueAsString(turn));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            log.error("메시지 스풀 기록 실패, 유실된 턴 수 = {}", turns.size(), e);
+        }
+    }
+
+    //스풀 파일을 배치 단위로 저장하고, 저장하지 못한 나머지만 다시 남긴다
+    private synchronized void replaySpool() {
+        if (!Files.exists(spoolPath)) return;
+        List<ChatTurn> turns = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(spoolPath, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) turns.add(om.readValue(line, ChatTurn.class));
+            }
+            Files.delete(spoolPath);
+        } catch (IOException e) {
+            log.error("메시지 스풀 읽기 실패: {}", spoolPath, e);
+            return;
+        }
+
+        for (int from = 0; from < turns.size(); from += batchSize) {
+            List<ChatTurn> batch = turns.subList(from, Math.min(from + batchSize, turns.size()));
+            try {
+                persist(batch);
+            } catch (Exception e) {
+                log.error("스풀 재저장 실패, 다음 주기에 재시도합니다: 남은 턴 수 = {}", turns.size() - from, e);
+                spool(turns.subList(from, turns.size()));
+                return;
+            }
+        }
+        log.info("스풀에 남아있던 메시지 저장 완료: turns = {}", turns.size());
+    }
+
+    //종료 시 큐에 남은 턴을 저장하고, 실패하면 스풀에 남긴다
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<ChatTurn> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            List<ChatTurn> batch = rest.subList(from, Math.min(from + batchSize, rest.size()));
+            if (!persistOrSpool(batch)) {
+                spool(rest.subList(from + batch.size(), rest.size()));
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.domain.thread.PooledThread;
+import com.develokit.maeum_ieum.domain.thread.PooledThreadRepository;
+import com.develokit.maeum_ieum.service.OpenAiService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 미리 만들어 둔 빈 OpenAI 스레드 풀.
+ * 채팅 진입 시 스레드가 없거나 만료됐으면 사용자가 스레드 생성을 기다리지 않도록 여기서 하나 꺼내 바로 연결한다.
+ * - 풀은 DB(pooled_thread)에 있으므로 재시작해도 유지되고, 꺼낼 때는 행 삭제로 점유해서 여러 인스턴스가 같은 스레드를 가져가지 않는다.
+ * - 백그라운드에서 refill-interval-ms 마다 target-size 까지 최대 refill-per-tick 개씩 채우고, 꺼낼 때마다 바로 한 번 더 채운다.
+ * - max-age 가 지난 스레드는 꺼내지 않고 정리하면서 OpenAI 쪽도 삭제한다.
+ * - target-size 는 인스턴스별이 아니라 공용 테이블 기준 전체 개수다. 인스턴스마다 채우기가 돌지만 같은 테이블을 세므로
+ *   동시에 채우는 순간에만 최대 (인스턴스 수 x refill-per-tick) 만큼 넘칠 수 있고, 넘친 만큼은 다음 꺼내기에서 소진된다.
+ * - openai.thread-pool.enabled=true 일 때만 동작한다 (기본 꺼짐, 테스트 컨텍스트에서 OpenAI 스레드를 만들지 않도록).
+ *   꺼져 있으면 take() 는 항상 empty 라서 기존처럼 스레드 생성 아웃박스로 처리된다.
+ */
+@Component
+public class OpenAiThreadPool {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAiThreadPool.class);
+
+    private final PooledThreadRepository pooledThreadRepository;
+    private final OpenAiService openAiService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int targetSize;
+    private final int refillPerTick;
+    private final long refillIntervalMs;
+    private final Duration maxAge;
+    private final AtomicLong available = new AtomicLong(); //마지막으로 확인한 풀 크기 (지표용)
+    private final AtomicBoolean refillQueued = new AtomicBoolean();
+    private final Counter hit;
+    private final Counter miss;
+
+    private ScheduledExecutorService refiller;
+
+    public OpenAiThreadPool(PooledThreadRepository pooledThreadRepository,
+                            OpenAiService openAiService,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${openai.thread-pool.enabled:false}") boolean enabled,
+                            @Value("${openai.thread-pool.target-size:20}") int targetSize,
+                            @Value("${openai.thread-pool.refill-per-tick:5}") int refillPerTick,
+                            @Value("${openai.thread-pool.refill-interval-ms:10000}") long refillIntervalMs,
+                            @Value("${openai.thread-pool.max-age-hours:72}") long maxAgeHours) {
+        this.pooledThreadRepository = pooledThreadRepository;
+        this.openAiService = openAiService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.targetSize = targetSize;
+        this.refillPerTick = refillPerTick;
+        this.refillIntervalMs = refillIntervalMs;
+        this.maxAge = Duration.ofHours(maxAgeHours);
+        this.hit = Counter.builder("openai.thread-pool.take").tag("result", "hit").register(meterRegistry);
+        this.miss = Counter.builder("openai.thread-pool.take").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("openai.thread-pool.size", available, AtomicLong::get)
+                .description("미리 만들어 둔 OpenAI 스레드 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("OpenAI 스레드 풀 비활성화 (openai.thread-pool.enabled=false)");
+            return;
+        }
+        refiller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "openai-thread-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refiller.scheduleWithFixedDelay(this::refillSafely, 0, refillIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refiller == null) return;
+        refiller.shutdown();
+        try {
+            refiller.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 현재 트랜잭션에서 스레드 하나를 꺼낸다 (없으면 empty).
+     * 행을 삭제해서 점유하므로 호출한 트랜잭션이 롤백되면 풀로 돌아간다.
+     */
+    public Optional<PooledThread> take() {
+        if (!enabled) return Optional.empty();
+        LocalDateTime freshAfter = LocalDateTime.now().minus(maxAge);
+        for (int i = 0; i < 3; i++) { //다른 요청이 먼저 가져간 경우 다음 것으로
+            Optional<PooledThread> candidate = pooledThreadRepository.findFirstByCreatedDateAfterOrderByIdAsc(freshAfter);
+            if (candidate.isEmpty()) break;
+            if (pooledThreadRepository.claim(candidate.get().getId()) == 1) {
+                hit.increment();
+                available.updateAndGet(n -> Math.max(0, n - 1));
+                requestRefill();
+                return candidate;
+            }
+        }
+        miss.increment();
+        requestRefill();
+        return Optional.empty();
+    }
+
+    //다음 주기를 기다리지 않고 바로 채우기 (이미 예약돼 있으면 생략)
+    private void requestRefill() {
+        if (refiller != null && refillQueued.compareAndSet(false, true)) {
+            refiller.execute(() -> {
+                refillQueued.set(false);
+                refillSafely();
+            });
+        }
+    }
+
+    //만료 정리 후 target-size 까지 최대 refill-per-tick 개 생성 (OpenAI 호출은 트랜잭션 밖)
+    void refill() {
+        purgeExpired();
+
+        LocalDateTime freshAfter = LocalDateTime.now().minus(maxAge);
+        long count = transactionTemplate.execute(status -> pooledThreadRepository.countByCreatedDateAfter(freshAfter));
+        available.set(count);
+
+        long toCreate = Math.min(refillPerTick, targetSize - count);
+        for (int i = 0; i < toCreate; i++) {
+            String threadId = openAiService.createThread().getId();
+            transactionTemplate.executeWithoutResult(status -> pooledThreadRepository.save(new PooledThread(threadId)));
+            available.incrementAndGet();
+        }
+    }
+
+    //만료된 스레드는 먼저 풀에서 빼고(점유) OpenAI 쪽 삭제는 실패해도 넘어감
+    private void purgeExpired() {
+        LocalDateTime expiredAt = LocalDateTime.now().minus(maxAge);
+        List<PooledThread> expired = transactionTemplate.execute(status ->
+                pooledThreadRepository.findByCreatedDateLessThanEqualOrderByIdAsc(expiredAt, PageRequest.of(0, refillPerTick)));
+        if (expired == null) return;
+        for (PooledThread pooled : expired) {
+            Integer claimed = transactionTemplate.execute(status -> pooledThreadRepository.claim(pooled.getId()));
+            if (claimed == null || claimed == 0) continue;
+            try {
+                openAiService.deleteThread(pooled.getThreadId());
+            } catch (Exception e) {
+                log.warn("만료된 풀 스레드 삭제 실패: threadId = {}", pooled.getThreadId());
+            }
+        }
+    }
+
+    private void refillSafely() {
+        try {
+            refill();
+        } catch (Exception e) {
+            log.warn("OpenAI 스레드 풀 채우기 실패, 다음 주기에 재시도: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.domain.user.elderly.ElderlyChatView;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 채팅 경로 전용 R2DBC 조회 (JPA ElderlyRepository 와 같은 테이블을 읽기만 함).
+ * chat.r2dbc.enabled=true 일 때만 등록된다. 기본값(false)이면 JpaElderlyChatReader 가 그대로 쓰인다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "chat.r2dbc", name = "enabled", havingValue = "true")
+public class R2dbcElderlyChatReader implements ElderlyChatReader {
+
+    static final String FIND_CHAT_VIEW_SQL =
+            "select e.elderly_id, a.id as assistant_id, a.open_ai_assistant_id, a.thread_id " +
+            "from elderly e left join assistant a on a.id = e.assistant_id " +
+            "where e.elderly_id = :elderlyId";
+
+    private final DatabaseClient databaseClient;
+
+    public R2dbcElderlyChatReader(@Qualifier("chatDatabaseClient") DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<ElderlyChatView> findChatView(Long elderlyId) {
+        return databaseClient.sql(FIND_CHAT_VIEW_SQL)
+                .bind("elderlyId", elderlyId)
+                .map((row, metadata) -> new ElderlyChatView(
+                        row.get("elderly_id", Long.class),
+                        row.get("assistant_id", Long.class),
+                        row.get("open_ai_assistant_id", String.class),
+                        row.get("thread_id", String.class)
+                ))
+                .one();
+    }
+}
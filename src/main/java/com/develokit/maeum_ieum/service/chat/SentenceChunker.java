@@ -0,0 +1,66 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 델타 스트림을 문장 단위로 자른다 (음성 합성 단위).
+ * 문장 부호(. ? ! …) 뒤에 공백이 오거나 줄바꿈이 나오면 문장 끝으로 보고,
+ * min-chars 보다 짧은 문장은 다음 문장과 합치며, max-chars 를 넘으면 문장 부호가 없어도 자른다.
+ */
+@Component
+public class SentenceChunker {
+
+    private final int minChars;
+    private final int maxChars;
+
+    public SentenceChunker(@Value("${chat.voice.min-sentence-chars:6}") int minChars,
+                           @Value("${chat.voice.max-sentence-chars:200}") int maxChars) {
+        this.minChars = minChars;
+        this.maxChars = maxChars;
+    }
+
+    public Flux<String> chunk(Flux<String> deltas) {
+        return Flux.defer(() -> {
+            StringBuilder buffer = new StringBuilder(); //구독마다 별도 버퍼
+            return deltas.concatMapIterable(delta -> drain(buffer.append(delta), false))
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(drain(buffer, true))));
+        });
+    }
+
+    //버퍼에서 완성된 문장을 꺼내고 나머지는 남겨둔다 (last 면 전부 꺼냄)
+    List<String> drain(StringBuilder buffer, boolean last) {
+        List<String> sentences = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < buffer.length(); i++) {
+            int length = i + 1 - start;
+            if ((isSentenceEnd(buffer, i, last) && length >= minChars) || length >= maxChars) {
+                addIfNotBlank(sentences, buffer.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        buffer.delete(0, start);
+        if (last) {
+            addIfNotBlank(sentences, buffer.toString());
+            buffer.setLength(0);
+        }
+        return sentences;
+    }
+
+    private static boolean isSentenceEnd(StringBuilder buffer, int i, boolean last) {
+        char c = buffer.charAt(i);
+        if (c == '\n') return true;
+        if (c != '.' && c != '?' && c != '!' && c != '…') return false;
+        //"3.5" 같은 경우를 피하려고 다음 글자가 공백일 때만 (아직 안 온 경우 다음 델타를 기다림)
+        return i + 1 < buffer.length() ? Character.isWhitespace(buffer.charAt(i + 1)) : last;
+    }
+
+    private static void addIfNotBlank(List<String> sentences, String sentence) {
+        String stripped = sentence.strip();
+        if (!stripped.isEmpty()) sentences.add(stripped);
+    }
+}
@@ -0,0 +1,195 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 합성된 음성(mp3) 디스크 캐시.
+ * 키는 (tts 모델, 목소리, 정규화한 문장의 sha256) 이고, 값은 로컬 디스크의 메모리 매핑 세그먼트 파일에 이어 붙여 저장한다.
+ * 인덱스(키 -> 세그먼트, 위치, 길이)는 힙에 두고, 용량이 차면 가장 오래 사용되지 않은 세그먼트를 통째로 버린다 (세그먼트 단위 LRU).
+ * 인덱스는 재시작 시 사라지므로 시작할 때 이전 세그먼트 파일은 지운다.
+ */
+@Component
+public class SpeechCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SpeechCache.class);
+    private static final String SEGMENT_PREFIX = "speech-";
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentBytes;
+    private final int maxSegments;
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    //세그먼트 id -> 세그먼트 (접근 순서: 조회/쓰기 때마다 맨 뒤로 이동)
+    private final LinkedHashMap<Long, Segment> segments = new LinkedHashMap<>(16, 0.75f, true);
+    private long nextSegmentId;
+    private Segment active;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private record Entry(long segmentId, int offset, int length) {
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+
+        private Segment(long id, Path path, int size) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        private void close() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path); //매핑은 GC 될 때까지 유효하므로 읽는 중인 요청에는 영향 없음
+            } catch (IOException e) {
+                log.warn("음성 캐시 세그먼트 삭제 실패: {}", path, e);
+            }
+        }
+    }
+
+    public SpeechCache(MeterRegistry meterRegistry,
+                       @Value("${chat.speech-cache.enabled:true}") boolean enabled,
+                       @Value("${chat.speech-cache.dir:./speech-cache}") String dir,
+                       @Value("${chat.speech-cache.segment-bytes:16777216}") int segmentBytes,
+                       @Value("${chat.speech-cache.max-segments:8}") int maxSegments) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+
+        this.hits = Counter.builder("chat.speech.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("chat.speech.cache").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("chat.speech.cache.evictions").description("버린 세그먼트 수").register(meterRegistry);
+        Gauge.builder("chat.speech.cache.hit.ratio", this, SpeechCache::hitRatio).register(meterRegistry);
+        Gauge.builder("chat.speech.cache.entries", index, Map::size).register(meterRegistry);
+
+        if (enabled) clearDir();
+    }
+
+    public static String key(String model, String voice, String text) {
+        return model + ":" + voice + ":" + sha256(normalize(text));
+    }
+
+    //캐시에 있으면 mp3 바이트, 없으면 null
+    public byte[] get(String key) {
+        if (!enabled) return null;
+        Entry entry = index.get(key);
+        Segment segment = entry == null ? null : touch(entry.segmentId());
+        if (segment == null) {
+            misses.increment();
+            return null;
+        }
+        byte[] audio = new byte[entry.length()];
+        segment.buffer.get(entry.offset(), audio);
+        hits.increment();
+        return audio;
+    }
+
+    public synchronized void put(String key, byte[] audio) {
+        if (!enabled || audio.length == 0 || audio.length > segmentBytes || index.containsKey(key)) return;
+        try {
+            if (active == null || active.position + audio.length > segmentBytes) {
+                roll();
+            }
+            int offset = active.position;
+            active.buffer.put(offset, audio);
+            active.position += audio.length;
+            index.put(key, new Entry(active.id, offset, audio.length));
+            segments.get(active.id); //접근 순서 갱신
+        } catch (IOException e) {
+            log.warn("음성 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private synchronized Segment touch(long segmentId) {
+        return segments.get(segmentId);
+    }
+
+    //새 세그먼트를 열고, 개수를 넘으면 가장 오래 사용되지 않은 세그먼트와 그 인덱스를 버린다
+    private void roll() throws IOException {
+        Files.createDirectories(dir);
+        long id = nextSegmentId++;
+        active = new Segment(id, dir.resolve(SEGMENT_PREFIX + id + ".seg"), segmentBytes);
+        segments.put(id, active);
+
+        Iterator<Map.Entry<Long, Segment>> it = segments.entrySet().iterator();
+        while (segments.size() > maxSegments && it.hasNext()) {
+            Segment eldest = it.next().getValue();
+            if (eldest == active) continue;
+            it.remove();
+            index.values().removeIf(entry -> entry.segmentId() == eldest.id);
+            eldest.close();
+            evictions.increment();
+        }
+    }
+
+    private void clearDir() {
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("이전 음성 캐시 정리 실패: {}", dir, e);
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        segments.values().forEach(Segment::close);
+        segments.clear();
+        index.clear();
+        active = null;
+    }
+
+    //공백 정리 + 유니코드 정규화 (같은 문장이면 같은 키)
+    static String normalize(String text) {
+        return Normalizer.normalize(text.strip().replaceAll("\\s+", " "), Normalizer.Form.NFC);
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * OpenAI 스레드별 런 메일박스.
+ * 같은 스레드에는 활성 런이 하나만 있을 수 있으므로 같은 threadId 의 턴은 도착 순서대로 하나씩 실행하고,
+ * 다른 스레드의 턴은 서로 기다리지 않는다. 대기는 스레드를 막지 않고 이전 턴의 완료 신호를 구독하는 방식이다.
+ * 한 스레드에 max-depth(실행 중 포함)를 넘는 턴이 들어오면 바로 429를 반환한다.
+ */
+@Component
+public class ThreadRunMailbox {
+
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final int maxDepth;
+
+    public ThreadRunMailbox(@Value("${chat.mailbox.max-depth:3}") int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    //스레드별 대기열: 실행 중 + 대기 중인 턴 수와 마지막 턴의 완료 신호
+    private static final class Lane {
+        private int depth;
+        private Mono<Void> tail = Mono.empty();
+    }
+
+    private record Slot(Mono<Void> previous, Sinks.Empty<Void> done) {
+    }
+
+    public <T> Flux<T> submit(String threadId, Supplier<? extends Flux<T>> turn) {
+        return Flux.defer(() -> {
+            Slot slot = reserve(threadId);
+            if (slot == null) {
+                return Flux.error(new CustomApiException("이전 대화를 처리하고 있습니다. 잠시 후 다시 시도해주세요", HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.TOO_MANY_REQUESTS));
+            }
+            return slot.previous()
+                    .thenMany(Flux.defer(turn))
+                    .doFinally(signal -> release(threadId, slot));
+        });
+    }
+
+    public <T> Mono<T> submitMono(String threadId, Supplier<? extends Mono<T>> turn) {
+        return submit(threadId, () -> turn.get().flux()).next();
+    }
+
+    //현재 스레드에 쌓인 턴 수 (실행 중 포함)
+    public int depth(String threadId) {
+        Lane lane = lanes.get(threadId);
+        return lane == null ? 0 : lane.depth;
+    }
+
+    private Slot reserve(String threadId) {
+        Slot[] reserved = new Slot[1];
+        lanes.compute(threadId, (key, lane) -> {
+            if (lane == null) lane = new Lane();
+            if (lane.depth >= maxDepth) return lane;
+
+            Sinks.Empty<Void> done = Sinks.empty();
+            reserved[0] = new Slot(lane.tail, done);
+            lane.tail = done.asMono();
+            lane.depth++;
+            return lane;
+        });
+        return reserved[0];
+    }
+
+    private void release(String threadId, Slot slot) {
+        //취소로 먼저 끝난 경우에도 다음 턴은 이전 턴이 끝난 뒤에 시작되도록 이전 완료 신호를 기다렸다가 알림
+        slot.previous().doFinally(signal -> slot.done().tryEmitEmpty()).subscribe();
+        lanes.computeIfPresent(threadId, (key, lane) -> --lane.depth == 0 ? null : lane);
+    }
+}
@@ -0,0 +1,310 @@
+package com.develokit.maeum_ieum.service.outbox;
+
+import com.develokit.maeum_ieum.domain.assistant.Assistant;
+import com.develokit.maeum_ieum.domain.assistant.AssistantRepository;
+import com.develokit.maeum_ieum.domain.outbox.OpenAiOutbox;
+import com.develokit.maeum_ieum.domain.outbox.OpenAiOutboxRepository;
+import com.develokit.maeum_ieum.domain.outbox.OutboxOperation;
+import com.develokit.maeum_ieum.domain.outbox.OutboxStatus;
+import com.develokit.maeum_ieum.service.OpenAiService;
+import com.develokit.maeum_ieum.service.chat.ConversationContextManager;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.develokit.maeum_ieum.dto.openAi.assistant.ReqDto.OpenAiCreateAssistantReqDto;
+import static com.develokit.maeum_ieum.dto.openAi.thread.ReqDto.CreateThreadReqDto.MessagesDto;
+
+/**
+ * OpenAI 아웃박스 디스패처.
+ * 서비스는 DB 변경과 함께 OpenAiOutbox 만 기록하고 커밋하며, OpenAI 호출은 여기서 트랜잭션 밖에서 실행한다.
+ * 호출 결과(어시스턴트 id, 스레드 id) 반영과 실패 기록은 각각 짧은 트랜잭션으로 처리하고, 실패하면 지수 백오프로 재시도한다.
+ * DELETE_THREAD(보고서 분석용 임시 스레드, 교체된 스레드 정리)는 양이 많고 급하지 않으므로 cleanup-threads 개의 별도 실행기에서 처리해서
+ * 어시스턴트 생성/수정처럼 사용자가 기다리는 작업이 삭제 호출 뒤에 밀리지 않게 한다.
+ */
+@Component
+public class OpenAiOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAiOutboxDispatcher.class);
+    private static final TypeReference<List<MessagesDto>> SEED_TYPE = new TypeReference<>() {};
+
+    private final OpenAiOutboxRepository outboxRepository;
+    private final AssistantRepository assistantRepository;
+    private final OpenAiService openAiService;
+    private final ConversationContextManager conversationContextManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final long leaseMs;
+    private final int cleanupThreads;
+
+    private ScheduledExecutorService dispatcher;
+    private ScheduledExecutorService cleaner; //DELETE_THREAD 전용
+
+    public OpenAiOutboxDispatcher(OpenAiOutboxRepository outboxRepository,
+                                  AssistantRepository assistantRepository,
+                                  OpenAiService openAiService,
+                                  ConversationContextManager conversationContextManager,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${openai.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+                                  @Value("${openai.outbox.batch-size:20}") int batchSize,
+                                  @Value("${openai.outbox.max-attempts:8}") int maxAttempts,
+                                  @Value("${openai.outbox.backoff-ms:1000}") long backoffMs,
+                                  @Value("${openai.outbox.max-backoff-ms:300000}") long maxBackoffMs,
+                                  @Value("${openai.outbox.lease-ms:60000}") long leaseMs,
+                                  @Value("${openai.outbox.cleanup-threads:2}") int cleanupThreads) {
+        this.outboxRepository = outboxRepository;
+        this.assistantRepository = assistantRepository;
+        this.openAiService = openAiService;
+        this.conversationContextManager = conversationContextManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.leaseMs = leaseMs;
+        this.cleanupThreads = cleanupThreads;
+    }
+
+    @PostConstruct
+    void start() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "openai-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger cleanerIndex = new AtomicInteger();
+        cleaner = Executors.newScheduledThreadPool(Math.max(1, cleanupThreads), runnable -> {
+            Thread thread = new Thread(runnable, "openai-outbox-cleanup-" + cleanerIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(() -> dispatchDueSafely(false), pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        cleaner.scheduleWithFixedDelay(() -> dispatchDueSafely(true), pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdown();
+        cleaner.shutdown();
+        try {
+            dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+            cleaner.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 현재 트랜잭션에 아웃박스를 기록하고, 커밋되면 백그라운드에서 바로 실행한다.
+     * 롤백되면 기록도 같이 사라지므로 OpenAI 호출도 일어나지 않는다. 트랜잭션 밖에서 호출하면 기록 후 바로 실행한다.
+     */
+    public Long enqueue(OpenAiOutbox outbox) {
+        Long id = record(outbox);
+        ScheduledExecutorService executor = isCleanup(outbox.getOperation()) ? cleaner : dispatcher;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> dispatchNow(id));
+                }
+            });
+        } else {
+            executor.execute(() -> dispatchNow(id));
+        }
+        return id;
+    }
+
+    //현재 트랜잭션에 기록만 (호출하는 쪽이 커밋 후 dispatchNow 로 직접 실행할 때)
+    public Long record(OpenAiOutbox outbox) {
+        return outboxRepository.save(outbox).getId();
+    }
+
+    public String seedPayload(List<MessagesDto> seed) {
+        if (seed == null || seed.isEmpty()) return null;
+        try {
+            return objectMapper.writeValueAsString(seed);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("스레드 초기 메시지 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * 아웃박스 하나를 실행한다. 트랜잭션 안에서 호출하면 안 된다.
+     * @return 처리 완료 여부 (다른 디스패처가 처리 중이거나 실패해서 재시도 대기 중이면 false)
+     */
+    public boolean dispatchNow(Long outboxId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> outboxRepository.claim(outboxId, now, now.plus(Duration.ofMillis(leaseMs))));
+        if (claimed == null || claimed == 0) return isDone(outboxId);
+
+        OpenAiOutbox outbox = transactionTemplate.execute(status -> outboxRepository.findById(outboxId).orElse(null));
+        if (outbox == null) return false;
+
+        String result;
+        try {
+            result = call(outbox); //트랜잭션 없이 OpenAI 호출
+            if (isCreate(outbox.getOperation()) && result != null && outbox.getResult() == null) {
+                //반영 전에 생성된 id 부터 따로 커밋 (반영 트랜잭션이 실패하거나 프로세스가 죽어도 재시도는 이 id 를 재사용)
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(outboxId)
+                        .ifPresent(o -> o.recordResult(result)));
+            }
+        } catch (Exception e) {
+            LocalDateTime retryAt = LocalDateTime.now().plus(Duration.ofMillis(backoff(outbox.getAttempts() + 1)));
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(outboxId)
+                    .ifPresent(o -> o.fail(e.getMessage(), maxAttempts, retryAt)));
+            if (outbox.getAttempts() + 1 >= maxAttempts)
+                log.error("OpenAI 아웃박스 실행 최종 실패: id = {}, operation = {}", outboxId, outbox.getOperation(), e);
+            else
+                log.warn("OpenAI 아웃박스 실행 실패, {} 에 재시도: id = {}, operation = {}, error = {}", retryAt, outboxId, outbox.getOperation(), e.getMessage());
+            return false;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> reconcile(outboxId, result));
+        return true;
+    }
+
+    //재시도 시각이 된 아웃박스 실행 (커밋 직후 실행이 실패했거나 서버가 재시작된 경우), 삭제 실행기는 DELETE_THREAD 만 조회
+    void dispatchDue(boolean cleanup) {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<Long> dueIds = transactionTemplate.execute(status -> cleanup
+                ? outboxRepository.findDueIdsByOperation(OutboxStatus.PENDING, OutboxOperation.DELETE_THREAD, now, page)
+                : outboxRepository.findDueIdsExcludingOperation(OutboxStatus.PENDING, OutboxOperation.DELETE_THREAD, now, page));
+        if (dueIds == null) return;
+        for (Long id : dueIds) dispatchNow(id);
+    }
+
+    private static boolean isCleanup(OutboxOperation operation) {
+        return operation == OutboxOperation.DELETE_THREAD;
+    }
+
+    private void dispatchDueSafely(boolean cleanup) {
+        try {
+            dispatchDue(cleanup);
+        } catch (Exception e) {
+            log.error("OpenAI 아웃박스 조회 중 오류 발생", e);
+        }
+    }
+
+    private boolean isDone(Long outboxId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> outboxRepository.findById(outboxId)
+                .map(o -> o.getStatus() == OutboxStatus.DONE)
+                .orElse(false)));
+    }
+
+    private static boolean isCreate(OutboxOperation operation) {
+        return operation == OutboxOperation.CREATE_ASSISTANT || operation == OutboxOperation.CREATE_THREAD;
+    }
+
+    //OpenAI 호출. 어시스턴트 내용은 실행 시점의 최신 상태를 읽어서 보낸다
+    private String call(OpenAiOutbox outbox) throws JsonProcessingException {
+        OutboxOperation operation = outbox.getOperation();
+        if (isCreate(operation) && outbox.getResult() != null) return outbox.getResult(); //이전 시도에서 이미 생성됨, 반영만 다시
+        if (operation == OutboxOperation.DELETE_ASSISTANT) {
+            if (outbox.getOpenAiAssistantId() != null) openAiService.deleteAssistant(outbox.getOpenAiAssistantId());
+            return outbox.getOpenAiAssistantId();
+        }
+        if (operation == OutboxOperation.DELETE_THREAD) {
+            if (outbox.getOpenAiThreadId() != null) openAiService.deleteThread(outbox.getOpenAiThreadId());
+            return outbox.getOpenAiThreadId();
+        }
+        if (operation == OutboxOperation.CREATE_THREAD) {
+            List<MessagesDto> seed = outbox.getPayload() == null ? null : objectMapper.readValue(outbox.getPayload(), SEED_TYPE);
+            return (seed == null ? openAiService.createThread() : openAiService.createThread(seed)).getId();
+        }
+
+        Assistant assistant = transactionTemplate.execute(status -> assistantRepository.findById(outbox.getAssistantId()).orElse(null));
+        if (assistant == null) return null; //이미 삭제된 어시스턴트
+
+        if (operation == OutboxOperation.CREATE_ASSISTANT) {
+            if (assistant.getOpenAiAssistantId() != null) return assistant.getOpenAiAssistantId(); //이미 반영됨
+            return openAiService.createAssistant(OpenAiCreateAssistantReqDto.builder()
+                    .description(assistant.getMandatoryRule())
+                    .instructions(assistant.getOpenAiInstruction())
+                    .name(assistant.getName())
+                    .build());
+        }
+        //MODIFY_ASSISTANT: 아직 생성 전이면 생성 아웃박스가 최신 내용으로 만든다
+        if (assistant.getOpenAiAssistantId() == null) return null;
+        openAiService.modifyAssistant(assistant.getOpenAiAssistantId(), assistant);
+        return assistant.getOpenAiAssistantId();
+    }
+
+    //호출 결과를 DB 에 반영 (짧은 트랜잭션)
+    private void reconcile(Long outboxId, String result) {
+        OpenAiOutbox outbox = outboxRepository.findById(outboxId).orElseThrow();
+        outbox.complete(result);
+        if (result == null) return;
+
+        if (outbox.getOperation() == OutboxOperation.CREATE_ASSISTANT) {
+            Assistant assistant = assistantRepository.findById(outbox.getAssistantId()).orElse(null);
+            if (assistant == null) {
+                //생성 중에 로컬 어시스턴트가 삭제됨 -> OpenAI 쪽도 정리
+                enqueue(OpenAiOutbox.builder()
+                        .operation(OutboxOperation.DELETE_ASSISTANT)
+                        .assistantId(outbox.getAssistantId())
+                        .openAiAssistantId(result)
+                        .build());
+            } else if (assistant.getOpenAiAssistantId() == null) {
+                assistant.attachOpenAiAssistant(result);
+            }
+        } else if (outbox.getOperation() == OutboxOperation.CREATE_THREAD) {
+            Assistant assistant = assistantRepository.findById(outbox.getAssistantId()).orElse(null);
+            if (assistant == null) {
+                //생성 중에 로컬 어시스턴트가 삭제됨 -> 만든 스레드도 정리
+                enqueue(OpenAiOutbox.builder()
+                        .operation(OutboxOperation.DELETE_THREAD)
+                        .assistantId(outbox.getAssistantId())
+                        .openAiThreadId(result)
+                        .build());
+            } else {
+                assistant.attachThread(result);
+                if (outbox.getOpenAiThreadId() != null) {
+                    //컨텍스트 예산 초과로 교체된 이전 스레드 정리 (어느 경로로 반영되든 여기서 한 번만)
+                    conversationContextManager.rotated(outbox.getOpenAiThreadId());
+                    enqueue(OpenAiOutbox.builder()
+                            .operation(OutboxOperation.DELETE_THREAD)
+                            .assistantId(outbox.getAssistantId())
+                            .openAiThreadId(outbox.getOpenAiThreadId())
+                            .build());
+                }
+            }
+        }
+    }
+
+    //base * 2^(attempt-1), 최대 maxBackoffMs, ±20% 지터
+    long backoff(int attempt) {
+        long delay = backoffMs << Math.min(attempt - 1, 20);
+        delay = Math.min(Math.max(delay, backoffMs), maxBackoffMs);
+        long jitter = (long) (delay * 0.2);
+        return delay - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1);
+    }
+}
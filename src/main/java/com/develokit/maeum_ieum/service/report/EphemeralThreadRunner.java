@@ -0,0 +1,78 @@
+package com.develokit.maeum_ieum.service.report;
+
+import com.develokit.maeum_ieum.config.openAI.stream.RunEvent;
+import com.develokit.maeum_ieum.config.openAI.stream.RunStateMachine;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamEventDecoder;
+import com.develokit.maeum_ieum.domain.outbox.OpenAiOutbox;
+import com.develokit.maeum_ieum.domain.outbox.OutboxOperation;
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import com.develokit.maeum_ieum.service.outbox.OpenAiOutboxDispatcher;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.develokit.maeum_ieum.dto.openAi.thread.ReqDto.CreateThreadAndRunReqDto;
+
+/**
+ * 보고서 분석용 일회용 스레드 런.
+ * 스레드 생성 + 메시지 + 런을 한 번의 요청(POST /threads/runs)으로 보내고, 런이 끝나면(완료/실패/취소) 스레드는 아웃박스로 비동기 삭제한다.
+ * 분석마다 스레드가 따로라서 다른 노인 사용자의 대화가 섞이지 않고, 스레드당 런 하나 제한 없이 동시에 실행할 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EphemeralThreadRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EphemeralThreadRunner.class);
+
+    private final WebClient webClient;
+    private final StreamEventDecoder streamEventDecoder;
+    private final OpenAiOutboxDispatcher openAiOutboxDispatcher;
+
+    public Mono<RunStateMachine.Result> run(String assistantId, String content) {
+        return Mono.defer(() -> {
+            AtomicReference<String> threadId = new AtomicReference<>(); //thread.run.created 에서 확보 (삭제 대상)
+
+            return webClient.post()
+                    .uri("/threads/runs")
+                    .bodyValue(CreateThreadAndRunReqDto.of(assistantId, "user", content, true))
+                    .retrieve()
+                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                    .doOnSubscribe(subscription -> log.info("OPENAI에 일회용 스레드 런 생성 요청 전송"))
+                    .doOnError(WebClientResponseException.class, e -> {
+                        log.error("OPENAI 요청 중 오류 발생: {}", e.getMessage());
+                        throw new CustomApiException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
+                    })
+                    .transform(streamEventDecoder::decodeRunEvents)
+                    .doOnNext(event -> {
+                        if (event instanceof RunEvent.Created created) threadId.set(created.threadId());
+                    })
+                    .as(RunStateMachine::await)
+                    .doFinally(signal -> deleteLater(threadId.get()));
+        });
+    }
+
+    //아웃박스 기록은 JPA 호출이라 이벤트 루프 밖에서 (실패해도 분석 결과에는 영향 없음)
+    private void deleteLater(String threadId) {
+        if (threadId == null) return;
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                openAiOutboxDispatcher.enqueue(OpenAiOutbox.builder()
+                        .operation(OutboxOperation.DELETE_THREAD)
+                        .openAiThreadId(threadId)
+                        .build());
+            } catch (Exception e) {
+                log.warn("일회용 스레드 삭제 예약 실패: threadId = {}, {}", threadId, e.getMessage());
+            }
+        });
+    }
+}
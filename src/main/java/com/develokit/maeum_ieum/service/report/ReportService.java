@@ -3,6 +3,7 @@ package com.develokit.maeum_ieum.service.report;
 import com.develokit.maeum_ieum.domain.message.Message;
 import com.develokit.maeum_ieum.domain.message.MessageRepository;
 import com.develokit.maeum_ieum.domain.report.Report;
+import com.develokit.maeum_ieum.domain.report.ReportJdbcRepository;
 import com.develokit.maeum_ieum.domain.report.ReportRepository;
 import com.develokit.maeum_ieum.domain.report.ReportStatus;
 import com.develokit.maeum_ieum.domain.report.ReportType;
@@ -40,6 +41,7 @@ import static com.develokit.maeum_ieum.dto.report.RespDto.*;
 public class ReportService {
 
     private final ReportRepository reportRepository;
+    private final ReportJdbcRepository reportJdbcRepository;
     private final ElderlyRepository elderlyRepository;
     private final MessageRepository messageRepository;
     private final WeeklyReportAnalysisService weeklyReportAnalysisService;
@@ -267,47 +269,20 @@ public class ReportService {
     }
 
 
-    //PENDING 상태의 빈 보고서가 없으면 -> 해당 주의 주간 보고서 생성
+    //PENDING 상태의 빈 보고서가 없으면 -> 해당 주의 주간 보고서 생성 (INSERT ... SELECT 한 번)
     @Transactional
     public void createWeeklyEmptyReports(LocalDate date) {
-        LocalDate oneWeekAgo = date.minusWeeks(1);
-
-        List<Elderly> eligibleElderly = elderlyRepository.findByReportDay(date.getDayOfWeek());
-        for (Elderly elderly : eligibleElderly) {
-            if (!reportRepository.existsByElderlyAndReportTypeAndReportStatusAndStartDateInLastWeek(
-                    elderly, ReportType.WEEKLY, ReportStatus.PENDING, date.getDayOfWeek())) {
-                Report newReport = Report.builder()
-                        .elderly(elderly)
-                        .reportType(ReportType.WEEKLY)
-                        .reportStatus(ReportStatus.PENDING)
-                        .startDate(date)
-                        .reportDay(date.getDayOfWeek())
-                        .build();
-                reportRepository.save(newReport);
-            }
-        }
+        reportRepository.flush(); //같은 트랜잭션에서 바뀐 JPA 변경(노인 보고 요일 등)을 먼저 반영
+        int created = reportJdbcRepository.insertMissingWeeklyReports(date);
+        log.info("주간 빈 보고서 생성: {}건 ({})", created, date.getDayOfWeek());
     }
 
+    //PENDING 상태의 월간 보고서가 없는 모든 노인에 대해 월간 보고서 생성 (INSERT ... SELECT 한 번)
     @Transactional
     public void createMonthlyEmptyReports(LocalDate date) {
-        // 한 달 전 날짜 계산
-        LocalDate oneMonthAgo = date.minusMonths(1);
-
-        // 모든 노인에 대해 월간 보고서 생성 (또는 특정 조건의 노인만 선택할 수 있음)
-        List<Elderly> allElderly = elderlyRepository.findAll();
-        for (Elderly elderly : allElderly) {
-            if (!reportRepository.existsByElderlyAndReportTypeAndReportStatusAndStartDateGreaterThanEqual(
-                    elderly, ReportType.MONTHLY, ReportStatus.PENDING)) {
-                Report newReport = Report.builder()
-                        .elderly(elderly)
-                        .reportType(ReportType.MONTHLY)
-                        .reportStatus(ReportStatus.PENDING)
-                        .startDate(date)
-                        .reportDay(date.getDayOfWeek())  // 월간 보고서의 경우 이 필드가 필요한지 검토 필요
-                        .build();
-                reportRepository.save(newReport);
-            }
-        }
+        reportRepository.flush();
+        int created = reportJdbcRepository.insertMissingMonthlyReports(date);
+        log.info("월간 빈 보고서 생성: {}건", created);
     }
 
 
@@ -1,31 +1,25 @@
 package com.develokit.maeum_ieum.service.report;
 
+import com.develokit.maeum_ieum.config.openAI.rate.OpenAiPriority;
+import com.develokit.maeum_ieum.config.openAI.rate.OpenAiRateScheduler;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamRunMetrics;
 import com.develokit.maeum_ieum.domain.message.Message;
 import com.develokit.maeum_ieum.domain.report.Report;
 import com.develokit.maeum_ieum.domain.report.ReportRepository;
 import com.develokit.maeum_ieum.domain.report.indicator.*;
-import com.develokit.maeum_ieum.dto.openAi.message.RespDto;
-import com.develokit.maeum_ieum.dto.openAi.run.ReqDto;
 import com.develokit.maeum_ieum.ex.CustomApiException;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,27 +27,28 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import static com.develokit.maeum_ieum.dto.openAi.message.ReqDto.*;
-import static com.develokit.maeum_ieum.dto.openAi.message.RespDto.*;
-import static com.develokit.maeum_ieum.dto.openAi.run.ReqDto.*;
 
 @Service
 @RequiredArgsConstructor
 public class WeeklyReportAnalysisService {
+    private static final int REPORT_OUTPUT_TOKENS = 1500;
+    private static final String RUN_CALL = "report.weekly"; //openai.run.usage 의 call 태그
     private final Logger log = LoggerFactory.getLogger(WeeklyReportAnalysisService.class);
 
     @Value("${report.weekly.assistantId}")
     private String openAiAssistantId;
 
-    @Value("${report.weekly.threadId}")
-    private String threadId;
 
-    private LocalDateTime threadCreatedDate;
     private static final Pattern SUMMARY_PATTERN = Pattern.compile("### 종합 평가\\s*(.*?)\\s*$", Pattern.DOTALL);
 
 
-    private final WebClient webClient;
     private final ReportRepository reportRepository;
+    private final OpenAiRateScheduler openAiRateScheduler; //보고서 분석은 가장 낮은 우선순위(BATCH)
+    private final EphemeralThreadRunner ephemeralThreadRunner; //분석마다 일회용 스레드
+    private final StreamRunMetrics streamRunMetrics;
+
+    @Value("${report.model:gpt-4o-mini}")
+    private String reportModel; //보고서 분석 어시스턴트 모델
 
 
     @Transactional
@@ -64,18 +59,10 @@ public class WeeklyReportAnalysisService {
 
         System.out.println("conversationContent = " + conversationContent);
 
-        CreateMessageReqDto createMessageReqDto = new CreateMessageReqDto(
-                "user",
-                conversationContent
-        );
-
-        CreateRunReqDto createRunReqDto = new CreateRunReqDto(
-                openAiAssistantId,
-                true
-        );
-
-        return createMessage(createMessageReqDto)
-                .then(createRun(createRunReqDto))
+        //채팅 한도를 침범하지 않도록 스케줄러 허가 후 실행 (입력 + 분석 결과 토큰 추정)
+        long estimatedTokens = (long) Math.ceil(conversationContent.length() / 1.5) + REPORT_OUTPUT_TOKENS;
+        return openAiRateScheduler.admit(reportModel, OpenAiPriority.BATCH, estimatedTokens,
+                        () -> createRun(conversationContent))
                 .flatMap(this::parseAnalysisResult)
                 .publishOn(Schedulers.boundedElastic())
                 .map(analysisResult -> {
@@ -95,48 +82,17 @@ public class WeeklyReportAnalysisService {
                 .onErrorResume(e -> Mono.error(new CustomApiException("보고서 분석 과정에서 오류 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR)));
     }
 
-    public Mono<MessageRespDto> createMessage(CreateMessageReqDto createMessageReqDto){
-        return webClient.post()
-                .uri("/threads/{threadId}/messages", threadId)
-                .bodyValue(createMessageReqDto)
-                .retrieve()
-                .bodyToMono(MessageRespDto.class)
-                .doOnSubscribe(subscription -> log.info("OPENAI에 메시지 생성 요청 전송"))
-                .doOnError(WebClientResponseException.class, e -> {
-                    log.error(e.getMessage());
-                    throw new CustomApiException("메시지 생성 과정에서 에러 발생", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
-                });
-    }
-
-    private Mono<String> createRun(CreateRunReqDto createRunReqDto) {
-        return webClient.post()
-                .uri("/threads/{threadId}/runs", threadId)
-                .bodyValue(createRunReqDto)
-                .retrieve()
-                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+    //일회용 스레드에 대화 내용을 넣고 런 실행 (스레드는 런이 끝나면 비동기 삭제)
+    private Mono<String> createRun(String conversationContent) {
+        return ephemeralThreadRunner.run(openAiAssistantId, conversationContent)
                 .doOnSubscribe(subscription -> log.info("OPENAI에 주간 보고서 분석 요청 전송"))
-                .doOnError(WebClientResponseException.class, e -> {
-                    log.error("OPENAI 요청 중 오류 발생: {}", e.getMessage());
-                    throw new CustomApiException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR);
-                })
-                .filter(event -> "thread.message.completed".equals(event.event()))
-                .next()
-                .flatMap(event -> {
-                    String data = event.data();
-                    try {
-                        ObjectMapper om = new ObjectMapper();
-                        JsonNode rootNode = om.readTree(data);
-                        JsonNode contentArray = rootNode.path("content");
-                        if (!contentArray.isEmpty()) {
-                            JsonNode textNode = contentArray.get(0).path("text");
-                            return Mono.just(textNode.path("value").asText());
-                        }
-                        log.warn("분석 결과에서 content를 찾을 수 없습니다");
-                        return Mono.error(new CustomApiException("분석 결과 형식 오류", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
-                    } catch (JsonProcessingException e) {
-                        log.error("JSON 파싱 오류: {}", e.getMessage());
-                        return Mono.error(new CustomApiException("분석 결과 파싱 오류", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
+                .flatMap(result -> {
+                    streamRunMetrics.recordUsage(RUN_CALL, result.usage());
+                    if (result.answer() != null) {
+                        return Mono.just(result.answer());
                     }
+                    log.warn("분석 결과에서 content를 찾을 수 없습니다");
+                    return Mono.error(new CustomApiException("분석 결과 형식 오류", HttpStatus.INTERNAL_SERVER_ERROR.value(), HttpStatus.INTERNAL_SERVER_ERROR));
                 })
                 .timeout(Duration.ofSeconds(60))
                 .doOnNext(answer -> log.debug("분석 완료: {}", answer));
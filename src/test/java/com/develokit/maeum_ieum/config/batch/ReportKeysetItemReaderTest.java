@@ -0,0 +1,105 @@
+package com.develokit.maeum_ieum.config.batch;
+
+import com.develokit.maeum_ieum.domain.report.Report;
+import com.develokit.maeum_ieum.domain.report.ReportStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReportKeysetItemReaderTest {
+
+    private static final String QUERY = "SELECT r FROM Report r WHERE r.reportStatus = :reportStatus AND r.id > :lastSeenId ORDER BY r.id";
+
+    //PENDING 보고서 테이블 흉내: id > lastSeenId 인 보고서를 id 순서로 maxResults 개
+    private final List<Report> pendingReports = new ArrayList<>();
+    private final List<Long> queriedFrom = new ArrayList<>();
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        LongStream.rangeClosed(1, 7).forEach(id -> pendingReports.add(Report.builder().id(id).reportStatus(ReportStatus.PENDING).build()));
+
+        EntityManager entityManager = mock(EntityManager.class);
+        TypedQuery<Report> query = mock(TypedQuery.class);
+        long[] lastSeenId = {0};
+        int[] maxResults = {Integer.MAX_VALUE};
+
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.createQuery(QUERY, Report.class)).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenAnswer(invocation -> {
+            if ("lastSeenId".equals(invocation.getArgument(0))) lastSeenId[0] = invocation.getArgument(1);
+            return query;
+        });
+        when(query.setMaxResults(anyInt())).thenAnswer(invocation -> {
+            maxResults[0] = invocation.getArgument(0);
+            return query;
+        });
+        when(query.getResultList()).thenAnswer(invocation -> {
+            queriedFrom.add(lastSeenId[0]);
+            return pendingReports.stream()
+                    .filter(report -> report.getId() > lastSeenId[0])
+                    .limit(maxResults[0])
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    void 읽는_도중_상태가_바뀌어도_조건에_맞는_보고서를_한_번씩_모두_읽음() throws Exception {
+        //given
+        ReportKeysetItemReader reader = new ReportKeysetItemReader("weeklyReportReader", entityManagerFactory, QUERY,
+                Map.of("reportStatus", ReportStatus.PENDING), 3);
+        reader.open(new ExecutionContext());
+
+        //when: 읽은 보고서는 처리되어 PENDING 조건에서 빠짐 (오프셋 페이징이면 다음 페이지가 밀림)
+        List<Long> readIds = new ArrayList<>();
+        Report report;
+        while ((report = reader.read()) != null) {
+            readIds.add(report.getId());
+            pendingReports.remove(report);
+        }
+        reader.close();
+
+        //then
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), readIds);
+        assertEquals(List.of(0L, 3L, 6L), queriedFrom);
+    }
+
+    @Test
+    void 재시작하면_마지막으로_저장된_위치_다음부터_읽음() throws Exception {
+        //given: 첫 실행에서 4건 읽고 청크 커밋(update) 후 중단
+        ExecutionContext executionContext = new ExecutionContext();
+        ReportKeysetItemReader firstRun = new ReportKeysetItemReader("weeklyReportReader", entityManagerFactory, QUERY,
+                Map.of("reportStatus", ReportStatus.PENDING), 3);
+        firstRun.open(executionContext);
+        for (int i = 0; i < 4; i++) firstRun.read();
+        firstRun.update(executionContext);
+        firstRun.close();
+
+        //when
+        ReportKeysetItemReader restarted = new ReportKeysetItemReader("weeklyReportReader", entityManagerFactory, QUERY,
+                Map.of("reportStatus", ReportStatus.PENDING), 3);
+        restarted.open(executionContext);
+        List<Long> readIds = new ArrayList<>();
+        Report report;
+        while ((report = restarted.read()) != null) readIds.add(report.getId());
+        restarted.close();
+
+        //then
+        assertEquals(4L, executionContext.getLong("weeklyReportReader.lastSeenId"));
+        assertEquals(List.of(5L, 6L, 7L), readIds);
+    }
+}
@@ -0,0 +1,184 @@
+package com.develokit.maeum_ieum.config.batch;
+
+import com.develokit.maeum_ieum.config.openAI.simulator.OpenAiSimulator;
+import com.develokit.maeum_ieum.config.openAI.stream.RunStateMachine;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamEventDecoder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.develokit.maeum_ieum.dto.openAi.thread.ReqDto.CreateThreadAndRunReqDto;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 보고서 배치 Step 처리 시간 비교: 동기 프로세서(기존) vs AsyncItemProcessor/AsyncItemWriter (ReportJobConfig).
+ * 보고서 하나 = OpenAiSimulator 의 스트림 런 하나 (첫 토큰 load.ttft-ms, 초당 load.tokens-per-second 토큰).
+ * ./gradlew loadTest -Dload.reports=1000 -Dload.concurrency=32 처럼 크기를 바꿔 돌릴 수 있다.
+ */
+@Tag("load")
+class ReportStepLoadTest {
+
+    private static final int REPORTS = Integer.getInteger("load.reports", 200);
+    private static final int CHUNK_SIZE = 100;
+    private static final int[] CONCURRENCY = {8, Integer.getInteger("load.concurrency", 32)};
+    private static final long TTFT_MS = Long.getLong("load.ttft-ms", 300);
+    private static final double TOKENS_PER_SECOND = Double.parseDouble(System.getProperty("load.tokens-per-second", "200"));
+
+    private static OpenAiSimulator simulator;
+    private static EmbeddedDatabase batchDatabase;
+    private static JdbcTransactionManager transactionManager;
+    private static JobRepository jobRepository;
+    private static TaskExecutorJobLauncher jobLauncher;
+    private static WebClient webClient;
+    private static final StreamEventDecoder decoder = new StreamEventDecoder();
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        simulator = OpenAiSimulator.start(OpenAiSimulator.Settings.builder().ttftMs(TTFT_MS).tokensPerSecond(TOKENS_PER_SECOND).build());
+        webClient = WebClient.create(simulator.baseUrl());
+
+        batchDatabase = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("classpath:org/springframework/batch/core/schema-h2.sql")
+                .build();
+        transactionManager = new JdbcTransactionManager(batchDatabase);
+
+        JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(batchDatabase);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        jobRepository = factory.getObject();
+
+        jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (simulator != null) simulator.close();
+        if (batchDatabase != null) batchDatabase.shutdown();
+    }
+
+    @Test
+    void 동기_프로세서_대비_비동기_프로세서_처리_시간() throws Exception {
+        //동기: 기존 ReportProcessor 처럼 보고서마다 런 완료까지 블로킹
+        CountingWriter syncWriter = new CountingWriter();
+        Step syncStep = new StepBuilder("syncReportStep", jobRepository)
+                .<Long, String>chunk(CHUNK_SIZE, transactionManager)
+                .reader(new ListItemReader<>(reportIds()))
+                .processor((ItemProcessor<Long, String>) ReportStepLoadTest::analyze)
+                .writer(syncWriter)
+                .build();
+        long syncMs = run(syncStep, syncWriter, "sync");
+
+        for (int concurrency : CONCURRENCY) {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(concurrency);
+            executor.setMaxPoolSize(concurrency);
+            executor.setThreadNamePrefix("report-analysis-");
+            executor.initialize();
+            try {
+                AsyncItemProcessor<Long, String> asyncProcessor = new AsyncItemProcessor<>();
+                asyncProcessor.setDelegate((ItemProcessor<Long, String>) ReportStepLoadTest::analyze);
+                asyncProcessor.setTaskExecutor(executor);
+                CountingWriter asyncDelegate = new CountingWriter();
+                AsyncItemWriter<String> asyncWriter = new AsyncItemWriter<>();
+                asyncWriter.setDelegate(asyncDelegate);
+
+                Step asyncStep = new StepBuilder("asyncReportStep-" + concurrency, jobRepository)
+                        .<Long, Future<String>>chunk(CHUNK_SIZE, transactionManager)
+                        .reader(new ListItemReader<>(reportIds()))
+                        .processor(asyncProcessor)
+                        .writer(asyncWriter)
+                        .build();
+                long asyncMs = run(asyncStep, asyncDelegate, "async x" + concurrency);
+
+                assertTrue(asyncMs < syncMs, "async x" + concurrency + " " + asyncMs + "ms >= sync " + syncMs + "ms");
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private long run(Step step, CountingWriter writer, String label) throws Exception {
+        Job job = new JobBuilder(step.getName() + "Job", jobRepository).start(step).build();
+
+        long startedAt = System.nanoTime();
+        JobExecution execution = jobLauncher.run(job, new JobParametersBuilder().addLong("run", System.nanoTime()).toJobParameters());
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+        StepExecution stepExecution = execution.getStepExecutions().iterator().next();
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        //결과는 청크 단위로 커밋
+        assertEquals(REPORTS, writer.items.get());
+        assertEquals((REPORTS + CHUNK_SIZE - 1) / CHUNK_SIZE, writer.chunks.get());
+        assertEquals(REPORTS, stepExecution.getWriteCount());
+
+        System.out.printf("[%s] 보고서 %d건: %dms (%.1f건/초), 커밋 %d회%n",
+                label, REPORTS, elapsedMs, REPORTS * 1000.0 / elapsedMs, stepExecution.getCommitCount());
+        return elapsedMs;
+    }
+
+    //보고서 하나 분석 = 시뮬레이터 일회용 스레드 런(POST /threads/runs) 하나를 완료까지 기다림 (EphemeralThreadRunner 와 같은 요청)
+    private static String analyze(Long reportId) {
+        return webClient.post()
+                .uri("/threads/runs")
+                .bodyValue(CreateThreadAndRunReqDto.of("asst_report", "user", "보고서 " + reportId, true))
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .transform(decoder::decodeRunEvents)
+                .as(RunStateMachine::await)
+                .map(RunStateMachine.Result::answer)
+                .block(Duration.ofMinutes(1));
+    }
+
+    private static List<Long> reportIds() {
+        return LongStream.rangeClosed(1, REPORTS).boxed().collect(Collectors.toList());
+    }
+
+    private static class CountingWriter implements ItemWriter<String> {
+        private final AtomicInteger items = new AtomicInteger();
+        private final AtomicInteger chunks = new AtomicInteger();
+
+        @Override
+        public void write(Chunk<? extends String> chunk) {
+            chunks.incrementAndGet();
+            items.addAndGet(chunk.size());
+        }
+    }
+}
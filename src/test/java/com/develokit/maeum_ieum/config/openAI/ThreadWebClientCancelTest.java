@@ -0,0 +1,81 @@
+package com.develokit.maeum_ieum.config.openAI;
+
+import com.develokit.maeum_ieum.config.openAI.stream.StreamEventDecoder;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamRunMetrics;
+import com.develokit.maeum_ieum.dto.openAi.message.ReqDto.CreateMessageReqDto;
+import com.develokit.maeum_ieum.dto.openAi.run.ReqDto.CreateRunReqDto;
+import com.develokit.maeum_ieum.service.chat.MessageJournal;
+import com.develokit.maeum_ieum.service.chat.SpeechCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadWebClientCancelTest {
+
+    private static final String RUN_CREATED = "event: thread.run.created\ndata: {\"id\":\"run_123\",\"object\":\"thread.run\",\"status\":\"queued\"}\n\n";
+    private static final String DELTA = "event: thread.message.delta\ndata: {\"id\":\"msg_1\",\"delta\":{\"content\":[{\"index\":0,\"type\":\"text\",\"text\":{\"value\":\"네\"}}]}}\n\n";
+
+    private DisposableServer stub;
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final AtomicReference<String> cancelPath = new AtomicReference<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadWebClient threadWebClient;
+
+    @BeforeEach
+    void setUp() {
+        //런 생성 후 델타를 끝없이 보내는 스텁
+        stub = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .post("/threads/{threadId}/runs/{runId}/cancel", (req, res) -> {
+                            cancelPath.set(req.path());
+                            cancelled.countDown();
+                            return res.header("Content-Type", "application/json").sendString(Mono.just("{\"id\":\"run_123\",\"status\":\"cancelling\"}"));
+                        })
+                        .post("/threads/{threadId}/runs", (req, res) -> res
+                                .header("Content-Type", "text/event-stream")
+                                .sendString(Flux.concat(
+                                        Mono.just(RUN_CREATED),
+                                        Flux.interval(Duration.ofMillis(10)).map(i -> DELTA)))))
+                .bindNow();
+
+        WebClient webClient = WebClient.builder().baseUrl("http://localhost:" + stub.port()).build();
+        threadWebClient = new ThreadWebClient(webClient, new StreamEventDecoder(), new StreamRunMetrics(meterRegistry), Mockito.mock(MessageJournal.class), Mockito.mock(SpeechCache.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.disposeNow();
+    }
+
+    @Test
+    void 클라이언트가_연결을_끊으면_런_취소_요청() throws Exception {
+        //when: 델타 3개만 받고 구독 취소
+        StepVerifier.create(threadWebClient.createStreamRun("thread_1", new CreateRunReqDto("asst_1", true), 1L,
+                                new CreateMessageReqDto("user", "안녕"), LocalDateTime.now()).take(3))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        //then
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertEquals("threads/thread_1/runs/run_123/cancel", cancelPath.get());
+        assertEquals(1.0, meterRegistry.get("openai.run.cancelled").counter().count());
+        assertTrue(meterRegistry.get("openai.run.tokens.saved").summary().totalAmount() > 0);
+    }
+}
@@ -0,0 +1,82 @@
+package com.develokit.maeum_ieum.config.openAI.rate;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAiRateSchedulerTest {
+
+    private final long[] clock = {0};
+    private final VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    //분당 2회, 토큰 한도 없음, 예비분 50%
+    private final OpenAiRateScheduler scheduler = new OpenAiRateScheduler(meterRegistry, 500, 200000, "m=2/0", 0.5, 1, timer, () -> clock[0]);
+
+    @Test
+    void 예비분은_채팅만_사용하고_배치는_버킷이_찰때까지_대기() {
+        //given
+        List<String> log = new CopyOnWriteArrayList<>();
+
+        //when: 배치 1건은 바로 허가, 두 번째는 예비분 때문에 대기, 채팅은 예비분으로 바로 허가
+        scheduler.admit("m", OpenAiPriority.BATCH, 0, () -> Mono.fromRunnable(() -> log.add("batch-1"))).subscribe();
+        scheduler.admit("m", OpenAiPriority.BATCH, 0, () -> Mono.fromRunnable(() -> log.add("batch-2"))).subscribe();
+        scheduler.admit("m", OpenAiPriority.LIVE_CHAT, 0, () -> Mono.fromRunnable(() -> log.add("chat"))).subscribe();
+
+        //then
+        assertEquals(List.of("batch-1", "chat"), log);
+        assertEquals(1, scheduler.queueDepth("m", OpenAiPriority.BATCH));
+
+        //when: 1분 뒤 버킷이 다시 참
+        clock[0] = Duration.ofMinutes(1).toNanos();
+        timer.advanceTimeBy(Duration.ofMinutes(1));
+
+        //then
+        assertEquals(List.of("batch-1", "chat", "batch-2"), log);
+        assertEquals(0, scheduler.queueDepth("m", OpenAiPriority.BATCH));
+        assertTrue(meterRegistry.get("openai.rate.wait").tag("priority", "batch").timer().max(TimeUnit.SECONDS) >= 59);
+    }
+
+    @Test
+    void 대기열이_가득차면_429() {
+        //given: 버킷을 모두 사용
+        scheduler.admit("m", OpenAiPriority.LIVE_CHAT, 0, () -> Mono.just(1)).subscribe();
+        scheduler.admit("m", OpenAiPriority.LIVE_CHAT, 0, () -> Mono.just(2)).subscribe();
+        scheduler.admit("m", OpenAiPriority.LIVE_CHAT, 0, () -> Mono.just(3)).subscribe(); //대기 (max-queue 1)
+
+        //when & then
+        StepVerifier.create(scheduler.admit("m", OpenAiPriority.LIVE_CHAT, 0, () -> Mono.just(4)))
+                .expectErrorSatisfies(e -> assertEquals(429, ((CustomApiException) e).getCode()))
+                .verify();
+        assertEquals(1, meterRegistry.get("openai.rate.rejected").tag("priority", "live_chat").counter().count());
+    }
+
+    @Test
+    void 대기중_취소하면_대기열에서_제거() {
+        //given
+        scheduler.admit("m", OpenAiPriority.LIVE_CHAT, 0, () -> Mono.just(1)).subscribe();
+        scheduler.admit("m", OpenAiPriority.LIVE_CHAT, 0, () -> Mono.just(2)).subscribe();
+
+        //when
+        scheduler.admit("m", OpenAiPriority.LIVE_CHAT, 0, () -> Mono.just(3)).subscribe().dispose();
+
+        //then
+        assertEquals(0, scheduler.queueDepth("m", OpenAiPriority.LIVE_CHAT));
+    }
+
+    @Test
+    void 모델별_한도_파싱() {
+        long[] limit = OpenAiRateScheduler.parseLimits("gpt-4o-mini=500/200000, tts-1=50/0").get("tts-1");
+        assertArrayEquals(new long[]{50, 0}, limit);
+    }
+}
@@ -0,0 +1,139 @@
+package com.develokit.maeum_ieum.config.openAI.resilience;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAiResilienceFilterTest {
+
+    private final long[] clock = {0};
+    private final VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    //재시도 2회, 최근 4건 중 4건 이상 + 실패율 50% 이상이면 OPEN, 10초 유지
+    private final OpenAiResilienceFilter filter = new OpenAiResilienceFilter(meterRegistry, 2, 500, 8000, 20000, 4, 4, 0.5, 10000, timer, () -> clock[0]);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private ExchangeFunction respond(ClientResponse... responses) {
+        Deque<ClientResponse> queue = new ArrayDeque<>(List.of(responses));
+        return request -> {
+            calls.incrementAndGet();
+            return Mono.just(queue.size() > 1 ? queue.poll() : queue.peek());
+        };
+    }
+
+    private ClientRequest request(HttpMethod method, String path) {
+        return ClientRequest.create(method, URI.create("https://api.openai.com/v1" + path)).build();
+    }
+
+    @Test
+    void Retry_After_만큼_기다린_뒤_재시도() {
+        //given
+        ExchangeFunction next = respond(
+                ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).header("retry-after-ms", "3000").build(),
+                ClientResponse.create(HttpStatus.OK).build());
+
+        //when & then: 3초가 지나기 전에는 다시 보내지 않음
+        StepVerifier.withVirtualTime(() -> filter.filter(request(HttpMethod.POST, "/threads/thread_1/runs"), next), () -> timer, Long.MAX_VALUE)
+                .expectSubscription()
+                .then(() -> assertEquals(1, calls.get()))
+                .thenAwait(Duration.ofMillis(2900))
+                .then(() -> assertEquals(1, calls.get()))
+                .thenAwait(Duration.ofMillis(400))
+                .assertNext(response -> assertEquals(HttpStatus.OK, response.statusCode()))
+                .verifyComplete();
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("openai.retry").tag("family", "runs").tag("reason", "429").counter().count());
+    }
+
+    @Test
+    void POST_500은_재시도하지_않고_응답을_그대로_전달() {
+        //given: 메시지 중복 생성 방지
+        ExchangeFunction next = respond(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+
+        //when & then
+        StepVerifier.create(filter.filter(request(HttpMethod.POST, "/threads/thread_1/messages"), next))
+                .assertNext(response -> assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.statusCode()))
+                .verifyComplete();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void 실패가_쌓이면_서킷이_열려_바로_503() {
+        //given: 재시도를 포함해 runs 실패 3건 (최소 건수 4 미달)
+        ExchangeFunction next = respond(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        StepVerifier.withVirtualTime(() -> filter.filter(request(HttpMethod.GET, "/threads/thread_1/runs/run_1"), next), () -> timer, Long.MAX_VALUE)
+                .thenAwait(Duration.ofMinutes(1))
+                .assertNext(response -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.statusCode()))
+                .verifyComplete();
+        assertEquals(3, calls.get());
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, filter.state("runs"));
+
+        //when & then: 네 번째 실패로 서킷이 열리고, 재시도는 요청을 보내지 않고 바로 503
+        StepVerifier.withVirtualTime(() -> filter.filter(request(HttpMethod.GET, "/threads/thread_1/runs/run_1"), next), () -> timer, Long.MAX_VALUE)
+                .thenAwait(Duration.ofMinutes(1))
+                .expectErrorSatisfies(e -> assertEquals(503, ((CustomApiException) e).getCode()))
+                .verify();
+        assertEquals(4, calls.get());
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, filter.state("runs"));
+        assertEquals(1.0, meterRegistry.get("openai.circuit.rejected").tag("family", "runs").counter().count());
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, filter.state("audio")); //다른 묶음은 영향 없음
+
+        //when & then: 10초 뒤 시험 호출 성공 시 닫힘
+        clock[0] = Duration.ofSeconds(10).toNanos();
+        StepVerifier.create(filter.filter(request(HttpMethod.GET, "/threads/thread_1/runs/run_1"), respond(ClientResponse.create(HttpStatus.OK).build())))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, filter.state("runs"));
+    }
+
+    @Test
+    void 한도_초과_429는_서킷_실패로_세지_않음() {
+        //given: 재시도 포함 429 만 여섯 건 (5xx 였다면 서킷이 열림)
+        ExchangeFunction next = respond(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).build());
+
+        //when
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.withVirtualTime(() -> filter.filter(request(HttpMethod.POST, "/threads/thread_1/runs"), next), () -> timer, Long.MAX_VALUE)
+                    .thenAwait(Duration.ofMinutes(1))
+                    .assertNext(response -> assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.statusCode()))
+                    .verifyComplete();
+        }
+
+        //then
+        assertEquals(6, calls.get());
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, filter.state("runs"));
+        assertEquals(6.0, meterRegistry.get("openai.rate-limited").tag("family", "runs").counter().count());
+    }
+
+    @Test
+    void Retry_After_헤더_파싱() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Retry-After", "2");
+        assertEquals(Duration.ofSeconds(2), OpenAiResilienceFilter.retryAfter(headers));
+
+        headers.set("retry-after-ms", "150");
+        assertEquals(Duration.ofMillis(150), OpenAiResilienceFilter.retryAfter(headers));
+
+        assertNull(OpenAiResilienceFilter.retryAfter(new HttpHeaders()));
+    }
+}
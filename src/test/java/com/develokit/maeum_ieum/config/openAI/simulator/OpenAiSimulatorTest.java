@@ -0,0 +1,88 @@
+package com.develokit.maeum_ieum.config.openAI.simulator;
+
+import com.develokit.maeum_ieum.config.openAI.GptWebClient;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamEventDecoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.develokit.maeum_ieum.dto.openAi.gpt.ReqDto.CreateGptMessageReqDto;
+import static com.develokit.maeum_ieum.dto.openAi.gpt.ReqDto.CreateGptMessageReqDto.MessageDto;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAiSimulatorTest {
+
+    private OpenAiSimulator simulator;
+
+    @AfterEach
+    void tearDown() {
+        if (simulator != null) simulator.close();
+    }
+
+    @Test
+    void 채팅_완성_스트림을_토큰_속도에_맞춰_전송() {
+        //given: 첫 토큰 200ms, 초당 100토큰
+        simulator = OpenAiSimulator.start(OpenAiSimulator.Settings.builder().ttftMs(200).tokensPerSecond(100).answer("오늘도 좋은 하루").build());
+        GptWebClient gptWebClient = new GptWebClient(WebClient.create(simulator.baseUrl()), new StreamEventDecoder());
+
+        //when
+        long startedAt = System.nanoTime();
+        List<String> deltas = gptWebClient.streamGptMessage(new CreateGptMessageReqDto("gpt-3.5-turbo", new MessageDto("system", "system"), new MessageDto("user", "user"), 400))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+        //then: 두 글자씩 5개 토큰 -> 200ms + 4 * 10ms 이상
+        assertEquals("오늘도 좋은 하루", String.join("", deltas));
+        assertEquals(5, deltas.size());
+        assertTrue(elapsedMs >= 240, "elapsed " + elapsedMs);
+        assertEquals(1, simulator.requestCount("chat"));
+    }
+
+    @Test
+    void 런_스트림은_생성부터_완료까지_이벤트_순서대로() {
+        //given
+        simulator = OpenAiSimulator.start(OpenAiSimulator.Settings.builder().ttftMs(0).tokensPerSecond(0).answer("안녕하세요").build());
+
+        //when
+        List<ServerSentEvent<String>> events = WebClient.create(simulator.baseUrl()).post()
+                .uri("/threads/{threadId}/runs", "thread_1")
+                .bodyValue(Map.of("assistant_id", "asst_1", "stream", true))
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        //then
+        List<String> names = events.stream().map(ServerSentEvent::event).toList();
+        assertEquals("thread.run.created", names.get(0));
+        assertEquals(List.of("thread.message.delta", "thread.message.delta", "thread.message.delta"),
+                names.stream().filter("thread.message.delta"::equals).toList());
+        assertEquals(List.of("thread.message.completed", "thread.run.completed", "done"), names.subList(names.size() - 3, names.size()));
+    }
+
+    @Test
+    void N번째_요청마다_429와_retry_after_응답() {
+        //given
+        simulator = OpenAiSimulator.start(OpenAiSimulator.Settings.builder().rateLimitEvery(2).retryAfterMs(1500).build());
+        WebClient webClient = WebClient.create(simulator.baseUrl());
+
+        //when
+        ClientResponse first = webClient.post().uri("/threads").exchangeToMono(r -> r.releaseBody().thenReturn(r)).block();
+        ClientResponse second = webClient.post().uri("/threads").exchangeToMono(r -> r.releaseBody().thenReturn(r)).block();
+
+        //then
+        assertEquals(200, first.statusCode().value());
+        assertEquals(429, second.statusCode().value());
+        assertEquals("1500", second.headers().asHttpHeaders().getFirst("retry-after-ms"));
+        assertEquals("2", second.headers().asHttpHeaders().getFirst("Retry-After"));
+        assertEquals(2, simulator.requestCount("threads"));
+    }
+}
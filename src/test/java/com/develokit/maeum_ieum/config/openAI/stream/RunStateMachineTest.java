@@ -0,0 +1,66 @@
+package com.develokit.maeum_ieum.config.openAI.stream;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunStateMachineTest {
+
+    @Test
+    void 이벤트_순서대로_상태_전이() {
+        //given
+        RunStateMachine run = new RunStateMachine();
+
+        //when & then
+        assertEquals(RunStateMachine.State.IN_PROGRESS, run.apply(new RunEvent.Created("run_1", "thread_1")));
+        assertEquals(RunStateMachine.State.IN_PROGRESS, run.apply(new RunEvent.Delta("안녕")));
+        assertEquals(RunStateMachine.State.ANSWERED, run.apply(new RunEvent.Completed("안녕하세요")));
+        assertEquals(RunStateMachine.State.COMPLETED, run.apply(new RunEvent.Usage(10, 5, 15)));
+        //종료 후 이벤트는 무시
+        assertEquals(RunStateMachine.State.COMPLETED, run.apply(new RunEvent.Failed("failed", "server_error", null)));
+        assertEquals(new RunStateMachine.Result("run_1", "thread_1", "안녕하세요", new RunEvent.Usage(10, 5, 15)), run.result());
+        assertEquals(1, run.deltas());
+    }
+
+    @Test
+    void 완료까지_따라가서_답변과_사용량_반환() {
+        //given
+        Flux<RunEvent> events = Flux.just(
+                new RunEvent.Created("run_1", "thread_1"),
+                new RunEvent.Delta("네"),
+                new RunEvent.Completed("네, 알겠어요"),
+                new RunEvent.Usage(100, 4, 104));
+
+        //when & then
+        StepVerifier.create(RunStateMachine.await(events))
+                .expectNext(new RunStateMachine.Result("run_1", "thread_1", "네, 알겠어요", new RunEvent.Usage(100, 4, 104)))
+                .verifyComplete();
+    }
+
+    @Test
+    void 실패_이벤트를_받으면_남은_스트림을_기다리지_않고_종료() {
+        //given: 실패 이후에도 스트림이 닫히지 않는 상황
+        Flux<RunEvent> events = Flux.<RunEvent>just(new RunEvent.Created("run_1", "thread_1"), new RunEvent.Failed("failed", "rate_limit_exceeded", "Rate limit reached"))
+                .concatWith(Flux.never());
+
+        //when & then
+        StepVerifier.create(RunStateMachine.await(events))
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(CustomApiException.class, e);
+                    assertEquals(429, ((CustomApiException) e).getCode());
+                })
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void 답변_없이_스트림이_끝나면_에러() {
+        StepVerifier.create(RunStateMachine.await(Flux.just(new RunEvent.Created("run_1", "thread_1"))))
+                .expectError(CustomApiException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,115 @@
+package com.develokit.maeum_ieum.config.openAI.stream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamEventDecoderTest {
+
+    private final StreamEventDecoder streamEventDecoder = new StreamEventDecoder();
+
+    @Test
+    void 델타_이벤트에서_텍스트_추출() throws Exception {
+        //given
+        String data = "{\"id\":\"msg_1\",\"object\":\"thread.message.delta\",\"delta\":{\"content\":[{\"index\":0,\"type\":\"text\",\"text\":{\"value\":\"안녕\",\"annotations\":[]}}]}}";
+
+        //when
+        String result = streamEventDecoder.extractDeltaText(data);
+
+        //then
+        assertEquals("안녕", result);
+    }
+
+    @Test
+    void 델타_이벤트_필드_순서가_달라도_추출() throws Exception {
+        //given: 앞에 객체/배열 필드가 끼어 있어도 건너뛰어야 함
+        String data = "{\"meta\":{\"content\":[{\"text\":{\"value\":\"X\"}}]},\"delta\":{\"role\":\"assistant\",\"content\":[{\"text\":{\"annotations\":[{\"a\":1}],\"value\":\"하세요\"},\"index\":0}]}}";
+
+        //when
+        String result = streamEventDecoder.extractDeltaText(data);
+
+        //then
+        assertEquals("하세요", result);
+    }
+
+    @Test
+    void 델타_content가_비어있으면_null() throws Exception {
+        assertNull(streamEventDecoder.extractDeltaText("{\"delta\":{\"content\":[]}}"));
+        assertNull(streamEventDecoder.extractDeltaText("{\"delta\":{}}"));
+        assertNull(streamEventDecoder.extractDeltaText("{\"id\":\"run_1\",\"status\":\"queued\"}"));
+    }
+
+    @Test
+    void 완료_이벤트에서_전체_답변_추출() throws Exception {
+        //given
+        String data = "{\"id\":\"msg_1\",\"object\":\"thread.message\",\"status\":\"completed\",\"attachments\":[],\"content\":[{\"type\":\"text\",\"text\":{\"value\":\"안녕하세요, 어르신!\",\"annotations\":[]}}],\"metadata\":{}}";
+
+        //when
+        String result = streamEventDecoder.extractCompletedText(data);
+
+        //then
+        assertEquals("안녕하세요, 어르신!", result);
+    }
+
+    @Test
+    void 완료_이벤트_content가_비어있으면_null() throws Exception {
+        assertNull(streamEventDecoder.extractCompletedText("{\"id\":\"msg_1\",\"content\":[]}"));
+    }
+
+    @Test
+    void 런_생성_이벤트에서_런아이디_추출() throws Exception {
+        //given: id 앞에 객체 필드가 있어도 건너뜀
+        String data = "{\"metadata\":{\"id\":\"x\"},\"id\":\"run_abc\",\"object\":\"thread.run\",\"status\":\"queued\"}";
+
+        //when & then
+        assertEquals("run_abc", streamEventDecoder.extractId(data));
+        assertNull(streamEventDecoder.extractId("{\"object\":\"thread.run\"}"));
+        assertEquals(new RunEvent.Created("run_abc", "thread_xyz"),
+                streamEventDecoder.decodeRunEvent("thread.run.created", "{\"metadata\":{\"id\":\"x\"},\"id\":\"run_abc\",\"thread_id\":\"thread_xyz\",\"status\":\"queued\"}"));
+    }
+
+    @Test
+    void 채팅_완성_청크에서_델타_추출() throws Exception {
+        //given
+        String data = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"model\":\"gpt-3.5-turbo\",\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\",\"content\":\"하루\"},\"finish_reason\":null}]}";
+
+        //when & then
+        assertEquals("하루", streamEventDecoder.extractChatDelta(data));
+        assertNull(streamEventDecoder.extractChatDelta("{\"choices\":[{\"index\":0,\"delta\":{},\"finish_reason\":\"stop\"}]}"));
+        assertNull(streamEventDecoder.extractChatDelta("{\"choices\":[]}"));
+    }
+
+    @Test
+    void 런_완료_이벤트에서_토큰_사용량_추출() throws Exception {
+        //given
+        String data = "{\"id\":\"run_1\",\"object\":\"thread.run\",\"status\":\"completed\",\"tools\":[{\"type\":\"file_search\"}],\"usage\":{\"prompt_tokens\":120,\"completion_tokens\":35,\"total_tokens\":155}}";
+
+        //when
+        RunEvent result = streamEventDecoder.decodeRunEvent("thread.run.completed", data);
+
+        //then
+        assertEquals(new RunEvent.Usage(120, 35, 155), result);
+        assertEquals(RunEvent.Usage.EMPTY, streamEventDecoder.decodeRunEvent("thread.run.completed", "{\"id\":\"run_1\",\"usage\":null}"));
+    }
+
+    @Test
+    void 런_실패_이벤트에서_에러_코드와_메시지_추출() throws Exception {
+        //given
+        String failed = "{\"id\":\"run_1\",\"status\":\"failed\",\"last_error\":{\"code\":\"rate_limit_exceeded\",\"message\":\"Rate limit reached\"},\"incomplete_details\":null}";
+        String incomplete = "{\"id\":\"run_1\",\"status\":\"incomplete\",\"last_error\":null,\"incomplete_details\":{\"reason\":\"max_completion_tokens\"}}";
+        String error = "{\"error\":{\"message\":\"서버 오류\",\"type\":\"server_error\",\"code\":\"server_error\"}}";
+
+        //when & then
+        assertEquals(new RunEvent.Failed("failed", "rate_limit_exceeded", "Rate limit reached"), streamEventDecoder.decodeRunEvent("thread.run.failed", failed));
+        assertEquals(new RunEvent.Failed("incomplete", "max_completion_tokens", null), streamEventDecoder.decodeRunEvent("thread.run.incomplete", incomplete));
+        assertEquals(new RunEvent.Failed("error", "server_error", "서버 오류"), streamEventDecoder.decodeRunEvent("error", error));
+        assertEquals(new RunEvent.Failed("expired", null, null), streamEventDecoder.decodeRunEvent("thread.run.expired", "{\"id\":\"run_1\",\"last_error\":null}"));
+    }
+
+    @Test
+    void 관심없는_런_이벤트는_null() throws Exception {
+        assertNull(streamEventDecoder.decodeRunEvent("thread.run.in_progress", "{\"id\":\"run_1\"}"));
+        assertNull(streamEventDecoder.decodeRunEvent("thread.message.created", "{\"id\":\"msg_1\"}"));
+        assertNull(streamEventDecoder.decodeRunEvent("done", "[DONE]"));
+    }
+}
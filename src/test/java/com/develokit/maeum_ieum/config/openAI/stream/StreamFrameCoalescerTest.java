@@ -0,0 +1,77 @@
+package com.develokit.maeum_ieum.config.openAI.stream;
+
+import com.develokit.maeum_ieum.dto.message.RespDto.CreateStreamMessageRespDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamFrameCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+    private final StreamFrameCoalescer coalescer = new StreamFrameCoalescer(meterRegistry, 40, 20, true, timer);
+
+    private static CreateStreamMessageRespDto delta(String text) {
+        return new CreateStreamMessageRespDto(text, false, null);
+    }
+
+    @Test
+    void 첫_토큰은_바로_나머지는_시간창_단위로_병합() {
+        //given
+        Sinks.Many<CreateStreamMessageRespDto> upstream = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.create(coalescer.coalesce(upstream.asFlux()))
+                .then(() -> upstream.tryEmitNext(delta("안")))
+                .assertNext(frame -> assertEquals("안", frame.getAnswer())) //첫 토큰
+                .then(() -> {
+                    upstream.tryEmitNext(delta("녕"));
+                    upstream.tryEmitNext(delta("하세"));
+                })
+                .then(() -> timer.advanceTimeBy(Duration.ofMillis(40)))
+                .assertNext(frame -> assertEquals("녕하세", frame.getAnswer()))
+                .then(() -> {
+                    upstream.tryEmitNext(delta("요"));
+                    upstream.tryEmitNext(new CreateStreamMessageRespDto(null, true, "2024-08-01"));
+                })
+                .assertNext(frame -> assertEquals("요", frame.getAnswer())) //마지막 프레임 전에 남은 델타
+                .assertNext(frame -> assertTrue(frame.isLast()))
+                .then(upstream::tryEmitComplete)
+                .verifyComplete();
+
+        //then
+        assertEquals(4.0, meterRegistry.get("chat.stream.frames").tag("stage", "upstream").counter().count());
+        assertEquals(4.0, meterRegistry.get("chat.stream.frames").tag("stage", "downstream").counter().count());
+        assertTrue(meterRegistry.get("chat.stream.bytes.saved").counter().count() > 0);
+    }
+
+    @Test
+    void 문장이_끝나거나_글자수를_넘으면_바로_내보냄() {
+        //when
+        Flux<CreateStreamMessageRespDto> result = coalescer.coalesce(Flux.just(
+                delta("네"), delta("좋아요"), delta("."),              //문장 끝
+                delta("오늘은 날씨가 아주 "), delta("맑고 따뜻한 하루입니다 ") //20자 초과
+        ));
+
+        //then
+        StepVerifier.create(result)
+                .assertNext(frame -> assertEquals("네", frame.getAnswer()))
+                .assertNext(frame -> assertEquals("좋아요.", frame.getAnswer()))
+                .assertNext(frame -> assertEquals("오늘은 날씨가 아주 맑고 따뜻한 하루입니다 ", frame.getAnswer()))
+                .verifyComplete();
+    }
+
+    @Test
+    void 시간창이_0이면_병합하지_않음() {
+        StreamFrameCoalescer disabled = new StreamFrameCoalescer(meterRegistry, 0, 20, true, timer);
+        StepVerifier.create(disabled.coalesce(Flux.just(delta("a"), delta("b"))))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,166 @@
+package com.develokit.maeum_ieum.domain.report;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 빈 보고서 생성 문장 수/시간 비교: 기존 방식(노인마다 exists + save, 2N+1) vs INSERT ... SELECT vs JDBC 배치 insert.
+ * 노인 load.elderly 명(기본 100,000) 중 10명에 1명은 이미 대기 보고서가 있다. H2 인메모리 기준.
+ * ./gradlew loadTest -Dload.elderly=300000 처럼 크기를 바꿔 돌릴 수 있다.
+ */
+@Tag("load")
+class ReportJdbcRepositoryLoadTest {
+
+    private static final int ELDERLY = Integer.getInteger("load.elderly", 100_000);
+    private static final int BATCH_SIZE = 1000;
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19); //월요일
+
+    private final AtomicLong statements = new AtomicLong();
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:report-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource = new SingleConnectionDataSource(counting(connection), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("create table elderly (elderly_id bigint primary key, report_day varchar(255))");
+        jdbcTemplate.execute("create table report (id bigint auto_increment primary key, elderly_id bigint not null, " +
+                "report_type varchar(255) not null, report_status varchar(255), start_date date, report_day varchar(255), " +
+                "created_date timestamp, last_modified_date timestamp)");
+        jdbcTemplate.execute("create index idx_report_elderly on report (elderly_id)");
+        jdbcTemplate.update("insert into elderly select x, " +
+                "case mod(x, 7) when 0 then 'MONDAY' when 1 then 'TUESDAY' when 2 then 'WEDNESDAY' when 3 then 'THURSDAY' " +
+                "when 4 then 'FRIDAY' when 5 then 'SATURDAY' else 'SUNDAY' end from system_range(1, ?)", ELDERLY);
+        //10명에 1명은 이미 대기 중인 주간/월간 보고서가 있음
+        jdbcTemplate.update("insert into report (elderly_id, report_type, report_status, start_date, report_day) " +
+                "select x, 'MONTHLY', 'PENDING', date '2026-09-19', 'FRIDAY' from system_range(1, ?) where mod(x, 10) = 0", ELDERLY);
+        jdbcTemplate.update("insert into report (elderly_id, report_type, report_status, start_date, report_day) " +
+                "select x, 'WEEKLY', 'PENDING', date '2026-10-12', 'MONDAY' from system_range(1, ?) where mod(x, 10) = 0", ELDERLY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("shutdown");
+        dataSource.destroy();
+    }
+
+    @Test
+    void 기존_방식_대비_문장_수와_처리_시간() {
+        int expectedMonthly = ELDERLY - ELDERLY / 10;
+
+        long[] legacy = measure("legacy (2N+1)", this::legacyMonthly);
+        jdbcTemplate.update("delete from report where start_date = ?", TODAY);
+
+        ReportJdbcRepository insertSelect = new ReportJdbcRepository(jdbcTemplate, true, BATCH_SIZE);
+        long[] setBased = measure("insert-select", () -> insertSelect.insertMissingMonthlyReports(TODAY));
+        //두 번째 실행은 이미 대기 보고서가 있어 아무것도 만들지 않음
+        assertEquals(0, insertSelect.insertMissingMonthlyReports(TODAY));
+        jdbcTemplate.update("delete from report where start_date = ?", TODAY);
+
+        ReportJdbcRepository batch = new ReportJdbcRepository(jdbcTemplate, false, BATCH_SIZE);
+        long[] batched = measure("jdbc batch", () -> batch.insertMissingMonthlyReports(TODAY));
+
+        //then: [생성 수, 문장 수, ms]
+        assertEquals(expectedMonthly, legacy[0]);
+        assertEquals(expectedMonthly, setBased[0]);
+        assertEquals(expectedMonthly, batched[0]);
+        assertEquals(2L * ELDERLY - ELDERLY / 10 + 1, legacy[1]);
+        assertEquals(1, setBased[1]);
+        assertEquals(1 + (expectedMonthly + BATCH_SIZE - 1) / BATCH_SIZE, batched[1]);
+        assertTrue(setBased[2] < legacy[2], "insert-select " + setBased[2] + "ms >= legacy " + legacy[2] + "ms");
+    }
+
+    @Test
+    void 주간_보고서는_보고_요일이_오늘이고_대기_보고서가_없는_노인만() {
+        //given
+        long mondayElderly = jdbcTemplate.queryForObject("select count(*) from elderly where report_day = 'MONDAY'", Long.class);
+        long mondayPending = jdbcTemplate.queryForObject("select count(*) from elderly e join report r on r.elderly_id = e.elderly_id " +
+                "where e.report_day = 'MONDAY' and r.report_type = 'WEEKLY' and r.report_status = 'PENDING' and r.report_day = 'MONDAY'", Long.class);
+        ReportJdbcRepository insertSelect = new ReportJdbcRepository(jdbcTemplate, true, BATCH_SIZE);
+        ReportJdbcRepository batch = new ReportJdbcRepository(jdbcTemplate, false, BATCH_SIZE);
+
+        //when
+        int created = insertSelect.insertMissingWeeklyReports(TODAY);
+        int createdAgain = batch.insertMissingWeeklyReports(TODAY);
+
+        //then
+        assertEquals(mondayElderly - mondayPending, created);
+        assertEquals(0, createdAgain);
+        assertEquals(List.of("MONDAY"), jdbcTemplate.queryForList(
+                "select distinct report_day from report where start_date = ? and report_type = 'WEEKLY'", String.class, TODAY));
+    }
+
+    //기존 ReportService.createMonthlyEmptyReports 와 같은 문장: findAll 1번 + 노인마다 exists 1번 + 없으면 insert 1번
+    private int legacyMonthly() {
+        int created = 0;
+        for (Long elderlyId : jdbcTemplate.queryForList("select elderly_id from elderly", Long.class)) {
+            boolean exists = jdbcTemplate.queryForObject("select case when count(*) > 0 then true else false end from report " +
+                    "where elderly_id = ? and report_type = 'MONTHLY' and report_status = 'PENDING'", Boolean.class, elderlyId);
+            if (!exists) {
+                jdbcTemplate.update("insert into report (elderly_id, report_type, report_status, start_date, report_day, created_date, last_modified_date) " +
+                        "values (?, 'MONTHLY', 'PENDING', ?, ?, current_timestamp, current_timestamp)", elderlyId, TODAY, TODAY.getDayOfWeek().name());
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private long[] measure(String label, IntSupplier creation) {
+        statements.set(0);
+        long startedAt = System.nanoTime();
+        int created = creation.getAsInt();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+        long count = statements.get();
+
+        System.out.printf("[%s] 노인 %d명, 생성 %d건: 문장 %d개, %dms%n", label, ELDERLY, created, count, elapsedMs);
+        return new long[]{created, count, elapsedMs};
+    }
+
+    //실행(execute*) 호출 수를 세는 커넥션. 배치 실행(executeBatch)은 1번으로 센다
+    private Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement) return countingStatement(result, CallableStatement.class);
+            if (result instanceof PreparedStatement) return countingStatement(result, PreparedStatement.class);
+            if (result instanceof Statement) return countingStatement(result, Statement.class);
+            return result;
+        });
+    }
+
+    private Object countingStatement(Object statement, Class<?> type) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) statements.incrementAndGet();
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.develokit.maeum_ieum.service.assistant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.develokit.maeum_ieum.dto.assistant.RespDto.AssistantMandatoryRuleRespDto;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MandatoryRuleCacheTest {
+
+    private final long[] clock = {0};
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MandatoryRuleCache cache = new MandatoryRuleCache(meterRegistry, 2, 60, () -> clock[0]);
+
+    @Test
+    void 동시에_들어온_같은_요청은_호출_하나로_합침() {
+        //given: 응답이 아직 오지 않은 호출
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<AssistantMandatoryRuleRespDto> upstream = Sinks.one();
+        AssistantMandatoryRuleRespDto answer = new AssistantMandatoryRuleRespDto();
+
+        //when: 띄어쓰기만 다른 요청 두 건
+        Mono<AssistantMandatoryRuleRespDto> first = cache.getOrLoad("m", "매일 약 복용 확인", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<AssistantMandatoryRuleRespDto> second = cache.getOrLoad("m", "  매일  약 복용 확인 ", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        //then
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> upstream.tryEmitValue(answer))
+                .assertNext(pair -> {
+                    assertSame(answer, pair.getT1());
+                    assertSame(answer, pair.getT2());
+                })
+                .verifyComplete();
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.get("openai.autocomplete.cache").tag("result", "joined").counter().count());
+
+        //when & then: 이후 요청은 캐시에서
+        assertSame(answer, cache.getOrLoadBlocking("m", "매일 약 복용 확인", () -> fail("캐시를 사용해야 함")));
+    }
+
+    @Test
+    void 실패는_캐시하지_않고_TTL이_지나면_다시_호출() {
+        //given
+        AtomicInteger calls = new AtomicInteger();
+
+        //when & then: 실패 후에는 다시 호출
+        assertThrows(IllegalStateException.class, () -> cache.getOrLoadBlocking("m", "규칙", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("OPENAI_SERVER_ERROR");
+        }));
+        AssistantMandatoryRuleRespDto answer = cache.getOrLoadBlocking("m", "규칙", () -> {
+            calls.incrementAndGet();
+            return new AssistantMandatoryRuleRespDto();
+        });
+        assertSame(answer, cache.getOrLoadBlocking("m", "규칙", AssistantMandatoryRuleRespDto::new));
+        assertEquals(2, calls.get());
+
+        //when & then: 60초 뒤 만료, 모델이 다르면 다른 키
+        clock[0] = Duration.ofSeconds(61).toNanos();
+        assertNotSame(answer, cache.getOrLoadBlocking("m", "규칙", AssistantMandatoryRuleRespDto::new));
+        assertNotEquals(MandatoryRuleCache.key("a", "규칙"), MandatoryRuleCache.key("b", "규칙"));
+    }
+
+    @Test
+    void 스트림으로_저장한_규칙은_다른_버전에서도_캐시_사용() {
+        //given
+        assertTrue(cache.find("m", "매일 약 복용 확인").isEmpty());
+
+        //when
+        cache.store("m", "매일 약 복용 확인", new AssistantMandatoryRuleRespDto("약 복용 여부를 매일 여쭤본다"));
+
+        //then
+        assertEquals("약 복용 여부를 매일 여쭤본다", cache.find("m", " 매일 약 복용 확인").orElseThrow().getMandatoryRule());
+        assertEquals("약 복용 여부를 매일 여쭤본다", cache.getOrLoadBlocking("m", "매일 약 복용 확인", () -> fail("캐시를 사용해야 함")).getMandatoryRule());
+        assertEquals(1.0, meterRegistry.get("openai.autocomplete.cache").tag("result", "miss").counter().count());
+    }
+}
@@ -0,0 +1,112 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.domain.message.Message;
+import com.develokit.maeum_ieum.domain.message.MessageRepository;
+import com.develokit.maeum_ieum.domain.message.MessageRepository.MessageVolume;
+import com.develokit.maeum_ieum.domain.message.MessageType;
+import com.develokit.maeum_ieum.dto.message.RespDto.CreateStreamMessageRespDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.develokit.maeum_ieum.dto.openAi.thread.ReqDto.CreateThreadReqDto.MessagesDto;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConversationContextManagerTest {
+
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConversationContextManager manager = new ConversationContextManager(messageRepository, meterRegistry, 1000, 1.5, 2, 10, 2);
+
+    @Test
+    void 메시지_글자수로_토큰을_추정하고_예산_초과_판단() {
+        //given: 메시지 10개, 1500자 -> 1000 + 10*4 = 1040 토큰
+        when(messageRepository.findVolumeSince(any(), any())).thenReturn(volume(10, 1500));
+
+        //when
+        long tokens = manager.estimateTokens("thread_1", null, LocalDateTime.now().minusDays(1));
+
+        //then
+        assertEquals(1040, tokens);
+        assertTrue(manager.exceedsBudget(tokens));
+        assertEquals("lt2k", manager.bucket("thread_1"));
+        assertEquals(1, meterRegistry.get("chat.context.tokens").summary().count());
+    }
+
+    @Test
+    void 추적하는_스레드는_최대_개수까지만_LRU로_보관() {
+        //when: 최대 2개, thread_1 을 다시 사용한 뒤 thread_3 추가
+        manager.recordTurn("thread_1", "질문", "답변");
+        manager.recordTurn("thread_2", "질문", "답변");
+        manager.recordTurn("thread_1", "질문", "답변");
+        manager.recordTurn("thread_3", "질문", "답변");
+
+        //then: 가장 오래 쓰지 않은 thread_2 가 빠짐
+        assertEquals(2, manager.trackedThreads());
+        assertTrue(manager.trackedTokens("thread_1") > 0);
+        assertEquals(-1, manager.trackedTokens("thread_2"));
+        assertEquals("unknown", manager.bucket("thread_2"));
+    }
+
+    @Test
+    void 최근_대화를_시간순으로_줄여서_요약_메시지_하나로_생성() {
+        //given: 최신순으로 조회됨
+        when(messageRepository.findByElderly(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                message(MessageType.AI, "오늘은 날씨가 맑고 따뜻하대요"),
+                message(MessageType.USER, "오늘 날씨 어때?")
+        )));
+
+        //when
+        List<MessagesDto> seed = manager.seedMessages(null);
+
+        //then
+        assertEquals(1, seed.size());
+        assertEquals("user", seed.get(0).getRole());
+        String summary = seed.get(0).getContent();
+        assertTrue(summary.startsWith("[이전 대화 요약]"));
+        assertTrue(summary.indexOf("어르신: 오늘 날씨 어때?") < summary.indexOf("AI: 오늘은 날씨가 맑고…"));
+    }
+
+    @Test
+    void 스트림_턴이_끝나면_토큰_누적과_지연시간_기록() {
+        //given
+        when(messageRepository.findVolumeSince(any(), any())).thenReturn(volume(0, 0));
+        manager.estimateTokens("thread_1", null, LocalDateTime.now());
+        Flux<CreateStreamMessageRespDto> frames = Flux.just(
+                new CreateStreamMessageRespDto("안녕하세요", false, null),
+                new CreateStreamMessageRespDto("안녕하세요", true, "2024-08-01 10:00")
+        );
+
+        //when
+        StepVerifier.create(manager.trackStream("thread_1", "안녕", frames))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        //then: ceil(2/1.5) + ceil(5/1.5) + 2*4
+        assertEquals(2 + 4 + 8, manager.trackedTokens("thread_1"));
+        assertEquals(1, meterRegistry.get("openai.run.latency").tag("context", "lt2k").timer().count());
+    }
+
+    private static Message message(MessageType type, String content) {
+        return Message.builder().messageType(type).content(content).build();
+    }
+
+    private static MessageVolume volume(long messages, long chars) {
+        return new MessageVolume() {
+            @Override
+            public long getMessages() { return messages; }
+
+            @Override
+            public long getChars() { return chars; }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.config.r2dbc.ChatR2dbcConfig;
+import com.develokit.maeum_ieum.domain.user.elderly.ElderlyChatView;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 채팅 스트림 동시 처리량 비교: JPA(boundedElastic + Hikari) vs R2DBC.
+ * 각 스트림은 노인 조회 후 OpenAI 델타를 흉내 낸 지연 스트림을 흘려보낸다.
+ * ./gradlew loadTest -Dload.jdbc.url=... -Dload.r2dbc.url=... 로 실제 MySQL 에 대해 돌릴 수 있다 (기본은 H2 인메모리).
+ */
+@Tag("load")
+class ElderlyChatReaderLoadTest {
+
+    private static final String JDBC_URL = System.getProperty("load.jdbc.url", "jdbc:h2:mem:chatload;DB_CLOSE_DELAY=-1");
+    private static final String R2DBC_URL = System.getProperty("load.r2dbc.url", "r2dbc:h2:mem:///chatload;DB_CLOSE_DELAY=-1");
+    private static final String USERNAME = System.getProperty("load.username", "sa");
+    private static final String PASSWORD = System.getProperty("load.password", "");
+    private static final int POOL_SIZE = Integer.getInteger("load.pool-size", 10);
+    private static final int[] CONCURRENCY = {100, 500, 2000};
+    private static final int ELDERLY_COUNT = 100;
+
+    private static HikariDataSource dataSource;
+    private static ConnectionPool connectionPool;
+
+    private static ElderlyChatReader blockingReader;
+    private static ElderlyChatReader reactiveReader;
+
+    @BeforeAll
+    static void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(JDBC_URL);
+        config.setUsername(USERNAME);
+        config.setPassword(PASSWORD);
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setConnectionTimeout(Duration.ofSeconds(5).toMillis());
+        dataSource = new HikariDataSource(config);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        if (JDBC_URL.startsWith("jdbc:h2")) {
+            jdbcTemplate.execute("create table if not exists assistant (id bigint primary key, open_ai_assistant_id varchar(255), thread_id varchar(255))");
+            jdbcTemplate.execute("create table if not exists elderly (elderly_id bigint primary key, assistant_id bigint)");
+            for (long id = 1; id <= ELDERLY_COUNT; id++) {
+                jdbcTemplate.update("merge into assistant key(id) values (?, ?, ?)", id, "asst_" + id, "thread_" + id);
+                jdbcTemplate.update("merge into elderly key(elderly_id) values (?, ?)", id, id);
+            }
+        }
+
+        //JpaElderlyChatReader 와 같은 방식: 블로킹 조회를 boundedElastic 에서 수행
+        blockingReader = elderlyId -> Mono.fromCallable(() -> jdbcTemplate.query(
+                        "select e.elderly_id, a.id as assistant_id, a.open_ai_assistant_id, a.thread_id from elderly e left join assistant a on a.id = e.assistant_id where e.elderly_id = ?",
+                        (rs, rowNum) -> new ElderlyChatView(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4)),
+                        elderlyId).stream().findFirst())
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty);
+
+        connectionPool = ChatR2dbcConfig.createPool(R2DBC_URL, USERNAME, PASSWORD, POOL_SIZE, POOL_SIZE);
+        reactiveReader = new R2dbcElderlyChatReader(DatabaseClient.create(connectionPool));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        connectionPool.dispose();
+        dataSource.close();
+    }
+
+    @Test
+    void 동시_스트림_수별_JPA_R2DBC_비교() {
+        System.out.printf("%-8s %10s %8s %8s %10s %10s%n", "reader", "streams", "ok", "failed", "p99(ms)", "peakThr");
+        for (int concurrency : CONCURRENCY) {
+            Result blocking = run(blockingReader, concurrency);
+            Result reactive = run(reactiveReader, concurrency);
+            System.out.printf("%-8s %10d %8d %8d %10d %10d%n", "jpa", concurrency, blocking.ok, blocking.failed, blocking.p99Millis, blocking.peakThreads);
+            System.out.printf("%-8s %10d %8d %8d %10d %10d%n", "r2dbc", concurrency, reactive.ok, reactive.failed, reactive.p99Millis, reactive.peakThreads);
+
+            assertEquals(concurrency, reactive.ok, "R2DBC 경로는 모든 스트림을 처리해야 함");
+        }
+    }
+
+    private Result run(ElderlyChatReader reader, int concurrency) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<Long> lookupMillis = Collections.synchronizedList(new ArrayList<>());
+
+        Flux.range(0, concurrency)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return reader.findChatView((long) (i % ELDERLY_COUNT) + 1)
+                            .doOnNext(view -> lookupMillis.add(Duration.ofNanos(System.nanoTime() - start).toMillis()))
+                            //OpenAI 델타 스트림 흉내 (논블로킹 지연)
+                            .flatMapMany(view -> Flux.interval(Duration.ofMillis(20)).take(25))
+                            .then()
+                            .doOnSuccess(v -> ok.incrementAndGet())
+                            .onErrorResume(e -> {
+                                failed.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, concurrency)
+                .blockLast(Duration.ofMinutes(2));
+
+        List<Long> sorted = new ArrayList<>(lookupMillis);
+        Collections.sort(sorted);
+        long p99 = sorted.isEmpty() ? -1 : sorted.get(Math.max(0, (int) Math.ceil(sorted.size() * 0.99) - 1));
+        return new Result(ok.get(), failed.get(), p99, threads.getPeakThreadCount());
+    }
+
+    private record Result(int ok, int failed, long p99Millis, int peakThreads) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.domain.message.MessageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageJournalTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path spoolDir;
+
+    private MessageJournal messageJournal;
+
+    @BeforeEach
+    void setUp() {
+        //flusher 스레드는 띄우지 않고 flush()를 직접 호출
+        messageJournal = new MessageJournal(jdbcTemplate, transactionManager, 2, 100, 200, spoolDir.toString());
+    }
+
+    @Test
+    void append는_DB를_호출하지_않고_큐에만_적재() {
+        //when
+        LocalDateTime answeredAt = messageJournal.append(1L, "안녕", LocalDateTime.now(), "안녕하세요");
+
+        //then
+        assertNotNull(answeredAt);
+        assertEquals(1, messageJournal.pendingCount());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush시_메시지는_insert문_하나로_저장되고_마지막대화시간은_노인별_최신값() {
+        //given
+        LocalDateTime first = LocalDateTime.of(2024, 8, 1, 10, 0);
+        LocalDateTime second = first.plusMinutes(5);
+        messageJournal.append(1L, "질문1", first, "답변1");
+        messageJournal.append(1L, "질문2", second, "답변2");
+
+        //when
+        messageJournal.flush();
+
+        //then: 4행을 문장 하나로
+        ArgumentCaptor<Object[]> messageArgs = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(eq(MessageJournal.insertMessagesSql(4)), messageArgs.capture());
+        assertEquals(20, messageArgs.getValue().length);
+        assertEquals(MessageType.USER.name(), messageArgs.getValue()[1]);
+        assertEquals(MessageType.AI.name(), messageArgs.getValue()[6]);
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        List<Object[]> elderlyRows = captor.getValue();
+        assertEquals(1, elderlyRows.size());
+        assertEquals(Timestamp.valueOf(second), elderlyRows.get(0)[0]);
+        assertEquals(0, messageJournal.pendingCount());
+    }
+
+    @Test
+    void DB저장_실패시_스풀에_기록후_다음_flush에서_재저장() throws Exception {
+        //given
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("DB 다운"))
+                .thenReturn(2);
+        messageJournal.append(1L, "질문", LocalDateTime.now(), "답변");
+
+        //when
+        messageJournal.flush();
+
+        //then
+        Path spool = spoolDir.resolve("pending-messages.jsonl");
+        assertTrue(Files.exists(spool));
+        assertEquals(1, Files.readAllLines(spool).size());
+
+        //when: DB 복구 후 다음 주기
+        messageJournal.flush();
+
+        //then
+        assertFalse(Files.exists(spool));
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void 값_묶음은_행_수만큼() {
+        assertEquals("insert into message (elderly_id, message_type, content, created_date, last_modified_date) values (?, ?, ?, ?, ?), (?, ?, ?, ?, ?)",
+                MessageJournal.insertMessagesSql(2));
+    }
+
+    @Test
+    void 큐가_가득차면_스풀로_넘김() throws Exception {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+
+        //when: 용량 2
+        messageJournal.append(1L, "1", now, "1");
+        messageJournal.append(1L, "2", now, "2");
+        messageJournal.append(1L, "3", now, "3");
+
+        //then
+        assertEquals(2, messageJournal.pendingCount());
+        assertEquals(1, Files.readAllLines(spoolDir.resolve("pending-messages.jsonl")).size());
+    }
+}
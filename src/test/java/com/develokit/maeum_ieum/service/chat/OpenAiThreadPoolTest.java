@@ -0,0 +1,94 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.domain.thread.PooledThread;
+import com.develokit.maeum_ieum.domain.thread.PooledThreadRepository;
+import com.develokit.maeum_ieum.service.OpenAiService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.develokit.maeum_ieum.dto.openAi.thread.RespDto.ThreadRespDto;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OpenAiThreadPoolTest {
+
+    private final PooledThreadRepository pooledThreadRepository = mock(PooledThreadRepository.class);
+    private final OpenAiService openAiService = mock(OpenAiService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    //목표 5개, 한 번에 최대 2개, 72시간 지나면 만료
+    private final OpenAiThreadPool threadPool = new OpenAiThreadPool(pooledThreadRepository, openAiService,
+            mock(PlatformTransactionManager.class), meterRegistry, true, 5, 2, 10_000, 72);
+
+    private PooledThread pooled(Long id, String threadId) {
+        PooledThread pooledThread = new PooledThread(threadId);
+        ReflectionTestUtils.setField(pooledThread, "id", id);
+        return pooledThread;
+    }
+
+    @Test
+    void 다른_요청이_먼저_가져간_스레드는_건너뛰고_다음_스레드_점유() {
+        //given
+        when(pooledThreadRepository.findFirstByCreatedDateAfterOrderByIdAsc(any()))
+                .thenReturn(Optional.of(pooled(1L, "thread_1")), Optional.of(pooled(2L, "thread_2")));
+        when(pooledThreadRepository.claim(1L)).thenReturn(0);
+        when(pooledThreadRepository.claim(2L)).thenReturn(1);
+
+        //when
+        Optional<PooledThread> result = threadPool.take();
+
+        //then
+        assertEquals("thread_2", result.orElseThrow().getThreadId());
+        assertEquals(1.0, meterRegistry.get("openai.thread-pool.take").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void 풀이_비어있으면_empty() {
+        //given
+        when(pooledThreadRepository.findFirstByCreatedDateAfterOrderByIdAsc(any())).thenReturn(Optional.empty());
+
+        //when & then
+        assertTrue(threadPool.take().isEmpty());
+        verify(pooledThreadRepository, never()).claim(any());
+        assertEquals(1.0, meterRegistry.get("openai.thread-pool.take").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void 비활성화되면_풀을_조회하지_않고_empty() {
+        //given
+        OpenAiThreadPool disabled = new OpenAiThreadPool(pooledThreadRepository, openAiService,
+                mock(PlatformTransactionManager.class), meterRegistry, false, 5, 2, 10_000, 72);
+
+        //when
+        disabled.start();
+
+        //then
+        assertTrue(disabled.take().isEmpty());
+        verifyNoInteractions(pooledThreadRepository, openAiService);
+        disabled.shutdown();
+    }
+
+    @Test
+    void 채우기는_만료_스레드를_정리하고_한번에_최대_개수만큼_생성() {
+        //given: 만료 1개, 남은 2개 -> 목표 5개지만 한 번에 2개까지
+        when(pooledThreadRepository.findByCreatedDateLessThanEqualOrderByIdAsc(any(), any())).thenReturn(List.of(pooled(9L, "thread_old")));
+        when(pooledThreadRepository.claim(9L)).thenReturn(1);
+        when(pooledThreadRepository.countByCreatedDateAfter(any())).thenReturn(2L);
+        when(openAiService.createThread()).thenReturn(ThreadRespDto.builder().id("thread_new").build());
+
+        //when
+        threadPool.refill();
+
+        //then
+        verify(openAiService).deleteThread("thread_old");
+        verify(openAiService, times(2)).createThread();
+        verify(pooledThreadRepository, times(2)).save(any(PooledThread.class));
+        assertEquals(4.0, meterRegistry.get("openai.thread-pool.size").gauge().value());
+    }
+}
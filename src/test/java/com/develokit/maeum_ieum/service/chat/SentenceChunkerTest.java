@@ -0,0 +1,40 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class SentenceChunkerTest {
+
+    private final SentenceChunker sentenceChunker = new SentenceChunker(6, 30);
+
+    @Test
+    void 델타를_문장_단위로_분할() {
+        //given: 문장 부호가 델타 경계에 걸쳐 있음
+        Flux<String> deltas = Flux.just("안녕하세요", ", 어르신", ". 오늘", "은 기분이 ", "어떠세요?", " 저는 좋아요");
+
+        //when & then
+        StepVerifier.create(sentenceChunker.chunk(deltas))
+                .expectNext("안녕하세요, 어르신.")
+                .expectNext("오늘은 기분이 어떠세요?")
+                .expectNext("저는 좋아요") //마지막 남은 문장
+                .verifyComplete();
+    }
+
+    @Test
+    void 짧은_문장은_합치고_소수점에서는_자르지_않음() {
+        //when & then
+        StepVerifier.create(sentenceChunker.chunk(Flux.just("네. 체온은 36.5도", "예요. ")))
+                .expectNext("네. 체온은 36.5도예요.")
+                .verifyComplete();
+    }
+
+    @Test
+    void 문장부호가_없어도_최대길이에서_자름() {
+        //when & then
+        StepVerifier.create(sentenceChunker.chunk(Flux.just("가".repeat(45))))
+                .expectNext("가".repeat(30))
+                .expectNext("가".repeat(15))
+                .verifyComplete();
+    }
+}
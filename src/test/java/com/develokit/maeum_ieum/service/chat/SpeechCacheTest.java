@@ -0,0 +1,70 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeechCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SpeechCache speechCache;
+
+    @BeforeEach
+    void setUp() {
+        //세그먼트 100바이트 x 2개
+        speechCache = new SpeechCache(meterRegistry, true, dir.toString(), 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        speechCache.close();
+    }
+
+    @Test
+    void 같은_모델_목소리_문장이면_캐시_적중() {
+        //given
+        byte[] audio = {1, 2, 3, 4};
+        speechCache.put(SpeechCache.key("tts-1", "nova", "약 드실 시간이에요."), audio);
+
+        //when: 공백이 달라도 같은 문장
+        byte[] hit = speechCache.get(SpeechCache.key("tts-1", "nova", "  약 드실   시간이에요. "));
+        byte[] otherVoice = speechCache.get(SpeechCache.key("tts-1", "onyx", "약 드실 시간이에요."));
+
+        //then
+        assertArrayEquals(audio, hit);
+        assertNull(otherVoice);
+        assertEquals(0.5, speechCache.hitRatio());
+    }
+
+    @Test
+    void 용량을_넘으면_가장_오래_사용하지_않은_세그먼트를_버림() {
+        //given: 세그먼트마다 60바이트 하나씩
+        speechCache.put("a", new byte[60]); //세그먼트 0
+        speechCache.put("b", new byte[60]); //세그먼트 1
+        assertNotNull(speechCache.get("a")); //세그먼트 0 최근 사용
+
+        //when: 세그먼트 2 생성 -> 가장 오래 사용하지 않은 세그먼트 1 제거
+        speechCache.put("c", new byte[60]);
+
+        //then
+        assertNotNull(speechCache.get("a"));
+        assertNull(speechCache.get("b"));
+        assertNotNull(speechCache.get("c"));
+        assertEquals(1.0, meterRegistry.get("chat.speech.cache.evictions").counter().count());
+    }
+
+    @Test
+    void 세그먼트보다_큰_음성은_저장하지_않음() {
+        speechCache.put("big", new byte[101]);
+        assertNull(speechCache.get("big"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.develokit.maeum_ieum.service.chat;
+
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadRunMailboxTest {
+
+    private final ThreadRunMailbox mailbox = new ThreadRunMailbox(2);
+
+    @Test
+    void 같은_스레드의_턴은_순서대로_하나씩_실행() {
+        //given
+        List<String> log = new CopyOnWriteArrayList<>();
+        Sinks.Many<String> first = Sinks.many().unicast().onBackpressureBuffer();
+
+        Flux<String> turn1 = mailbox.submit("thread_1", () -> first.asFlux()
+                .doOnSubscribe(s -> log.add("start-1"))
+                .doOnComplete(() -> log.add("end-1")));
+        Flux<String> turn2 = mailbox.submit("thread_1", () -> Flux.just("b")
+                .doOnSubscribe(s -> log.add("start-2")));
+
+        //when
+        StepVerifier.create(Flux.merge(turn1, turn2))
+                .then(() -> assertEquals(List.of("start-1"), log)) //첫 턴이 끝나기 전에는 두번째 턴 시작 안 함
+                .then(() -> {
+                    first.tryEmitNext("a");
+                    first.tryEmitComplete();
+                })
+                .expectNext("a", "b")
+                .verifyComplete();
+
+        //then
+        assertEquals(List.of("start-1", "end-1", "start-2"), log);
+        assertEquals(0, mailbox.depth("thread_1"));
+    }
+
+    @Test
+    void 대기열_초과시_바로_429() {
+        //given: 실행 중 1 + 대기 1 = 최대 2
+        Flux<String> never1 = mailbox.submit("thread_1", Flux::never);
+        Flux<String> never2 = mailbox.submit("thread_1", Flux::never);
+
+        StepVerifier.create(Flux.merge(never1, never2))
+                .then(() -> {
+                    //when & then
+                    StepVerifier.create(mailbox.submit("thread_1", () -> Flux.just("c")))
+                            .expectErrorSatisfies(e -> {
+                                assertInstanceOf(CustomApiException.class, e);
+                                assertEquals(429, ((CustomApiException) e).getCode());
+                            })
+                            .verify(Duration.ofSeconds(1));
+                })
+                .thenCancel()
+                .verify();
+
+        //취소되면 슬롯 반환
+        assertEquals(0, mailbox.depth("thread_1"));
+    }
+
+    @Test
+    void 다른_스레드는_서로_기다리지_않음() {
+        //given
+        Flux<String> blocked = mailbox.submit("thread_1", Flux::never);
+
+        StepVerifier.create(blocked)
+                .then(() -> StepVerifier.create(mailbox.submitMono("thread_2", () -> Mono.just("ok")))
+                        .expectNext("ok")
+                        .verifyComplete())
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void 대기중_턴이_취소되어도_다음_턴은_앞_턴이_끝난뒤_실행() {
+        //given
+        Sinks.Empty<Void> first = Sinks.empty();
+        List<String> log = new CopyOnWriteArrayList<>();
+
+        StepVerifier.create(mailbox.submit("thread_1", () -> first.asMono().flux()))
+                .then(() -> {
+                    //두번째 턴은 대기하다 취소
+                    mailbox.submit("thread_1", () -> Flux.just("x")).subscribe().dispose();
+                    mailbox.submit("thread_1", () -> Flux.just("y").doOnSubscribe(s -> log.add("start-3"))).subscribe();
+                    assertTrue(log.isEmpty());
+                    first.tryEmitEmpty();
+                })
+                .verifyComplete();
+
+        assertEquals(List.of("start-3"), log);
+    }
+}
@@ -0,0 +1,223 @@
+package com.develokit.maeum_ieum.service.outbox;
+
+import com.develokit.maeum_ieum.domain.assistant.Assistant;
+import com.develokit.maeum_ieum.domain.assistant.AssistantRepository;
+import com.develokit.maeum_ieum.domain.outbox.OpenAiOutbox;
+import com.develokit.maeum_ieum.domain.outbox.OpenAiOutboxRepository;
+import com.develokit.maeum_ieum.domain.outbox.OutboxOperation;
+import com.develokit.maeum_ieum.domain.outbox.OutboxStatus;
+import com.develokit.maeum_ieum.dto.openAi.thread.RespDto.ThreadRespDto;
+import com.develokit.maeum_ieum.dummy.DummyObject;
+import com.develokit.maeum_ieum.ex.CustomApiException;
+import com.develokit.maeum_ieum.service.OpenAiService;
+import com.develokit.maeum_ieum.service.chat.ConversationContextManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OpenAiOutboxDispatcherTest extends DummyObject {
+
+    private final OpenAiOutboxRepository outboxRepository = mock(OpenAiOutboxRepository.class);
+    private final AssistantRepository assistantRepository = mock(AssistantRepository.class);
+    private final OpenAiService openAiService = mock(OpenAiService.class);
+    private final ConversationContextManager conversationContextManager = mock(ConversationContextManager.class);
+    private final OpenAiOutboxDispatcher dispatcher = new OpenAiOutboxDispatcher(outboxRepository, assistantRepository, openAiService,
+            conversationContextManager, new ObjectMapper(), mock(PlatformTransactionManager.class), 1000, 20, 3, 1000, 60_000, 60_000, 2);
+
+    @Test
+    void 어시스턴트_생성_후_OpenAI_아이디_반영() {
+        //given
+        Assistant assistant = newMockAssistant(newCaregiver());
+        OpenAiOutbox outbox = OpenAiOutbox.builder().operation(OutboxOperation.CREATE_ASSISTANT).assistantId(1L).build();
+        when(outboxRepository.claim(eq(10L), any(), any())).thenReturn(1);
+        when(outboxRepository.findById(10L)).thenReturn(Optional.of(outbox));
+        when(assistantRepository.findById(1L)).thenReturn(Optional.of(assistant));
+        when(openAiService.createAssistant(any())).thenReturn("asst_1");
+
+        //when
+        boolean done = dispatcher.dispatchNow(10L);
+
+        //then
+        assertTrue(done);
+        assertEquals("asst_1", assistant.getOpenAiAssistantId());
+        assertEquals(OutboxStatus.DONE, outbox.getStatus());
+        assertEquals("asst_1", outbox.getResult());
+    }
+
+    @Test
+    void 생성은_됐지만_반영_전에_멈춘_아웃박스는_다시_생성하지_않고_반영만() {
+        //given: 이전 시도가 OpenAI 생성 후 결과만 기록하고 중단됨 (점유 만료 후 재시도)
+        Assistant assistant = newMockAssistant(newCaregiver());
+        OpenAiOutbox outbox = OpenAiOutbox.builder().operation(OutboxOperation.CREATE_ASSISTANT).assistantId(1L).build();
+        outbox.recordResult("asst_1");
+        when(outboxRepository.claim(eq(10L), any(), any())).thenReturn(1);
+        when(outboxRepository.findById(10L)).thenReturn(Optional.of(outbox));
+        when(assistantRepository.findById(1L)).thenReturn(Optional.of(assistant));
+
+        //when
+        boolean done = dispatcher.dispatchNow(10L);
+
+        //then
+        assertTrue(done);
+        verify(openAiService, never()).createAssistant(any());
+        assertEquals("asst_1", assistant.getOpenAiAssistantId());
+        assertEquals(OutboxStatus.DONE, outbox.getStatus());
+    }
+
+    @Test
+    void 스레드_생성_중_어시스턴트가_삭제되면_만든_스레드_삭제_예약() {
+        //given
+        OpenAiOutbox outbox = OpenAiOutbox.builder().operation(OutboxOperation.CREATE_THREAD).assistantId(1L).build();
+        when(outboxRepository.claim(eq(10L), any(), any())).thenReturn(1);
+        when(outboxRepository.findById(10L)).thenReturn(Optional.of(outbox));
+        when(assistantRepository.findById(1L)).thenReturn(Optional.empty());
+        when(openAiService.createThread()).thenReturn(ThreadRespDto.builder().id("thread_1").build());
+        when(outboxRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        dispatcher.start();
+
+        //when
+        boolean done;
+        try {
+            done = dispatcher.dispatchNow(10L);
+        } finally {
+            dispatcher.shutdown();
+        }
+
+        //then
+        assertTrue(done);
+        verify(outboxRepository).save(argThat(o -> o.getOperation() == OutboxOperation.DELETE_THREAD && "thread_1".equals(o.getOpenAiThreadId())));
+    }
+
+    @Test
+    void 교체_스레드가_반영되면_이전_스레드_추적_정리와_삭제_예약() {
+        //given: 요청 경로가 아니라 백그라운드 재시도로 반영되는 경우
+        Assistant assistant = newMockAssistant(newCaregiver());
+        OpenAiOutbox outbox = OpenAiOutbox.builder().operation(OutboxOperation.CREATE_THREAD).assistantId(1L).openAiThreadId("thread_old").build();
+        when(outboxRepository.claim(eq(10L), any(), any())).thenReturn(1);
+        when(outboxRepository.findById(10L)).thenReturn(Optional.of(outbox));
+        when(assistantRepository.findById(1L)).thenReturn(Optional.of(assistant));
+        when(openAiService.createThread()).thenReturn(ThreadRespDto.builder().id("thread_new").build());
+        when(outboxRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        dispatcher.start();
+
+        //when
+        boolean done;
+        try {
+            done = dispatcher.dispatchNow(10L);
+        } finally {
+            dispatcher.shutdown();
+        }
+
+        //then
+        assertTrue(done);
+        assertEquals("thread_new", assistant.getThreadId());
+        verify(conversationContextManager).rotated("thread_old");
+        verify(outboxRepository).save(argThat(o -> o.getOperation() == OutboxOperation.DELETE_THREAD && "thread_old".equals(o.getOpenAiThreadId())));
+    }
+
+    @Test
+    void 스레드_삭제_아웃박스는_어시스턴트_조회_없이_삭제만() {
+        //given
+        OpenAiOutbox outbox = OpenAiOutbox.builder().operation(OutboxOperation.DELETE_THREAD).openAiThreadId("thread_report_1").build();
+        when(outboxRepository.claim(eq(10L), any(), any())).thenReturn(1);
+        when(outboxRepository.findById(10L)).thenReturn(Optional.of(outbox));
+
+        //when
+        boolean done = dispatcher.dispatchNow(10L);
+
+        //then
+        assertTrue(done);
+        verify(openAiService).deleteThread("thread_report_1");
+        verifyNoInteractions(assistantRepository);
+        assertEquals(OutboxStatus.DONE, outbox.getStatus());
+    }
+
+    @Test
+    void 스레드_삭제는_별도_실행기에서_처리() throws InterruptedException {
+        //given
+        OpenAiOutbox outbox = OpenAiOutbox.builder().operation(OutboxOperation.DELETE_THREAD).openAiThreadId("thread_report_1").build();
+        ReflectionTestUtils.setField(outbox, "id", 10L);
+        when(outboxRepository.save(any())).thenReturn(outbox);
+        when(outboxRepository.claim(eq(10L), any(), any())).thenReturn(1);
+        when(outboxRepository.findById(10L)).thenReturn(Optional.of(outbox));
+        CountDownLatch deleted = new CountDownLatch(1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        doAnswer(invocation -> {
+            threadName.set(Thread.currentThread().getName());
+            deleted.countDown();
+            return null;
+        }).when(openAiService).deleteThread("thread_report_1");
+        dispatcher.start();
+
+        //when
+        try {
+            dispatcher.enqueue(outbox);
+            assertTrue(deleted.await(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.shutdown();
+        }
+
+        //then
+        assertTrue(threadName.get().startsWith("openai-outbox-cleanup-"));
+    }
+
+    @Test
+    void 호출_실패하면_백오프_후_재시도_예약_최대횟수면_중단() {
+        //given
+        OpenAiOutbox outbox = OpenAiOutbox.builder().operation(OutboxOperation.CREATE_THREAD).assistantId(1L).build();
+        when(outboxRepository.claim(eq(10L), any(), any())).thenReturn(1);
+        when(outboxRepository.findById(10L)).thenReturn(Optional.of(outbox));
+        when(openAiService.createThread()).thenThrow(new CustomApiException("OPENAI_SERVER_ERROR", 500, HttpStatus.INTERNAL_SERVER_ERROR));
+
+        //when
+        boolean done = dispatcher.dispatchNow(10L);
+
+        //then
+        assertFalse(done);
+        assertEquals(OutboxStatus.PENDING, outbox.getStatus());
+        assertEquals(1, outbox.getAttempts());
+        assertTrue(outbox.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(assistantRepository, never()).findById(any());
+
+        //when: 최대 시도 횟수(3) 도달
+        dispatcher.dispatchNow(10L);
+        dispatcher.dispatchNow(10L);
+
+        //then
+        assertEquals(OutboxStatus.FAILED, outbox.getStatus());
+        assertEquals("OPENAI_SERVER_ERROR", outbox.getLastError());
+    }
+
+    @Test
+    void 다른_디스패처가_점유중이면_호출하지_않음() {
+        //given
+        when(outboxRepository.claim(eq(10L), any(), any())).thenReturn(0);
+        when(outboxRepository.findById(10L)).thenReturn(Optional.of(
+                OpenAiOutbox.builder().operation(OutboxOperation.CREATE_THREAD).assistantId(1L).build()));
+
+        //when & then
+        assertFalse(dispatcher.dispatchNow(10L));
+        verifyNoInteractions(openAiService);
+    }
+
+    @Test
+    void 백오프는_지수적으로_증가하고_상한을_넘지_않음() {
+        assertTrue(dispatcher.backoff(1) >= 800 && dispatcher.backoff(1) <= 1200);
+        assertTrue(dispatcher.backoff(3) >= 3200 && dispatcher.backoff(3) <= 4800);
+        assertTrue(dispatcher.backoff(30) <= 72_000);
+    }
+}
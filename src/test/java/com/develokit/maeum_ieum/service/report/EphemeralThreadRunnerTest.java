@@ -0,0 +1,54 @@
+package com.develokit.maeum_ieum.service.report;
+
+import com.develokit.maeum_ieum.config.openAI.simulator.OpenAiSimulator;
+import com.develokit.maeum_ieum.config.openAI.stream.RunStateMachine;
+import com.develokit.maeum_ieum.config.openAI.stream.StreamEventDecoder;
+import com.develokit.maeum_ieum.domain.outbox.OpenAiOutbox;
+import com.develokit.maeum_ieum.domain.outbox.OutboxOperation;
+import com.develokit.maeum_ieum.service.outbox.OpenAiOutboxDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EphemeralThreadRunnerTest {
+
+    private final OpenAiOutboxDispatcher openAiOutboxDispatcher = mock(OpenAiOutboxDispatcher.class);
+    private OpenAiSimulator simulator;
+
+    @AfterEach
+    void tearDown() {
+        if (simulator != null) simulator.close();
+    }
+
+    @Test
+    void 분석마다_새_스레드에서_런을_실행하고_끝나면_스레드_삭제_예약() {
+        //given
+        simulator = OpenAiSimulator.start(OpenAiSimulator.Settings.builder().ttftMs(0).tokensPerSecond(0).answer("**ActivityLevelIndicator: GOOD**").build());
+        EphemeralThreadRunner runner = new EphemeralThreadRunner(WebClient.create(simulator.baseUrl()), new StreamEventDecoder(), openAiOutboxDispatcher);
+
+        //when: 동시에 두 건 분석
+        List<RunStateMachine.Result> results = Mono.zip(runner.run("asst_report", "대화 1"), runner.run("asst_report", "대화 2"), List::of)
+                .block(Duration.ofSeconds(5));
+
+        //then: 스레드가 각각 따로 생성되고, 두 스레드 모두 삭제 아웃박스로 넘어감
+        assertNotNull(results);
+        assertEquals("**ActivityLevelIndicator: GOOD**", results.get(0).answer());
+        assertNotEquals(results.get(0).threadId(), results.get(1).threadId());
+        assertEquals(2, simulator.requestCount("runs"));
+        assertEquals(0, simulator.requestCount("messages"));
+
+        ArgumentCaptor<OpenAiOutbox> captor = ArgumentCaptor.forClass(OpenAiOutbox.class);
+        verify(openAiOutboxDispatcher, timeout(1000).times(2)).enqueue(captor.capture());
+        assertTrue(captor.getAllValues().stream().allMatch(outbox -> outbox.getOperation() == OutboxOperation.DELETE_THREAD));
+        assertEquals(List.of(results.get(0).threadId(), results.get(1).threadId()).stream().sorted().toList(),
+                captor.getAllValues().stream().map(OpenAiOutbox::getOpenAiThreadId).sorted().toList());
+    }
+}